@@ -0,0 +1,62 @@
+package com.bomberman.benchmarks;
+
+import com.bomberman.model.Level;
+
+/**
+ * Cartes utilisées par les mesures, générées de façon déterministe (mêmes cartes à chaque exécution).
+ * Codes de case identiques aux fichiers .level : 0 sol, 1 mur indestructible, 2 mur destructible.
+ */
+public final class BenchmarkMaps {
+    public enum Kind {
+        /** Contour seul : grandes lignes droites, explosions et chemins sans obstacle. */
+        EMPTY,
+        /** Piliers classiques et murs destructibles partout sauf autour des points d'apparition. */
+        DENSE,
+        /** Piliers classiques et couloirs étroits : beaucoup de détours pour l'A*. */
+        MAZE
+    }
+
+    private static final String GROUND = "/images/elementsMap/herbe.png";
+    private static final String WALL = "/images/elementsMap/murIndestructible.png";
+    private static final String BREAKABLE = "/images/elementsMap/murDestructible.png";
+
+    private BenchmarkMaps() {}
+
+    public static Level level(Kind kind, int width, int height) {
+        return new Level(kind.name().toLowerCase() + "-" + width + "x" + height, GROUND, WALL, BREAKABLE, layout(kind, width, height));
+    }
+
+    public static int[][] layout(Kind kind, int width, int height) {
+        int[][] layout = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                boolean border = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+                boolean pillar = x % 2 == 0 && y % 2 == 0;
+                int cell;
+                if (border) {
+                    cell = 1;
+                } else if (kind == Kind.EMPTY) {
+                    cell = 0;
+                } else if (pillar) {
+                    cell = 1;
+                } else if (nearSpawn(x, y, width, height)) {
+                    cell = 0;
+                } else if (kind == Kind.DENSE) {
+                    cell = 2;
+                } else {
+                    // Labyrinthe : une case sur trois des couloirs est bouchée, en décalé d'une ligne à l'autre
+                    cell = (x + 2 * y) % 3 == 0 ? 2 : 0;
+                }
+                layout[y][x] = cell;
+            }
+        }
+        return layout;
+    }
+
+    // Les 4 coins jouables (points d'apparition de Game) et leurs voisins restent libres
+    private static boolean nearSpawn(int x, int y, int width, int height) {
+        int dx = Math.min(x - 1, width - 2 - x);
+        int dy = Math.min(y - 1, height - 2 - y);
+        return dx + dy <= 1;
+    }
+}
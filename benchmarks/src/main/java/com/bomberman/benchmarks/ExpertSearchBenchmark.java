@@ -0,0 +1,57 @@
+package com.bomberman.benchmarks;
+
+import com.bomberman.model.AIDifficulty;
+import com.bomberman.model.ExpertPlanner;
+import com.bomberman.model.Game;
+import com.bomberman.model.GameSnapshot;
+import com.bomberman.model.PlayerAI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la recherche de l'IA EXPERT à nombre de simulations fixé (sans budget en temps),
+ * et des deux briques qu'elle répète : instantané et restauration de la partie.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpertSearchBenchmark {
+    @Param({"EMPTY", "DENSE", "MAZE"})
+    public BenchmarkMaps.Kind map;
+
+    @Param({"60", "240"})
+    public int rollouts;
+
+    private Game game;
+    private GameSnapshot root;
+    private ExpertPlanner planner;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = new Game(15, 13, 0, 4, BenchmarkMaps.level(map, 15, 13), AIDifficulty.NORMAL, 42L);
+        game.placeBombAt(7, 6, 3, 60);
+        root = game.snapshot();
+        planner = new ExpertPlanner(0, 42L);
+        planner.setLimits(0, rollouts);
+    }
+
+    @Benchmark
+    public PlayerAI.Intent search() {
+        return planner.search(root);
+    }
+
+    @Benchmark
+    public GameSnapshot snapshot() {
+        return game.snapshot();
+    }
+
+    @Benchmark
+    public Game restore() {
+        game.restore(root);
+        return game;
+    }
+}
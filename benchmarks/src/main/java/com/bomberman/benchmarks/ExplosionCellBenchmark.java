@@ -0,0 +1,45 @@
+package com.bomberman.benchmarks;
+
+import com.bomberman.model.Game;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture de la partie d'explosion à afficher ({@link Game#getExplosionCell}) sur toutes les cases,
+ * comme le fait l'affichage complet, avec une grille couverte d'explosions croisées.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExplosionCellBenchmark {
+    @Param({"15", "51", "101"})
+    public int size;
+
+    private Game game;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new Game(size, size, 0, 2, BenchmarkMaps.level(BenchmarkMaps.Kind.EMPTY, size, size), null);
+        // Une bombe toutes les 4 cases : les souffles se croisent et se recouvrent
+        for (int y = 2; y < size - 1; y += 4) {
+            for (int x = 2; x < size - 1; x += 4) {
+                game.placeBombAt(x, y, 3, 1);
+            }
+        }
+        game.updateBombs(); // toutes les bombes sautent : les explosions restent affichées pendant ce tick
+    }
+
+    @Benchmark
+    public void scanFullGrid(Blackhole bh) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                bh.consume(game.getExplosionCell(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bomberman.benchmarks;
+
+import com.bomberman.model.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'un tick de bombes ({@link Game#updateBombs()}) :
+ *   - N bombes qui sautent dans le même tick (réactions en chaîne comprises),
+ *   - une seule bombe de grande portée au centre d'une grande carte vide (chemin de l'explosion).
+ * Chaque appel mesuré part d'une partie neuve préparée hors mesure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameTickBenchmark {
+
+    @State(Scope.Thread)
+    public static class SimultaneousBombs {
+        @Param({"1", "16", "64", "256"})
+        public int bombCount;
+
+        Game game;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            // Carte vide assez grande pour poser toutes les bombes sur les cases impaires
+            int side = 2 * (int) Math.ceil(Math.sqrt(bombCount)) + 3;
+            game = new Game(side, side, 0, 2, BenchmarkMaps.level(BenchmarkMaps.Kind.EMPTY, side, side), null);
+            int placed = 0;
+            for (int y = 1; y < side - 1 && placed < bombCount; y += 2) {
+                for (int x = 1; x < side - 1 && placed < bombCount; x += 2) {
+                    if (game.placeBombAt(x, y, 2, 1) != null) placed++;
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LargeRange {
+        @Param({"1", "8", "32", "64"})
+        public int range;
+
+        Game game;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            int side = 2 * range + 3;
+            game = new Game(side, side, 0, 2, BenchmarkMaps.level(BenchmarkMaps.Kind.EMPTY, side, side), null);
+            game.placeBombAt(side / 2, side / 2, range, 1);
+        }
+    }
+
+    @Benchmark
+    public Game updateBombsSimultaneous(SimultaneousBombs state) {
+        state.game.updateBombs();
+        return state.game;
+    }
+
+    @Benchmark
+    public Game explodeLargeRange(LargeRange state) {
+        state.game.updateBombs();
+        return state.game;
+    }
+}
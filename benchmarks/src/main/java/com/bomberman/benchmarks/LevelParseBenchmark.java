@@ -0,0 +1,60 @@
+package com.bomberman.benchmarks;
+
+import com.bomberman.model.Level;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chargement d'un fichier .level ({@link Level#fromFile}) pour des cartes de taille croissante,
+ * et lecture de son seul en-tête ({@link Level#readHeader}) comme lors du parcours du catalogue.
+ * Les fichiers sont écrits une fois dans un dossier temporaire, au format texte ({@link Level#saveToFile})
+ * ou binaire, cases compressées ou non ({@link Level#saveBinary}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LevelParseBenchmark {
+    @Param({"15", "101", "501", "1001"})
+    public int size;
+
+    @Param({"TEXT", "BINARY", "DEFLATE"})
+    public String format;
+
+    private Path dir;
+    private Path file;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bomberman-levels");
+        file = dir.resolve("bench-" + size + ".level");
+        Level level = BenchmarkMaps.level(BenchmarkMaps.Kind.MAZE, size, size);
+        switch (format) {
+            case "BINARY" -> level.saveBinary(file, false);
+            case "DEFLATE" -> level.saveBinary(file, true);
+            default -> level.saveToFile(file);
+        }
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public Level fromFile() throws IOException {
+        return Level.fromFile(file);
+    }
+
+    @Benchmark
+    public Level.Header readHeader() throws IOException {
+        return Level.readHeader(file);
+    }
+}
@@ -0,0 +1,59 @@
+package com.bomberman.benchmarks;
+
+import com.bomberman.model.AIDifficulty;
+import com.bomberman.model.Game;
+import com.bomberman.model.Player;
+import com.bomberman.model.PlayerAI;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la décision d'une IA (ancien PlayerAI.updateAI, aujourd'hui {@link PlayerAI#decide}) par difficulté
+ * et par type de carte, plus la phase IA complète d'un tick ({@link Game#updateAIs()}) avec 4 IA.
+ * Des bombes sont posées au départ pour que les cartes de danger et la fuite soient sollicitées.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerAIBenchmark {
+    @Param({"FACILE", "NORMAL", "DIFFICILE"})
+    public AIDifficulty difficulty;
+
+    @Param({"EMPTY", "DENSE", "MAZE"})
+    public BenchmarkMaps.Kind map;
+
+    @Param({"15", "31"})
+    public int size;
+
+    private Game game;
+    private PlayerAI ai;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = new Game(size, size, 0, 4, BenchmarkMaps.level(map, size, size), difficulty);
+        // Quelques bombes au centre : le danger n'est pas nul, sans toucher les points d'apparition
+        game.placeBombAt(size / 2, size / 2, 3, 60);
+        game.placeBombAt(size / 2 - 1, size / 2 + 1, 2, 60);
+        for (Player p : game.getPlayers()) {
+            if (p instanceof PlayerAI candidate) {
+                ai = candidate;
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public PlayerAI.Intent decide() {
+        return ai.decide(game.getGrid(), game.getBombs(), game.getPlayers(), game.getDangerMap());
+    }
+
+    @Benchmark
+    public Game updateAIs() {
+        game.updateAIs();
+        return game;
+    }
+}
@@ -1,10 +1,23 @@
 package com.bomberman.controller;
 
 import com.bomberman.model.Game;
+import com.bomberman.model.GameEngine;
+import com.bomberman.model.GameSettings;
 import com.bomberman.model.Player;
-import com.bomberman.model.Bomb;
 import com.bomberman.model.Level;
 import com.bomberman.model.Bonus;
+import com.bomberman.model.DirtyCells;
+import com.bomberman.model.Grid;
+import com.bomberman.model.OccupancyIndex;
+import com.bomberman.model.Replay;
+import com.bomberman.model.ReplayPlayer;
+import com.bomberman.model.ReplayRecorder;
+import com.bomberman.model.FlameBonus;
+import com.bomberman.model.JacketBonus;
+import com.bomberman.model.LifeBonus;
+import com.bomberman.view.ImageCache;
+import com.bomberman.view.LevelThumbnailCache;
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.fxml.FXML;
@@ -25,7 +38,9 @@ import javafx.util.Duration;
 import javafx.scene.image.Image;
 import com.bomberman.model.AIDifficulty;
 
-import java.io.InputStream;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Contrôleur principal du jeu Bomberman.
@@ -49,9 +64,16 @@ public class GameController {
 
     // Données du jeu
     private Game game;
-    private Timeline gameTimeline;
+    private GameEngine engine;
+    private AnimationTimer gameLoop;
     private Timeline timerTimeline;
-    private int timerSeconds = 180; // 3 minutes
+    private static final int MATCH_SECONDS = 180; // 3 minutes
+    private int timerSeconds = MATCH_SECONDS;
+
+    // Replay : enregistrement de la partie en cours, ou lecture d'une partie enregistrée (null sinon)
+    public static final String REPLAY_DIR = "replays";
+    private ReplayRecorder recorder;
+    private ReplayPlayer replayPlayer;
 
     // État de pause
     private boolean isPaused = false;
@@ -102,18 +124,39 @@ public class GameController {
     // Pour la direction d'affichage de chaque joueur/IA (0=bas, 1=haut, 2=gauche, 3=droite)
     // Indexé sur la position dans game.getPlayers()
     private int[] playerDirections = new int[4];
+    // Positions au tick précédent (pour déduire la direction des IA)
+    private int[] lastPositionsX = new int[0];
+    private int[] lastPositionsY = new int[0];
 
     private Level level;
+    private int gridWidth = 15;
+    private int gridHeight = 13;
     private int playerCount;
     private int iaCount;
+    private AIDifficulty aiDifficulty = AIDifficulty.NORMAL;
 
     private Image wallIndestructibleImg;
     private Image wallDestructibleImg;
     private Image solImg;
     private Image bombImg;
+    // Sprites d'explosion (orientation de base : branche horizontale, fin pointant vers le haut)
+    private Image explosionCentreImg;
+    private Image explosionBranchImg;
+    private Image explosionEndImg;
+
+    // Rendu incrémental : fond statique en cache, HUD redessiné seulement quand il change
+    private Image backgroundLayer;
+    private boolean fullRedraw = true;
+    private int hudTimerSeconds = -1;
+    private int[] hudLives = new int[0];
 
     public void setStage(Stage stage) { this.stage = stage; }
     public void setLevel(Level level) { this.level = level; }
+    /** Taille de la grille de la prochaine partie (15x13 par défaut). */
+    public void setGridSize(int gridWidth, int gridHeight) {
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+    }
     public void setPlayerCount(int playerCount) { this.playerCount = playerCount; }
     public void setIaCount(int iaCount) { this.iaCount = iaCount; }
 
@@ -276,9 +319,9 @@ public class GameController {
         // Cacher complètement le bouton pause
         pauseButton.setVisible(false);
 
-        // Arrêter les timelines
-        if (gameTimeline != null) {
-            gameTimeline.pause();
+        // Arrêter la boucle de jeu et le timer
+        if (gameLoop != null) {
+            gameLoop.stop();
         }
         if (timerTimeline != null) {
             timerTimeline.pause();
@@ -288,6 +331,7 @@ public class GameController {
         gameCanvas.setDisable(false);
 
         // Redessiner pour afficher le voile
+        fullRedraw = true;
         drawGrid();
     }
 
@@ -298,9 +342,10 @@ public class GameController {
         pauseButton.setVisible(true);
         pauseButton.setText("PAUSE");
 
-        // Redémarrer les timelines
-        if (gameTimeline != null) {
-            gameTimeline.play();
+        // Redémarrer la boucle de jeu (sans rattraper le temps passé en pause) et le timer
+        if (gameLoop != null) {
+            engine.resetClock();
+            gameLoop.start();
         }
         if (timerTimeline != null) {
             timerTimeline.play();
@@ -310,13 +355,39 @@ public class GameController {
         gameCanvas.setDisable(false);
 
         // Redessiner pour masquer le voile
+        fullRedraw = true;
         drawGrid();
     }
 
     public void startGame() {
-        // 1. Initialisation du modèle
-        game = new Game(15, 13, playerCount, iaCount, level, null);
+        // 1. Initialisation du modèle, enregistrement des actions pour le replay
+        game = new Game(gridWidth, gridHeight, playerCount, iaCount, level, aiDifficulty);
+        game.setExpertSearchLimits(GameSettings.getExpertBudgetMillis(), 0);
+        engine = new GameEngine(game);
+        replayPlayer = null;
+        recorder = new ReplayRecorder(game, level, playerCount, iaCount, engine.getTicksPerSecond());
+        game.setInputListener(recorder);
+        beginMatch();
+    }
+
+    /**
+     * Rejoue une partie enregistrée : mêmes affichages qu'une partie, sans contrôle des joueurs.
+     * Touches 1 / 2 / 3 : vitesse ×1 / ×4 / ×16.
+     */
+    public void startReplay(Replay replay) {
+        replayPlayer = new ReplayPlayer(replay);
+        recorder = null;
+        level = replay.getLevel();
+        playerCount = replay.getPlayerCount();
+        iaCount = replay.getIaCount();
+        if (replay.getAIDifficulty() != null) aiDifficulty = replay.getAIDifficulty();
+        game = replayPlayer.getGame();
+        engine = replayPlayer.getEngine();
+        beginMatch();
+    }
 
+    /** Chargement des ressources, mise en place de l'affichage et lancement de la boucle pour la partie courante. */
+    private void beginMatch() {
         // 2. Chargement des ressources
         for (int i = 0; i < avatarsJoueurs.length; i++) {
             avatarsJoueurs[i] = safeImageFromResource(AVATAR_PATHS[i]);
@@ -335,6 +406,14 @@ public class GameController {
         wallDestructibleImg   = safeImageFromResource(level.getWallDestructibleImagePath());
         solImg                = safeImageFromResource(level.getGroundImagePath());
         bombImg               = safeImageFromResource("/images/items/bombe.png");
+        explosionCentreImg    = safeImageFromResource("/images/explosion/ExplosionV2-Centre.png");
+        explosionBranchImg    = safeImageFromResource("/images/explosion/ExplosionV2.png");
+        explosionEndImg       = safeImageFromResource("/images/explosion/ExplosionV2-fin.png");
+        // Les bonus apparaissent en cours de partie : on décode leurs images maintenant
+        ImageCache.preload(FlameBonus.SPRITE, JacketBonus.SPRITE, LifeBonus.SPRITE);
+        backgroundLayer = renderBackgroundLayer(game.getGrid());
+        hudLives = new int[game.getPlayers().size()];
+        fullRedraw = true;
 
         // 3. Taille du canvas/fenêtre
         int gridWidth = game.getGrid().getWidth();
@@ -370,20 +449,44 @@ public class GameController {
         gameCanvas.setFocusTraversable(true);
         gameCanvas.setOnKeyPressed(this::handleKeyPressed);
 
-        // 8. Game tick (IA, bombes, etc) avec gestion de direction des IA
-        if (gameTimeline != null) gameTimeline.stop();
-        gameTimeline = new Timeline(new KeyFrame(Duration.seconds(0.2), e -> updateIAAndGame()));
-        gameTimeline.setCycleCount(Timeline.INDEFINITE);
-        gameTimeline.play();
+        // 8. Game tick (IA, bombes, etc) : le moteur à pas fixe avance au rythme des frames JavaFX,
+        //    l'affichage n'est qu'un abonné du moteur
+        if (gameLoop != null) gameLoop.stop();
+        lastPositionsX = new int[game.getPlayers().size()];
+        lastPositionsY = new int[game.getPlayers().size()];
+        rememberPlayerPositions();
+        if (replayPlayer != null) {
+            replayPlayer.addTickListener((g, tick) -> onGameTick());
+        } else {
+            engine.addTickListener((g, tick) -> onGameTick());
+        }
+        gameLoop = new AnimationTimer() {
+            private long lastFrame = -1;
+
+            @Override
+            public void start() {
+                lastFrame = -1;
+                super.start();
+            }
+
+            @Override
+            public void handle(long now) {
+                if (lastFrame >= 0) engine.advance(now - lastFrame);
+                lastFrame = now;
+            }
+        };
+        gameLoop.start();
 
-        // 9. Timer décompte (3 minutes)
+        // 9. Timer décompte (3 minutes) ; en replay, il est déduit du tick rejoué (suit la vitesse de lecture)
         if (timerTimeline != null) timerTimeline.stop();
-        timerSeconds = 180;
+        timerTimeline = null;
+        timerSeconds = MATCH_SECONDS;
+        if (replayPlayer != null) return;
         timerTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
             timerSeconds--;
             if (timerSeconds <= 0) {
                 timerTimeline.stop();
-                gameTimeline.stop();
+                gameLoop.stop();
                 returnToMenu();
             }
             drawGrid();
@@ -393,32 +496,16 @@ public class GameController {
     }
 
     /**
-     * Tick du jeu : met à jour IA, bombes et directions des IA.
+     * Abonné du moteur, appelé après chaque tick (IA + bombes) : met à jour les directions des IA et redessine.
      */
-    private void updateIAAndGame() {
-        // Ne pas mettre à jour si le jeu est en pause
-        if (isPaused) return;
-
-        // Mémorise les positions avant
+    private void onGameTick() {
+        // Met à jour direction des IA (pour tous les joueurs non humains, et tous les joueurs en replay)
         int nbPlayers = game.getPlayers().size();
-        int[] prevX = new int[nbPlayers];
-        int[] prevY = new int[nbPlayers];
-        for (int i = 0; i < nbPlayers; i++) {
-            Player p = game.getPlayers().get(i);
-            prevX[i] = p.getX();
-            prevY[i] = p.getY();
-        }
-
-        // Tick IA et bombes
-        game.updateAIs();
-        game.updateBombs();
-
-        // Met à jour direction des IA (pour tous les joueurs non humains)
         for (int i = 0; i < nbPlayers; i++) {
             Player p = game.getPlayers().get(i);
-            if (!p.isHuman()) {
-                int dx = p.getX() - prevX[i];
-                int dy = p.getY() - prevY[i];
+            if (!p.isHuman() || replayPlayer != null) {
+                int dx = p.getX() - lastPositionsX[i];
+                int dy = p.getY() - lastPositionsY[i];
                 if      (dx ==  1) playerDirections[i] = 3; // droite
                 else if (dx == -1) playerDirections[i] = 2; // gauche
                 else if (dy ==  1) playerDirections[i] = 0; // bas
@@ -426,13 +513,28 @@ public class GameController {
                 // sinon : direction inchangée
             }
         }
+        rememberPlayerPositions();
+        if (replayPlayer != null) {
+            timerSeconds = MATCH_SECONDS - game.getCurrentTick() / replayPlayer.getReplay().getTicksPerSecond();
+            if (replayPlayer.isFinished()) gameLoop.stop();
+        }
         drawGrid();
     }
 
+    /** Mémorise les positions courantes pour déduire la direction des IA au tick suivant. */
+    private void rememberPlayerPositions() {
+        for (int i = 0; i < lastPositionsX.length; i++) {
+            Player p = game.getPlayers().get(i);
+            lastPositionsX[i] = p.getX();
+            lastPositionsY[i] = p.getY();
+        }
+    }
+
     /** Retour au menu principal */
     private void returnToMenu() {
-        if (gameTimeline != null) gameTimeline.stop();
+        if (gameLoop != null) gameLoop.stop();
         if (timerTimeline != null) timerTimeline.stop();
+        saveReplay();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/bomberman/view/menu.fxml"));
             Parent root = loader.load();
@@ -444,11 +546,25 @@ public class GameController {
         }
     }
 
+    /** Enregistre le replay de la partie dans le dossier des replays (rien en mode replay). */
+    private void saveReplay() {
+        if (recorder == null) return;
+        ReplayRecorder finished = recorder;
+        recorder = null;
+        game.setInputListener(null);
+        try {
+            String name = "replay-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + Replay.FILE_EXTENSION;
+            finished.toReplay().save(Paths.get(REPLAY_DIR, name));
+        } catch (Exception e) {
+            System.err.println("Erreur lors de l'enregistrement du replay : " + e.getMessage());
+        }
+    }
+
     /** Fin de partie si un joueur est mort */
     private void checkGameOver() {
         boolean someoneDead = game.getPlayers().stream().anyMatch(p -> p.getLives() <= 0);
         if (someoneDead) {
-            if (gameTimeline != null) gameTimeline.stop();
+            if (gameLoop != null) gameLoop.stop();
             if (timerTimeline != null) timerTimeline.stop();
             returnToMenu();
         }
@@ -467,6 +583,16 @@ public class GameController {
         // Ne pas traiter les autres touches si le jeu est en pause
         if (isPaused) return;
 
+        // En replay : seules les touches de vitesse sont actives
+        if (replayPlayer != null) {
+            switch (event.getCode()) {
+                case DIGIT1, NUMPAD1 -> replayPlayer.setSpeed(1);
+                case DIGIT2, NUMPAD2 -> replayPlayer.setSpeed(4);
+                case DIGIT3, NUMPAD3 -> replayPlayer.setSpeed(16);
+            }
+            return;
+        }
+
         for (int idx = 0; idx < game.getPlayers().size(); idx++) {
             Player p = game.getPlayers().get(idx);
             if (!p.isAlive() || !p.isHuman()) continue;
@@ -491,11 +617,18 @@ public class GameController {
                 }
                 // Ajoutez ici les mappings pour joueurs 3/4 si besoin
             }
+            // Le sprite peut avoir changé de direction sans que le joueur ait bougé
+            game.getDirtyCells().mark(p.getX(), p.getY());
         }
         drawGrid();
     }
 
-    /** Affichage principal du plateau, des joueurs, du timer, etc. */
+    /**
+     * Affichage principal du plateau, des joueurs, du timer, etc.
+     * Rendu par couches : le HUD n'est redessiné que si les vies ou le timer changent,
+     * et seules les cases signalées par le modèle sont repeintes (sur la couche de fond en cache).
+     * Un affichage complet est fait au démarrage, à la pause et à la reprise.
+     */
     private void drawGrid() {
         if (game == null || game.getPlayers().isEmpty()) return;
 
@@ -508,7 +641,99 @@ public class GameController {
         double canvasWidth = borderPixel * 2 + gridWidth * CELL_SIZE;
         double canvasHeight = topUiHeight + borderPixel * 2 + gridHeight * CELL_SIZE;
 
+        DirtyCells dirty = game.getDirtyCells();
+        boolean full = fullRedraw || dirty.isAllDirty();
+        fullRedraw = false;
+
         // --- Barre du haut ---
+        if (full || hudChanged()) {
+            drawHud(gc, canvasWidth, topUiHeight);
+        }
+
+        // --- Plateau, bonus, bombes, joueurs, etc ---
+        if (full) {
+            // Fonds noirs sur les rebords
+            gc.setFill(Color.rgb(34, 34, 34));
+            gc.fillRect(0, topUiHeight, canvasWidth, borderPixel);
+            gc.fillRect(0, topUiHeight + borderPixel + gridHeight * CELL_SIZE, canvasWidth, borderPixel);
+            gc.fillRect(0, topUiHeight, borderPixel, borderPixel + gridHeight * CELL_SIZE);
+            gc.fillRect(borderPixel + gridWidth * CELL_SIZE, topUiHeight, borderPixel, borderPixel + gridHeight * CELL_SIZE);
+
+            // Fond statique d'un seul coup, puis le contenu de chaque case
+            gc.drawImage(backgroundLayer, borderPixel, topUiHeight + borderPixel);
+            for (int y = 0; y < gridHeight; y++) {
+                for (int xg = 0; xg < gridWidth; xg++) {
+                    drawCell(gc, xg, y, borderPixel, topUiHeight, false);
+                }
+            }
+            dirty.clear();
+        } else if (!dirty.isEmpty()) {
+            dirty.drain(cell -> drawCell(gc, cell % gridWidth, cell / gridWidth, borderPixel, topUiHeight, true));
+        }
+
+        // Affichage du voile de pause (tout sera repeint à la reprise)
+        if (isPaused) {
+            drawPauseOverlay(gc, canvasWidth, canvasHeight);
+            fullRedraw = true;
+        }
+
+        checkGameOver();
+    }
+
+    /**
+     * Dessine une case : fond en cache (si demandé), mur destructible ou explosion, puis bonus, bombe et joueurs présents.
+     * Tout tient dans la case, ce qui permet de la repeindre seule.
+     */
+    private void drawCell(GraphicsContext gc, int xg, int y, double borderPixel, double topUiHeight, boolean withBackground) {
+        double drawX = borderPixel + xg * CELL_SIZE;
+        double drawY = topUiHeight + borderPixel + y * CELL_SIZE;
+        if (withBackground) {
+            gc.drawImage(backgroundLayer, xg * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE, drawX, drawY, CELL_SIZE, CELL_SIZE);
+        }
+        switch (game.getGrid().getCellUnchecked(xg, y)) {
+            case DESTRUCTIBLE -> gc.drawImage(wallDestructibleImg, drawX, drawY, CELL_SIZE, CELL_SIZE);
+            case EXPLOSION    -> drawExplosionPart(gc, game.getExplosionCell(xg, y), drawX, drawY);
+            default -> { }
+        }
+
+        OccupancyIndex occupancy = game.getOccupancy();
+        // Bonus
+        Bonus bonus = occupancy.bonusAt(xg, y);
+        if (bonus != null) {
+            gc.drawImage(ImageCache.get(bonus.getSpritePath()), drawX, drawY, CELL_SIZE, CELL_SIZE);
+        }
+        // Bombe
+        if (occupancy.bombAt(xg, y) != null) {
+            gc.drawImage(bombImg, drawX, drawY, CELL_SIZE, CELL_SIZE);
+        }
+        // Joueurs (humains ET IA) avec sprite directionnel
+        int mask = occupancy.playersAt(xg, y);
+        while (mask != 0) {
+            int idx = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            Player p = game.getPlayers().get(idx);
+            if (p.isAlive()) {
+                gc.drawImage(playerSprites[idx][playerDirections[idx]], drawX, drawY, CELL_SIZE, CELL_SIZE);
+            }
+        }
+    }
+
+    /** @return true si une valeur affichée dans le HUD (timer, vies) a changé depuis le dernier dessin */
+    private boolean hudChanged() {
+        if (timerSeconds != hudTimerSeconds) return true;
+        for (int i = 0; i < hudLives.length; i++) {
+            if (game.getPlayers().get(i).getLives() != hudLives[i]) return true;
+        }
+        return false;
+    }
+
+    /** Barre du haut : avatars et vies des joueurs, timer central. */
+    private void drawHud(GraphicsContext gc, double canvasWidth, double topUiHeight) {
+        hudTimerSeconds = timerSeconds;
+        for (int i = 0; i < hudLives.length; i++) {
+            hudLives[i] = game.getPlayers().get(i).getLives();
+        }
+
         gc.setFill(Color.ORANGE);
         gc.fillRect(0, 0, canvasWidth, topUiHeight);
 
@@ -558,68 +783,25 @@ public class GameController {
             drawPlayerBlock(gc, game.getPlayers().get(i), avatarsJoueurs[i], x, (topUiHeight - iconSize) / 2, iconSize, counterSize);
             x += iconSize + counterSize + spacing;
         }
+    }
 
-        // --- Plateau, bonus, bombes, joueurs, etc ---
-        // Fonds noirs sur les rebords
-        gc.setFill(Color.rgb(34, 34, 34));
-        gc.fillRect(0, topUiHeight, canvasWidth, borderPixel);
-        gc.fillRect(0, topUiHeight + borderPixel + gridHeight * CELL_SIZE, canvasWidth, borderPixel);
-        gc.fillRect(0, topUiHeight, borderPixel, borderPixel + gridHeight * CELL_SIZE);
-        gc.fillRect(borderPixel + gridWidth * CELL_SIZE, topUiHeight, borderPixel, borderPixel + gridHeight * CELL_SIZE);
-
-        // Affichage des cases
-        for (int y = 0; y < gridHeight; y++) {
-            for (int xg = 0; xg < gridWidth; xg++) {
-                double drawX = borderPixel + xg * CELL_SIZE;
-                double drawY = topUiHeight + borderPixel + y * CELL_SIZE;
-                switch (grid.getCell(xg, y)) {
-                    case INDESTRUCTIBLE -> gc.drawImage(wallIndestructibleImg, drawX, drawY, CELL_SIZE, CELL_SIZE);
-                    case DESTRUCTIBLE   -> gc.drawImage(wallDestructibleImg, drawX, drawY, CELL_SIZE, CELL_SIZE);
-                    case BOMB           -> gc.drawImage(solImg, drawX, drawY, CELL_SIZE, CELL_SIZE);
-                    case EXPLOSION -> {
-                        gc.setFill(Color.ORANGE);
-                        gc.fillRect(drawX, drawY, CELL_SIZE, CELL_SIZE);
-                        gc.setFill(Color.YELLOW);
-                        gc.fillOval(drawX + CELL_SIZE * 0.2, drawY + CELL_SIZE * 0.2, CELL_SIZE * 0.6, CELL_SIZE * 0.6);
-                        gc.setFill(Color.rgb(255,255,255,0.4));
-                        gc.fillOval(drawX + CELL_SIZE * 0.35, drawY + CELL_SIZE * 0.35, CELL_SIZE * 0.3, CELL_SIZE * 0.3);
-                    }
-                    default -> gc.drawImage(solImg, drawX, drawY, CELL_SIZE, CELL_SIZE);
-                }
-            }
-        }
-
-        // Affichage des bonus
-        for (Bonus bonus : game.getBonuses()) {
-            double bx = borderPixel + bonus.getX() * CELL_SIZE;
-            double by = topUiHeight  + borderPixel + bonus.getY() * CELL_SIZE;
-            gc.drawImage(bonus.getSprite(), bx, by, CELL_SIZE, CELL_SIZE);
-        }
-        // Affichage des bombes
-        for (Bomb b : game.getBombs()) {
-            double bx = borderPixel + b.getX() * CELL_SIZE;
-            double by = topUiHeight + borderPixel + b.getY() * CELL_SIZE;
-            gc.drawImage(bombImg, bx, by, CELL_SIZE, CELL_SIZE);
-        }
-        // Affichage des joueurs (humains ET IA) avec sprite directionnel
-        for (int idx = 0; idx < game.getPlayers().size(); idx++) {
-            Player p = game.getPlayers().get(idx);
-            if (p.isAlive()) {
-                double px = borderPixel + p.getX() * CELL_SIZE;
-                double py = topUiHeight + borderPixel + p.getY() * CELL_SIZE;
-                int direction = playerDirections[idx];
-                Image currentSprite = playerSprites[idx][direction];
-                gc.drawImage(currentSprite, px, py, CELL_SIZE, CELL_SIZE);
+    /**
+     * Couche de fond statique du plateau : sol et murs indestructibles, qui ne changent jamais pendant la partie.
+     * Rendue une fois par partie puis recopiée case par case.
+     */
+    private Image renderBackgroundLayer(Grid grid) {
+        Canvas layer = new Canvas(grid.getWidth() * CELL_SIZE, grid.getHeight() * CELL_SIZE);
+        GraphicsContext lgc = layer.getGraphicsContext2D();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                Image img = grid.getCellUnchecked(x, y) == Grid.CellType.INDESTRUCTIBLE ? wallIndestructibleImg : solImg;
+                lgc.drawImage(img, x * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
             }
         }
+        return layer.snapshot(null, null);
+    }
 
-        // Affichage du voile de pause
-        if (isPaused) {
-            drawPauseOverlay(gc, canvasWidth, canvasHeight);
-        }
-
-        checkGameOver();
-    }/**
+    /**
      * Retourne la taille de cellule utilisée pour l'affichage
      */
     public static int getCellSize() {
@@ -628,6 +810,7 @@ public class GameController {
 
     /**
      * Crée un canvas d'aperçu du niveau pour l'écran de configuration
+     * (voir {@link LevelThumbnailCache} pour un aperçu sans canvas, calculable en arrière-plan)
      */
     public static Canvas createLevelPreviewCanvas(Level level, int cellSize) {
         if (level == null) {
@@ -641,45 +824,41 @@ public class GameController {
             return canvas;
         }
 
-        // Dimensions du niveau
-        int gridWidth = 15;  // Largeur standard du plateau
-        int gridHeight = 13; // Hauteur standard du plateau
-
-        Canvas canvas = new Canvas(gridWidth * cellSize, gridHeight * cellSize);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-
-        // Chargement des images pour l'aperçu
-        Image wallIndestructibleImg = safeImageFromResource(level.getWallIndestructibleImagePath());
-        Image wallDestructibleImg = safeImageFromResource(level.getWallDestructibleImagePath());
-        Image solImg = safeImageFromResource(level.getGroundImagePath());
-
-        // Créer une grille temporaire pour l'aperçu
-        // Vous devrez adapter cette partie selon la structure de votre classe Level
-        // En attendant, voici une version basique qui dessine un aperçu générique
-
-        for (int y = 0; y < gridHeight; y++) {
-            for (int x = 0; x < gridWidth; x++) {
-                double drawX = x * cellSize;
-                double drawY = y * cellSize;
-
-                // Logique d'affichage basique (à adapter selon votre Level)
-                if (x == 0 || x == gridWidth - 1 || y == 0 || y == gridHeight - 1) {
-                    // Bordures = murs indestructibles
-                    gc.drawImage(wallIndestructibleImg, drawX, drawY, cellSize, cellSize);
-                } else if ((x % 2 == 0 && y % 2 == 0)) {
-                    // Murs indestructibles en damier
-                    gc.drawImage(wallIndestructibleImg, drawX, drawY, cellSize, cellSize);
-                } else if (Math.random() < 0.3) {
-                    // Murs destructibles aléatoires (30% de chance)
-                    gc.drawImage(wallDestructibleImg, drawX, drawY, cellSize, cellSize);
-                } else {
-                    // Sol
-                    gc.drawImage(solImg, drawX, drawY, cellSize, cellSize);
-                }
+        // Aperçu composé une fois avec le vrai layout puis gardé en cache (mémoire et disque)
+        Image thumbnail = LevelThumbnailCache.get(level, cellSize);
+        Canvas canvas = new Canvas(thumbnail.getWidth(), thumbnail.getHeight());
+        canvas.getGraphicsContext2D().drawImage(thumbnail, 0, 0);
+        return canvas;
+    }
+
+    /**
+     * Dessine le sprite d'une partie d'explosion, tourné selon sa direction.
+     */
+    private void drawExplosionPart(GraphicsContext gc, Game.ExplosionCell part, double drawX, double drawY) {
+        Image img;
+        double angle;
+        switch (part.type) {
+            case CENTRE -> { img = explosionCentreImg; angle = 0; }
+            case BRANCH -> { img = explosionBranchImg; angle = part.isHorizontal() ? 0 : 90; }
+            default -> {
+                img = explosionEndImg;
+                angle = switch (part.direction) {
+                    case UP -> 0;
+                    case RIGHT -> 90;
+                    case DOWN -> 180;
+                    case LEFT -> 270;
+                };
             }
         }
-
-        return canvas;
+        if (angle == 0) {
+            gc.drawImage(img, drawX, drawY, CELL_SIZE, CELL_SIZE);
+            return;
+        }
+        gc.save();
+        gc.translate(drawX + CELL_SIZE / 2.0, drawY + CELL_SIZE / 2.0);
+        gc.rotate(angle);
+        gc.drawImage(img, -CELL_SIZE / 2.0, -CELL_SIZE / 2.0, CELL_SIZE, CELL_SIZE);
+        gc.restore();
     }
 
     /** Affiche l'avatar d'un joueur, ses vies, et s'il est IA. */
@@ -711,27 +890,20 @@ public class GameController {
         }
     }
 
-    /** DRY : charge une image depuis un chemin ressource ou disque, toujours chemin relatif ressource. */
+    /**
+     * DRY : charge une image depuis un chemin ressource, toujours chemin relatif ressource.
+     * Passe par le cache partagé : chaque image n'est décodée qu'une fois pour toute l'application.
+     */
     public static Image safeImageFromResource(String path) {
-        String fixedPath = path;
-        if (fixedPath != null && !fixedPath.startsWith("/")) {
-            fixedPath = "/" + fixedPath;
-        }
-        try {
-            InputStream stream = GameController.class.getResourceAsStream(fixedPath);
-            if (stream != null) {
-                return new Image(stream);
-            } else {
-                System.err.println("Ressource introuvable : " + fixedPath);
-                // Image par défaut ou placeholder
-                return createDefaultImage();
-            }
-        } catch (Exception e) {
-            System.err.println("Erreur lors du chargement de l'image : " + fixedPath + " - " + e.getMessage());
-            return createDefaultImage();
-        }
+        Image image = ImageCache.get(path);
+        if (image != null) return image;
+        // Image par défaut ou placeholder
+        if (defaultImage == null) defaultImage = createDefaultImage();
+        return defaultImage;
     }
 
+    private static Image defaultImage;
+
     /**
      * Crée une image par défaut en cas d'erreur de chargement
      */
@@ -882,8 +1054,8 @@ public class GameController {
      * Nettoie les ressources lors de la fermeture
      */
     public void cleanup() {
-        if (gameTimeline != null) {
-            gameTimeline.stop();
+        if (gameLoop != null) {
+            gameLoop.stop();
         }
         if (timerTimeline != null) {
             timerTimeline.stop();
@@ -891,5 +1063,6 @@ public class GameController {
     }
 
     public void setAIDifficulty(AIDifficulty selectedAIDifficulty) {
+        if (selectedAIDifficulty != null) this.aiDifficulty = selectedAIDifficulty;
     }
 }
\ No newline at end of file
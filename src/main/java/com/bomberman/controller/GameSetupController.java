@@ -3,6 +3,8 @@ package com.bomberman.controller;
 import com.bomberman.model.AIDifficulty;
 import com.bomberman.model.GameSettings;
 import com.bomberman.model.Level;
+import com.bomberman.model.LevelCatalog;
+import com.bomberman.view.LevelThumbnailCache;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.IntegerProperty;
@@ -11,14 +13,14 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
-import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
-import java.nio.file.Path;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
 
 public class GameSetupController {
@@ -35,24 +37,28 @@ public class GameSetupController {
     private final IntegerProperty playerCount = new SimpleIntegerProperty(2);
     private final IntegerProperty iaCount = new SimpleIntegerProperty(0);
     private final IntegerProperty levelIndex = new SimpleIntegerProperty(0);
-    private final Level[] levels = loadAllLevels();
+    // Niveaux du catalogue, remplis à la fin du parcours en arrière-plan (layouts lus à la demande)
+    private final LevelCatalog catalog = LevelCatalog.getInstance();
+    private List<LevelCatalog.Entry> levels = List.of();
+    private boolean levelsLoading = true;
+    // Lancement demandé, en attente de la lecture du niveau (ignore les appuis répétés)
+    private boolean starting = false;
 
     private Stage stage;
     private int selectedField = 0; // 0 = player, 1 = ia, 2 = theme, 3 = PLAY, 4 = BACK
 
-    private Level[] loadAllLevels() {
-        List<Level> allLevels = new ArrayList<>();
-        try {
-            allLevels.addAll(Level.loadLevelsFromDirectory(
-                    Path.of("src/main/resources/levels/predefined")
-            ));
-        } catch (Exception e) { e.printStackTrace(); }
-        try {
-            allLevels.addAll(Level.loadLevelsFromDirectory(
-                    Path.of("src/main/resources/levels/custom")
-            ));
-        } catch (Exception e) { e.printStackTrace(); }
-        return allLevels.toArray(new Level[0]);
+    /**
+     * Fin du parcours des dossiers de niveaux (appelé sur le thread JavaFX).
+     */
+    private void onLevelsLoaded(List<LevelCatalog.Entry> found, Throwable error) {
+        if (error != null) error.printStackTrace();
+        levels = found != null ? found : List.of();
+        levelsLoading = false;
+        if (levelIndex.get() >= levels.size()) levelIndex.set(0);
+        boolean hasMultipleLevels = levels.size() > 1;
+        themeLeftArrow.setVisible(hasMultipleLevels);
+        themeRightArrow.setVisible(hasMultipleLevels);
+        updateUI();
     }
 
     public void setStage(Stage stage) {
@@ -64,6 +70,7 @@ public class GameSetupController {
     public void initialize() {
         updateUI();
         setupArrowsVisibility();
+        catalog.scanAsync().whenComplete((found, error) -> Platform.runLater(() -> onLevelsLoaded(found, error)));
         playTextLabel.setOnMouseClicked(e -> startGame());
         playTextLabel.setOnMouseEntered(e -> { selectedField = 3; updateHighlight(); });
 
@@ -97,9 +104,9 @@ public class GameSetupController {
                 () -> playerCount.get() + iaCount.get() < 4,
                 playerCount, iaCount
         ));
-        boolean hasMultipleLevels = levels.length > 1;
-        themeLeftArrow.setVisible(hasMultipleLevels);
-        themeRightArrow.setVisible(hasMultipleLevels);
+        // Flèches de thème affichées une fois les niveaux connus
+        themeLeftArrow.setVisible(false);
+        themeRightArrow.setVisible(false);
     }
 
     private void updateHighlight() {
@@ -132,24 +139,70 @@ public class GameSetupController {
     }
 
     private void updateUI() {
-        if (levels.length == 0) {
+        if (levelsLoading) {
+            playerCountLabel.setText(String.valueOf(playerCount.get()));
+            iaCountLabel.setText(String.valueOf(iaCount.get()));
+            themeLabel.setText("CHARGEMENT...");
+            updateHighlight();
+            return;
+        }
+        if (levels.isEmpty()) {
             themeLabel.setText("AUCUN NIVEAU");
             themePreviewPane.getChildren().clear();
             return;
         }
         playerCountLabel.setText(String.valueOf(playerCount.get()));
         iaCountLabel.setText(String.valueOf(iaCount.get()));
-        themeLabel.setText(levels[levelIndex.get()].getName().toUpperCase());
-        showLevelPreview(levels[levelIndex.get()]);
+        LevelCatalog.Entry entry = levels.get(levelIndex.get());
+        themeLabel.setText(entry.getName().toUpperCase());
+        requestLevelPreview(entry);
         updateHighlight();
     }
 
-    private void showLevelPreview(Level level) {
-        themePreviewPane.getChildren().clear();
-        Canvas preview = GameController.createLevelPreviewCanvas(level, GameController.getCellSize());
+    /**
+     * Affiche l'aperçu du niveau : tout de suite s'il est déjà en cache, sinon dès que le layout est lu
+     * et l'aperçu calculé en arrière-plan (sauf si un autre niveau a été choisi entre-temps).
+     * Les aperçus des niveaux voisins sont préparés dans la foulée pour que le défilement soit immédiat.
+     */
+    private void requestLevelPreview(LevelCatalog.Entry entry) {
+        int cellSize = GameController.getCellSize();
+        Image cached = null;
+        if (entry.isLoaded()) {
+            try {
+                cached = LevelThumbnailCache.getIfPresent(entry.getLevel(), cellSize);
+            } catch (IOException e) {
+                // Niveau illisible : le chargement en arrière-plan ci-dessous signalera l'erreur
+            }
+        }
+        if (cached != null) {
+            showLevelPreview(cached);
+        } else {
+            catalog.loadAsync(entry)
+                    .thenCompose(level -> LevelThumbnailCache.getAsync(level, cellSize))
+                    .whenComplete((image, error) -> Platform.runLater(() -> {
+                        if (error != null) {
+                            System.err.println("Erreur chargement niveau: " + entry.getPath() + " : " + error.getMessage());
+                            return;
+                        }
+                        if (!levels.isEmpty() && levels.get(levelIndex.get()) == entry) showLevelPreview(image);
+                    }));
+        }
+        prefetchNeighbourPreviews(cellSize);
+    }
 
-        preview.widthProperty().addListener((obs, oldW, newW) -> adaptStageToPreview());
-        preview.heightProperty().addListener((obs, oldH, newH) -> adaptStageToPreview());
+    // Prépare les aperçus des niveaux à une ou deux flèches de distance (la liste boucle)
+    private void prefetchNeighbourPreviews(int cellSize) {
+        int count = levels.size();
+        for (int offset : new int[] {1, -1, 2, -2}) {
+            if (Math.abs(offset) >= count) continue;
+            LevelCatalog.Entry neighbour = levels.get(Math.floorMod(levelIndex.get() + offset, count));
+            catalog.loadAsync(neighbour).thenAccept(level -> LevelThumbnailCache.prefetch(level, cellSize));
+        }
+    }
+
+    private void showLevelPreview(Image image) {
+        themePreviewPane.getChildren().clear();
+        ImageView preview = new ImageView(image);
 
         StackPane.setAlignment(preview, javafx.geometry.Pos.CENTER);
         StackPane.setMargin(preview, javafx.geometry.Insets.EMPTY);
@@ -161,9 +214,9 @@ public class GameSetupController {
 
     private void adaptStageToPreview() {
         if (stage != null && !themePreviewPane.getChildren().isEmpty()) {
-            Canvas preview = (Canvas) themePreviewPane.getChildren().get(0);
-            double w = preview.getWidth();
-            double h = preview.getHeight();
+            ImageView preview = (ImageView) themePreviewPane.getChildren().get(0);
+            double w = preview.getImage().getWidth();
+            double h = preview.getImage().getHeight();
 
             double fudge = 0.5;
             if (w > 0 && h > 0) {
@@ -194,13 +247,30 @@ public class GameSetupController {
         }
     }
 
+    /**
+     * Lance la partie une fois le layout du niveau lu en arrière-plan (le plus souvent déjà en mémoire grâce à l'aperçu).
+     */
     private void startGame() {
+        if (levels.isEmpty() || starting) return;
+        LevelCatalog.Entry entry = levels.get(levelIndex.get());
+        starting = true;
+        catalog.loadAsync(entry).whenComplete((level, error) -> Platform.runLater(() -> {
+            starting = false;
+            if (error != null) {
+                System.err.println("Erreur chargement niveau: " + entry.getPath() + " : " + error.getMessage());
+                return;
+            }
+            openGame(level);
+        }));
+    }
+
+    private void openGame(Level level) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/bomberman/view/game-view.fxml"));
             Parent root = loader.load();
             GameController gameController = loader.getController();
             gameController.setStage(stage);
-            gameController.setLevel(levels[levelIndex.get()]);
+            gameController.setLevel(level);
             gameController.setPlayerCount(playerCount.get());
             gameController.setIaCount(iaCount.get());
             // Utilise la difficulté IA GLOBALE
@@ -247,8 +317,8 @@ public class GameSetupController {
                 }
             }
             case 2 -> {
-                if (levels.length == 0) return;
-                levelIndex.set((levelIndex.get() - 1 + levels.length) % levels.length);
+                if (levels.isEmpty()) return;
+                levelIndex.set((levelIndex.get() - 1 + levels.size()) % levels.size());
                 updateUI();
             }
         }
@@ -269,8 +339,8 @@ public class GameSetupController {
                 }
             }
             case 2 -> {
-                if (levels.length == 0) return;
-                levelIndex.set((levelIndex.get() + 1) % levels.length);
+                if (levels.isEmpty()) return;
+                levelIndex.set((levelIndex.get() + 1) % levels.size());
                 updateUI();
             }
         }
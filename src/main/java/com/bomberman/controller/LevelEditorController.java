@@ -1,15 +1,26 @@
 package com.bomberman.controller;
 
+import com.bomberman.model.EditJournal;
+import com.bomberman.model.GameSettings;
 import com.bomberman.model.Level;
+import com.bomberman.model.LevelEditor;
+import com.bomberman.model.LevelValidator;
+import com.bomberman.view.ImageCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
@@ -19,19 +30,42 @@ import java.util.Optional;
 public class LevelEditorController {
     @FXML private StackPane rootPane;
     @FXML private ImageView backgroundImage;
-    @FXML private Button clearButton, saveButton, loadButton, backButton;
+    @FXML private Button clearButton, resizeButton, saveButton, loadButton, testButton, backButton;
     @FXML private ToggleButton emptyButton, wallButton, breakableButton;
-    @FXML private GridPane gridPane;
+    @FXML private ToggleButton playerSpawnButton, aiSpawnButton, bonusButton;
+    @FXML private ToggleButton brushTool, lineTool, rectangleTool, fillTool;
+    @FXML private Button undoButton, redoButton;
+    @FXML private Label validationLabel;
+    @FXML private ScrollPane gridScroll;
+    @FXML private Canvas gridCanvas;
 
     @FXML private ImageView groundPreview, indestructiblePreview, destructiblePreview;
     @FXML private Button chooseGroundBtn, chooseIndestructibleBtn, chooseDestructibleBtn;
 
-    private ToggleGroup paletteGroup;
+    private ToggleGroup paletteGroup, toolGroup;
 
     private Stage stage;
-    private static final int COLUMNS = 15;
-    private static final int ROWS = 13;
-    private static final int CELL_SIZE = 35;
+    private static final int DEFAULT_COLUMNS = 15;
+    private static final int DEFAULT_ROWS = 13;
+    private static final int MAX_SIZE = 200;
+    // Zone visible de la grille : au-delà, la grille défile
+    private static final double VIEW_WIDTH = 480;
+    private static final double VIEW_HEIGHT = 416;
+    // Taille d'une case à l'écran : la plus grande qui fait tenir la carte, bornée
+    private static final int MAX_CELL_SIZE = 32;
+    private static final int MIN_CELL_SIZE = 12;
+    // Taille de chargement des images de blocs (redimensionnées au dessin)
+    private static final int IMAGE_SIZE = 32;
+
+    private static final Color CELL_BACKGROUND = Color.web("#222");
+    private static final Color CELL_BORDER = Color.web("#FFD700");
+    private static final Color CELL_HOVER = Color.web("#FFD70088");
+    private static final Color SHAPE_PREVIEW = Color.web("#FFFFFF66");
+    private static final Color PLAYER_SPAWN_COLOR = Color.web("#2E86FF");
+    private static final Color AI_SPAWN_COLOR = Color.web("#E53935");
+    private static final Color BONUS_COLOR = Color.web("#FFD700");
+    private static final Color DISCONNECTED_WARNING = Color.web("#FF1744");
+    private static final Color TRAPPED_WARNING = Color.web("#FF9100");
 
     private String groundImagePath = "/images/elementsMap/herbe.png";
     private String wallIndestructibleImagePath = "/images/elementsMap/murIndestructible.png";
@@ -39,11 +73,41 @@ public class LevelEditorController {
 
     private Image cachedGroundImage, cachedIndestructibleImage, cachedDestructibleImage;
 
-    private char[][] gridData = new char[ROWS][COLUMNS];
-    private Button[][] gridButtons = new Button[ROWS][COLUMNS];
+    // Carte éditée (un octet par case, terrain et marqueurs) ; columns / rows reprennent ses dimensions
+    private final LevelEditor editor = new LevelEditor(DEFAULT_COLUMNS, DEFAULT_ROWS);
+    private int columns = DEFAULT_COLUMNS;
+    private int rows = DEFAULT_ROWS;
+    private int cellSize = MAX_CELL_SIZE;
 
+    // Toute la grille est dessinée sur un seul canvas : la case visée se déduit des coordonnées de la souris
+    private GraphicsContext gc;
     private boolean isDrawing = false;
-    private char currentType = ' ';
+    private byte currentCode = 0;
+    // Dernière case peinte pendant le tracé (pour relier les cases sautées) et case survolée
+    private int lastCol = -1, lastRow = -1;
+    private int hoverCol = -1, hoverRow = -1;
+    // Ligne / rectangle en cours : case de départ et cases de l'aperçu affiché
+    private int anchorCol, anchorRow;
+    private int[] previewCells = new int[64];
+    private int previewCount;
+
+    // Historique : chaque action (tracé, ligne, rectangle, remplissage, effacement) s'annule d'un coup.
+    // Le journal modifie la carte par cet adaptateur, qui redessine chaque case modifiée.
+    private final EditJournal journal = new EditJournal(new EditJournal.Target() {
+        @Override public int getWidth() { return editor.getWidth(); }
+        @Override public int getHeight() { return editor.getHeight(); }
+        @Override public byte get(int index) { return editor.get(index); }
+        @Override public void set(int index, byte value) {
+            editor.set(index, value);
+            validator.cellChanged(index, value);
+            paintCell(index % columns, index / columns);
+        }
+    });
+
+    // Vérification de jouabilité en arrière-plan, relancée après chaque action ; cases signalées sur la grille
+    private LevelValidator validator;
+    private final java.util.BitSet disconnectedCells = new java.util.BitSet();
+    private final java.util.BitSet trappedCells = new java.util.BitSet();
 
     public void setStage(Stage stage) {
         this.stage = stage;
@@ -62,25 +126,23 @@ public class LevelEditorController {
     public void initialize() {
         loadBackgroundImage();
         setupPalette();
+        setupTools();
         setupGrid();
         setupImageChoosers();
         updatePreviews();
 
         clearButton.setOnAction(e -> clearGrid());
+        resizeButton.setOnAction(e -> askGridSize());
         saveButton.setOnAction(e -> saveLevel());
         loadButton.setOnAction(e -> loadLevel());
+        testButton.setOnAction(e -> testLevel());
         backButton.setOnAction(e -> returnToSettings());
-
-        gridPane.setOnMouseReleased(e -> isDrawing = false);
-        gridPane.setOnMouseExited(e -> isDrawing = false);
-        gridPane.setOnMouseDragReleased(e -> isDrawing = false);
     }
 
     private void loadBackgroundImage() {
         try {
-            java.net.URL url = getClass().getResource("/images/menu/Bomber_fond.jpg");
-            if (url != null) {
-                Image image = new Image(url.toExternalForm());
+            Image image = ImageCache.get("/images/menu/Bomber_fond.jpg");
+            if (image != null) {
                 backgroundImage.setImage(image);
                 backgroundImage.setFitWidth(900);
                 backgroundImage.setFitHeight(700);
@@ -108,101 +170,328 @@ public class LevelEditorController {
         emptyButton.setToggleGroup(paletteGroup);
         wallButton.setToggleGroup(paletteGroup);
         breakableButton.setToggleGroup(paletteGroup);
+        playerSpawnButton.setToggleGroup(paletteGroup);
+        aiSpawnButton.setToggleGroup(paletteGroup);
+        bonusButton.setToggleGroup(paletteGroup);
+        playerSpawnButton.setTooltip(new Tooltip("Apparition d'un joueur"));
+        aiSpawnButton.setTooltip(new Tooltip("Apparition d'une IA"));
+        bonusButton.setTooltip(new Tooltip("Bonus présent dès le début"));
         paletteGroup.selectToggle(emptyButton);
     }
 
+    private void setupTools() {
+        toolGroup = new ToggleGroup();
+        for (ToggleButton tool : new ToggleButton[] {brushTool, lineTool, rectangleTool, fillTool}) {
+            tool.setToggleGroup(toolGroup);
+            tool.setFocusTraversable(false);
+        }
+        toolGroup.selectToggle(brushTool);
+        // Toujours un outil sélectionné
+        toolGroup.selectedToggleProperty().addListener((obs, oldT, newT) -> {
+            if (newT == null) toolGroup.selectToggle(oldT);
+        });
+        rectangleTool.setTooltip(new Tooltip("Maj : rectangle plein"));
+
+        undoButton.setTooltip(new Tooltip("Annuler (Ctrl+Z)"));
+        redoButton.setTooltip(new Tooltip("Rétablir (Ctrl+Y)"));
+        undoButton.setOnAction(e -> undo());
+        redoButton.setOnAction(e -> redo());
+        updateHistoryButtons();
+
+        // Ctrl+Z annule, Ctrl+Y ou Ctrl+Maj+Z rétablit
+        rootPane.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null) newScene.addEventFilter(KeyEvent.KEY_PRESSED, this::handleHistoryKey);
+        });
+    }
+
+    private void handleHistoryKey(KeyEvent e) {
+        if (!e.isShortcutDown()) return;
+        if (e.getCode() == KeyCode.Z && !e.isShiftDown()) {
+            undo();
+            e.consume();
+        } else if (e.getCode() == KeyCode.Y || e.getCode() == KeyCode.Z) {
+            redo();
+            e.consume();
+        }
+    }
+
+    private void undo() {
+        if (!isDrawing && journal.undo()) afterEdit();
+    }
+
+    private void redo() {
+        if (!isDrawing && journal.redo()) afterEdit();
+    }
+
+    // Fin d'une action sur la carte : historique et vérification de jouabilité
+    private void afterEdit() {
+        updateHistoryButtons();
+        validator.requestValidation();
+    }
+
+    private void updateHistoryButtons() {
+        undoButton.setDisable(!journal.canUndo());
+        redoButton.setDisable(!journal.canRedo());
+    }
+
+    // Code de case (LevelEditor.CellType) du bloc choisi dans la palette
+    private byte selectedCode() {
+        Toggle selected = paletteGroup.getSelectedToggle();
+        LevelEditor.CellType type = LevelEditor.CellType.EMPTY;
+        if (selected == wallButton) type = LevelEditor.CellType.WALL;
+        else if (selected == breakableButton) type = LevelEditor.CellType.BREAKABLE;
+        else if (selected == playerSpawnButton) type = LevelEditor.CellType.PLAYER_SPAWN;
+        else if (selected == aiSpawnButton) type = LevelEditor.CellType.AI_SPAWN;
+        else if (selected == bonusButton) type = LevelEditor.CellType.BONUS;
+        return (byte) type.ordinal();
+    }
+
     private void setupGrid() {
-        gridPane.getChildren().clear();
-        gridPane.getColumnConstraints().clear();
-        gridPane.getRowConstraints().clear();
-
-        for (int col = 0; col < COLUMNS; col++) {
-            ColumnConstraints cc = new ColumnConstraints();
-            cc.setMinWidth(CELL_SIZE);
-            cc.setPrefWidth(CELL_SIZE);
-            cc.setMaxWidth(CELL_SIZE);
-            gridPane.getColumnConstraints().add(cc);
+        gc = gridCanvas.getGraphicsContext2D();
+        resetValidator();
+        resizeCanvas();
+
+        gridCanvas.setOnMousePressed(this::onGridPressed);
+        gridCanvas.setOnMouseDragged(this::onGridDragged);
+        gridCanvas.setOnMouseReleased(this::onGridReleased);
+        gridCanvas.setOnMouseMoved(e -> setHover(columnAt(e.getX()), rowAt(e.getY())));
+        gridCanvas.setOnMouseExited(e -> setHover(-1, -1));
+    }
+
+    // Adapte la taille des cases et du canvas aux dimensions de la carte, puis redessine tout
+    private void resizeCanvas() {
+        columns = editor.getWidth();
+        rows = editor.getHeight();
+        int fit = (int) Math.min(VIEW_WIDTH / columns, VIEW_HEIGHT / rows);
+        cellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, fit));
+        gridCanvas.setWidth(columns * cellSize);
+        gridCanvas.setHeight(rows * cellSize);
+        hoverCol = hoverRow = -1;
+        refreshGridGraphics();
+    }
+
+    private int columnAt(double x) {
+        return (int) Math.floor(x / cellSize);
+    }
+
+    private int rowAt(double y) {
+        return (int) Math.floor(y / cellSize);
+    }
+
+    private boolean isInGrid(int col, int row) {
+        return col >= 0 && col < columns && row >= 0 && row < rows;
+    }
+
+    private void onGridPressed(MouseEvent e) {
+        currentCode = selectedCode();
+
+        int col = columnAt(e.getX()), row = rowAt(e.getY());
+        if (!isInGrid(col, row)) return;
+        Toggle tool = toolGroup.getSelectedToggle();
+        if (tool == fillTool) {
+            if (journal.floodFill(col, row, currentCode) != null) afterEdit();
+            return;
         }
-        for (int row = 0; row < ROWS; row++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setMinHeight(CELL_SIZE);
-            rc.setPrefHeight(CELL_SIZE);
-            rc.setMaxHeight(CELL_SIZE);
-            gridPane.getRowConstraints().add(rc);
+        isDrawing = true;
+        anchorCol = lastCol = col;
+        anchorRow = lastRow = row;
+        if (tool == brushTool) {
+            journal.beginStroke();
+            paint(col, row);
+        } else {
+            showShapePreview(col, row, e.isShiftDown());
         }
+    }
+
+    private void onGridDragged(MouseEvent e) {
+        int col = columnAt(e.getX()), row = rowAt(e.getY());
+        setHover(col, row);
+        if (!isDrawing || (col == lastCol && row == lastRow)) return;
+        if (toolGroup.getSelectedToggle() == brushTool) {
+            // Un glissé rapide saute des cases : on peint tout le segment depuis la dernière case
+            LevelEditor.forEachCellOnLine(lastCol, lastRow, col, row, this::paint);
+        } else {
+            showShapePreview(col, row, e.isShiftDown());
+        }
+        lastCol = col;
+        lastRow = row;
+    }
 
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLUMNS; col++) {
-                if (gridData[row][col] == 0) gridData[row][col] = ' ';
-                final int finalRow = row;
-                final int finalCol = col;
-
-                Button cell = new Button();
-                cell.setMinSize(CELL_SIZE, CELL_SIZE);
-                cell.setMaxSize(CELL_SIZE, CELL_SIZE);
-                cell.setPrefSize(CELL_SIZE, CELL_SIZE);
-                cell.getStyleClass().add("editor-grid-cell");
-                updateCellVisual(cell, gridData[row][col]);
-                cell.setFocusTraversable(false);
-
-                cell.setOnMousePressed(e -> {
-                    Toggle selected = paletteGroup.getSelectedToggle();
-                    currentType = ' ';
-                    if (selected == wallButton) currentType = '#';
-                    else if (selected == breakableButton) currentType = '%';
-
-                    isDrawing = true;
-                    gridData[finalRow][finalCol] = currentType;
-                    updateCellVisual(cell, currentType);
-                });
-
-                cell.setOnDragDetected(e -> {
-                    cell.startFullDrag();
-                });
-
-                cell.setOnMouseDragEntered(e -> {
-                    if (isDrawing) {
-                        gridData[finalRow][finalCol] = currentType;
-                        updateCellVisual(cell, currentType);
-                    }
-                });
-
-                cell.setOnMouseReleased(e -> {
-                    isDrawing = false;
-                });
-
-                cell.setOnMouseDragReleased(e -> {
-                    isDrawing = false;
-                });
-
-                gridButtons[row][col] = cell;
-                gridPane.add(cell, col, row);
+    private void onGridReleased(MouseEvent e) {
+        if (!isDrawing) return;
+        isDrawing = false;
+        Toggle tool = toolGroup.getSelectedToggle();
+        if (tool == brushTool) {
+            journal.endStroke();
+        } else {
+            clearShapePreview();
+            // Extrémité limitée à la grille : relâcher en dehors trace jusqu'au bord
+            int col = Math.max(0, Math.min(columns - 1, lastCol));
+            int row = Math.max(0, Math.min(rows - 1, lastRow));
+            if (tool == lineTool) {
+                journal.line(anchorCol, anchorRow, col, row, currentCode);
+            } else {
+                journal.rectangle(anchorCol, anchorRow, col, row, e.isShiftDown(), currentCode);
             }
         }
+        lastCol = lastRow = -1;
+        afterEdit();
     }
 
-    private void updateCellVisual(Button cell, char type) {
-        cell.setText("");
+    // Peint une case avec le bloc courant (dans le tracé en cours) ; seule la case modifiée est redessinée
+    private void paint(int col, int row) {
+        journal.set(col, row, currentCode);
+    }
+
+    // Surligne les cases de la ligne ou du rectangle en cours, sans modifier la grille
+    private void showShapePreview(int col, int row, boolean filled) {
+        clearShapePreview();
+        col = Math.max(0, Math.min(columns - 1, col));
+        row = Math.max(0, Math.min(rows - 1, row));
+        LevelEditor.CellVisitor add = (x, y) -> {
+            if (!isInGrid(x, y)) return;
+            if (previewCount == previewCells.length) previewCells = java.util.Arrays.copyOf(previewCells, previewCount * 2);
+            previewCells[previewCount++] = y * columns + x;
+            gc.setFill(SHAPE_PREVIEW);
+            gc.fillRect(x * cellSize, y * cellSize, cellSize, cellSize);
+        };
+        if (toolGroup.getSelectedToggle() == lineTool) {
+            LevelEditor.forEachCellOnLine(anchorCol, anchorRow, col, row, add);
+        } else {
+            LevelEditor.forEachCellInRectangle(anchorCol, anchorRow, col, row, filled, add);
+        }
+    }
+
+    private void clearShapePreview() {
+        for (int i = 0; i < previewCount; i++) {
+            paintCell(previewCells[i] % columns, previewCells[i] / columns);
+        }
+        previewCount = 0;
+    }
+
+    private void setHover(int col, int row) {
+        if (!isInGrid(col, row)) col = row = -1;
+        if (col == hoverCol && row == hoverRow) return;
+        int oldCol = hoverCol, oldRow = hoverRow;
+        hoverCol = col;
+        hoverRow = row;
+        if (oldCol >= 0) paintCell(oldCol, oldRow);
+        if (col >= 0) paintCell(col, row);
+    }
+
+    private void paintCell(int col, int row) {
+        double x = col * cellSize, y = row * cellSize;
+        gc.setFill(CELL_BACKGROUND);
+        gc.fillRect(x, y, cellSize, cellSize);
+        LevelEditor.CellType type = editor.getCell(col, row);
         Image img = switch (type) {
-            case '#' -> cachedIndestructibleImage;
-            case '%' -> cachedDestructibleImage;
+            case WALL -> cachedIndestructibleImage;
+            case BREAKABLE -> cachedDestructibleImage;
             default -> cachedGroundImage;
         };
-        ImageView icon = (img != null) ? new ImageView(img) : null;
-        if (icon != null) {
-            icon.setFitWidth(CELL_SIZE-8);
-            icon.setFitHeight(CELL_SIZE-8);
-            icon.setPreserveRatio(true);
+        double inset = Math.max(1, cellSize / 8);
+        if (img != null) {
+            gc.drawImage(img, x + inset, y + inset, cellSize - 2 * inset, cellSize - 2 * inset);
+        }
+        Color marker = switch (type) {
+            case PLAYER_SPAWN -> PLAYER_SPAWN_COLOR;
+            case AI_SPAWN -> AI_SPAWN_COLOR;
+            case BONUS -> BONUS_COLOR;
+            default -> null;
+        };
+        if (marker != null) {
+            // Marqueur : pastille sur le sol (carrée pour un bonus)
+            double size = cellSize - 4 * inset;
+            gc.setFill(marker);
+            if (type == LevelEditor.CellType.BONUS) gc.fillRect(x + 2 * inset, y + 2 * inset, size, size);
+            else gc.fillOval(x + 2 * inset, y + 2 * inset, size, size);
+        }
+        if (col == hoverCol && row == hoverRow) {
+            gc.setFill(CELL_HOVER);
+            gc.fillRect(x, y, cellSize, cellSize);
+        }
+        gc.setStroke(CELL_BORDER);
+        gc.setLineWidth(1);
+        gc.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+        // Avertissement du validateur : cadre épais (rouge = isolé, orange = sans abri)
+        int index = row * columns + col;
+        Color warning = disconnectedCells.get(index) ? DISCONNECTED_WARNING : trappedCells.get(index) ? TRAPPED_WARNING : null;
+        if (warning != null) {
+            gc.setStroke(warning);
+            gc.setLineWidth(3);
+            gc.strokeRect(x + 1.5, y + 1.5, cellSize - 3, cellSize - 3);
+            gc.setLineWidth(1);
         }
-        cell.setGraphic(icon);
-        cell.setStyle("-fx-background-color: #222; -fx-border-color: #FFD700; -fx-border-width: 1;");
     }
 
     private void clearGrid() {
-        for (int row = 0; row < ROWS; row++)
-            for (int col = 0; col < COLUMNS; col++)
-                gridData[row][col] = ' ';
-        refreshGridGraphics();
+        // Une seule action : l'effacement s'annule aussi
+        journal.rectangle(0, 0, columns - 1, rows - 1, true, (byte) LevelEditor.CellType.EMPTY.ordinal());
+        afterEdit();
+    }
+
+    /**
+     * Demande de nouvelles dimensions (par exemple "60x60") ; le contenu déjà dessiné est conservé
+     * dans la partie commune.
+     */
+    private void askGridSize() {
+        TextInputDialog dialog = new TextInputDialog(columns + "x" + rows);
+        dialog.setTitle("Taille de la carte");
+        dialog.setHeaderText("Largeur x hauteur (de 5 à " + MAX_SIZE + ") :");
+        Optional<String> result = dialog.showAndWait();
+        if (!result.isPresent()) return;
+        String[] parts = result.get().trim().toLowerCase().split("\\s*x\\s*");
+        try {
+            if (parts.length != 2) throw new NumberFormatException();
+            int newColumns = Integer.parseInt(parts[0]);
+            int newRows = Integer.parseInt(parts[1]);
+            if (newColumns < 5 || newRows < 5 || newColumns > MAX_SIZE || newRows > MAX_SIZE) {
+                throw new NumberFormatException();
+            }
+            journal.clear();
+            editor.resize(newColumns, newRows);
+            onMapReplaced();
+        } catch (NumberFormatException ex) {
+            showError("Taille invalide : " + result.get());
+        }
+    }
+
+    // Nouvelle carte (dimensions éventuellement différentes) : l'historique ne s'y applique plus
+    private void onMapReplaced() {
+        journal.clear();
+        resetValidator();
+        resizeCanvas();
+        updateHistoryButtons();
+    }
+
+    // Nouveau validateur pour la carte entière ; les résultats d'un ancien validateur sont ignorés
+    private void resetValidator() {
+        LevelValidator v = LevelValidator.of(editor);
+        v.setListener(report -> Platform.runLater(() -> {
+            if (validator == v) showValidation(report);
+        }));
+        validator = v;
+        disconnectedCells.clear();
+        trappedCells.clear();
+        v.requestValidation();
+    }
+
+    private void showValidation(LevelValidator.Report report) {
+        if (report.getWidth() != columns || report.getHeight() != rows) return;
+        java.util.BitSet previous = (java.util.BitSet) disconnectedCells.clone();
+        previous.or(trappedCells);
+        disconnectedCells.clear();
+        trappedCells.clear();
+        for (int cell : report.getDisconnectedSpawns()) disconnectedCells.set(cell);
+        for (int cell : report.getTrappedSpawns()) trappedCells.set(cell);
+        // Redessine les cases qui étaient ou sont signalées
+        previous.or(disconnectedCells);
+        previous.or(trappedCells);
+        for (int i = previous.nextSetBit(0); i >= 0; i = previous.nextSetBit(i + 1)) paintCell(i % columns, i / columns);
+
+        validationLabel.setText(report.isPlayable() ? "Carte jouable" : String.join(" - ", report.getWarnings()));
+        validationLabel.getStyleClass().removeAll("validation-ok", "validation-warning");
+        validationLabel.getStyleClass().add(report.isPlayable() ? "validation-ok" : "validation-warning");
     }
 
     private void setupImageChoosers() {
@@ -229,14 +518,7 @@ public class LevelEditorController {
     }
 
     private void setPreview(ImageView view, String path) {
-        try {
-            Image img = path.startsWith("/") && getClass().getResource(path) != null
-                    ? new Image(getClass().getResource(path).toExternalForm(), 32, 32, true, true, true)
-                    : new Image("file:" + path, 32, 32, true, true, true);
-            view.setImage(img);
-        } catch (Exception e) {
-            view.setImage(null);
-        }
+        view.setImage(ImageCache.get(path, 32, 32));
     }
 
     private void reloadCachedImages() {
@@ -246,14 +528,14 @@ public class LevelEditorController {
     }
 
     private Image loadImage(String path) {
-        try {
-            if (path.startsWith("/") && getClass().getResource(path) != null)
-                return new Image(getClass().getResource(path).toExternalForm(), CELL_SIZE-8, CELL_SIZE-8, true, true, true);
-            else
-                return new Image("file:" + path, CELL_SIZE-8, CELL_SIZE-8, true, true, true);
-        } catch (Exception e) {
-            return null;
+        Image image = ImageCache.get(path, IMAGE_SIZE, IMAGE_SIZE);
+        // Chargement en arrière-plan : le canvas ne se met pas à jour tout seul, on le redessine à la fin
+        if (image != null && image.getProgress() < 1) {
+            image.progressProperty().addListener((obs, oldP, newP) -> {
+                if (newP.doubleValue() >= 1) refreshGridGraphics();
+            });
         }
+        return image;
     }
 
     private void chooseImage(String title, java.util.function.Consumer<String> callback) {
@@ -272,9 +554,11 @@ public class LevelEditorController {
     }
 
     private void refreshGridGraphics() {
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLUMNS; col++) {
-                updateCellVisual(gridButtons[row][col], gridData[row][col]);
+        if (gc == null) return;
+        gc.clearRect(0, 0, gridCanvas.getWidth(), gridCanvas.getHeight());
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                paintCell(col, row);
             }
         }
     }
@@ -287,12 +571,7 @@ public class LevelEditorController {
         if (!result.isPresent() || result.get().trim().isEmpty()) return;
         String levelName = result.get();
 
-        int[][] layoutInt = new int[ROWS][COLUMNS];
-        for (int row = 0; row < ROWS; row++)
-            for (int col = 0; col < COLUMNS; col++)
-                layoutInt[row][col] = gridData[row][col] == '#' ? 1 : gridData[row][col] == '%' ? 2 : 0;
-
-        Level lvl = new Level(levelName, groundImagePath, wallIndestructibleImagePath, wallDestructibleImagePath, layoutInt);
+        Level lvl = editor.toLevel(levelName, groundImagePath, wallIndestructibleImagePath, wallDestructibleImagePath);
 
         FileChooser fc = new FileChooser();
         fc.setTitle("Sauvegarder niveau");
@@ -328,10 +607,12 @@ public class LevelEditorController {
                 wallIndestructibleImagePath = lvl.getWallIndestructibleImagePath();
                 wallDestructibleImagePath = lvl.getWallDestructibleImagePath();
 
-                int[][] layout = lvl.getLayout();
-                for (int row = 0; row < ROWS; row++)
-                    for (int col = 0; col < COLUMNS; col++)
-                        gridData[row][col] = layout[row][col] == 1 ? '#' : layout[row][col] == 2 ? '%' : ' ';
+                // La carte prend les dimensions du niveau chargé
+                if (lvl.getWidth() == 0 || lvl.getHeight() == 0) {
+                    throw new IllegalArgumentException("niveau vide");
+                }
+                editor.loadFromLevel(lvl);
+                onMapReplaced();
                 updatePreviews();
             } catch (Exception ex) {
                 showError("Erreur lors du chargement : " + ex.getMessage());
@@ -339,6 +620,31 @@ public class LevelEditorController {
         }
     }
 
+    /**
+     * Lance une partie sur la carte en cours, à sa taille : un joueur humain et une IA par marqueur
+     * d'apparition d'IA (au moins une, trois au plus). La grille reprend les cases de l'éditeur sans copie.
+     */
+    private void testLevel() {
+        try {
+            Level lvl = editor.toLevel("Test", groundImagePath, wallIndestructibleImagePath, wallDestructibleImagePath);
+            int iaCount = Math.max(1, Math.min(3, editor.count(LevelEditor.CellType.AI_SPAWN)));
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/bomberman/view/game-view.fxml"));
+            Parent root = loader.load();
+            GameController gameController = loader.getController();
+            gameController.setStage(stage);
+            gameController.setLevel(lvl);
+            gameController.setGridSize(lvl.getWidth(), lvl.getHeight());
+            gameController.setPlayerCount(1);
+            gameController.setIaCount(iaCount);
+            gameController.setAIDifficulty(GameSettings.getSelectedAIDifficulty());
+            gameController.startGame();
+            stage.setScene(new Scene(root));
+        } catch (Exception ex) {
+            System.err.println("Erreur lors du lancement de la partie de test : " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
     private void showError(String msg) {
         Alert alert = new Alert(Alert.AlertType.ERROR, msg, ButtonType.OK);
         alert.showAndWait();
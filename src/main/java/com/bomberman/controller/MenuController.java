@@ -1,5 +1,7 @@
 package com.bomberman.controller;
 
+import com.bomberman.model.Replay;
+import com.bomberman.view.ImageCache;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.fxml.FXML;
@@ -10,9 +12,12 @@ import javafx.scene.control.Button;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.io.File;
+
 /**
  * Contrôleur du menu principal du jeu Bomberman.
  * Gère l'affichage du menu, les animations et la navigation vers l'écran de configuration de partie.
@@ -20,6 +25,7 @@ import javafx.util.Duration;
 public class MenuController {
 
     @FXML private Button playButton;
+    @FXML private Button replayButton;
     @FXML private Button accountButton;
     @FXML private Button settingsButton;
     @FXML private Button quitButton;
@@ -61,6 +67,7 @@ public class MenuController {
         adaptStageToBackgroundImage();
 
         playButton.setOnAction(e -> startGameSetup());
+        replayButton.setOnAction(e -> onReplay());
         accountButton.setOnAction(e -> onAccount());
         settingsButton.setOnAction(e -> onSettings());
         quitButton.setOnAction(e -> System.exit(0));
@@ -171,6 +178,32 @@ public class MenuController {
         }
     }
 
+    /**
+     * Action sur le bouton "Replay" : choix d'une partie enregistrée puis lecture dans la vue de jeu.
+     */
+    private void onReplay() {
+        try {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Ouvrir un replay");
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Replays Bomberman", "*" + Replay.FILE_EXTENSION));
+            File dir = new File(GameController.REPLAY_DIR);
+            if (dir.isDirectory()) chooser.setInitialDirectory(dir);
+            File file = chooser.showOpenDialog(stage);
+            if (file == null) return;
+
+            Replay replay = Replay.load(file.toPath());
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/bomberman/view/game-view.fxml"));
+            Parent root = loader.load();
+            GameController gameController = loader.getController();
+            gameController.setStage(stage);
+            gameController.startReplay(replay);
+            stage.setScene(new Scene(root));
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Erreur lors du chargement du replay : " + e.getMessage());
+        }
+    }
+
     /**
      * Action sur le bouton "Compte".
      */
@@ -220,11 +253,6 @@ public class MenuController {
      * @return l'image chargée, ou null si introuvable
      */
     private Image loadImage(String resourcePath) {
-        java.net.URL url = getClass().getResource(resourcePath);
-        if (url == null) {
-            System.err.println("Image non trouvée : " + resourcePath);
-            return null;
-        }
-        return new Image(url.toExternalForm());
+        return ImageCache.get(resourcePath);
     }
 }
\ No newline at end of file
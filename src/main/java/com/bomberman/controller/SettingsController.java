@@ -30,8 +30,17 @@ public class SettingsController {
     @FXML private Label aiLevelLabel;
     @FXML private Label aiLevelRightArrow;
 
+    // Temps de réflexion des IA EXPERT
+    @FXML private HBox expertBudgetBox;
+    @FXML private Label expertBudgetTextLabel;
+    @FXML private Label expertBudgetLeftArrow;
+    @FXML private Label expertBudgetLabel;
+    @FXML private Label expertBudgetRightArrow;
+
     private final IntegerProperty aiLevelIndex = GameSettings.aiLevelIndexProperty(); // BIND GLOBAL
-    private int selectedField = 0; // 0: levelEditor, 1: IA, 2: retour
+    private final IntegerProperty expertBudgetIndex = GameSettings.expertBudgetIndexProperty(); // BIND GLOBAL
+    private int selectedField = 0; // 0: levelEditor, 1: IA, 2: réflexion EXPERT, 3: retour
+    private static final int FIELD_COUNT = 4;
 
     private Stage stage;
 
@@ -57,6 +66,7 @@ public class SettingsController {
 
         // --- Liaison BINDING du label sur la propriété globale ---
         aiLevelLabel.textProperty().bind(aiLevelIndex.asString().map(idx -> GameSettings.AI_LEVELS[Integer.parseInt(idx)]));
+        expertBudgetLabel.textProperty().bind(expertBudgetIndex.asString().map(idx -> GameSettings.EXPERT_BUDGETS_MILLIS[Integer.parseInt(idx)] + " MS"));
 
         aiLevelLeftArrow.setOnMouseClicked(e -> { selectedField = 1; updateAILevelHighlight(); decrementAiLevel(); });
         aiLevelRightArrow.setOnMouseClicked(e -> { selectedField = 1; updateAILevelHighlight(); incrementAiLevel(); });
@@ -64,13 +74,19 @@ public class SettingsController {
             selectedField = 1;
             updateAILevelHighlight();
         });
+        expertBudgetLeftArrow.setOnMouseClicked(e -> { selectedField = 2; updateAILevelHighlight(); decrementExpertBudget(); });
+        expertBudgetRightArrow.setOnMouseClicked(e -> { selectedField = 2; updateAILevelHighlight(); incrementExpertBudget(); });
+        expertBudgetBox.setOnMouseEntered(e -> {
+            selectedField = 2;
+            updateAILevelHighlight();
+        });
         levelEditorButton.setOnMouseEntered(e -> {
             selectedField = 0;
             updateAILevelHighlight();
             levelEditorButton.requestFocus();
         });
         backButton.setOnMouseEntered(e -> {
-            selectedField = 2;
+            selectedField = 3;
             updateAILevelHighlight();
             backButton.requestFocus();
         });
@@ -83,6 +99,8 @@ public class SettingsController {
 
         aiLevelLeftArrow.visibleProperty().bind(aiLevelIndex.greaterThan(0));
         aiLevelRightArrow.visibleProperty().bind(aiLevelIndex.lessThan(GameSettings.AI_LEVELS.length - 1));
+        expertBudgetLeftArrow.visibleProperty().bind(expertBudgetIndex.greaterThan(0));
+        expertBudgetRightArrow.visibleProperty().bind(expertBudgetIndex.lessThan(GameSettings.EXPERT_BUDGETS_MILLIS.length - 1));
 
         updateAILevelHighlight();
     }
@@ -90,14 +108,19 @@ public class SettingsController {
     private void updateAILevelHighlight() {
         aiLevelTextLabel.getStyleClass().removeAll("menu-highlighted");
         aiLevelLabel.getStyleClass().removeAll("value-highlighted");
+        expertBudgetTextLabel.getStyleClass().removeAll("menu-highlighted");
+        expertBudgetLabel.getStyleClass().removeAll("value-highlighted");
         levelEditorButton.getStyleClass().remove("menu-highlighted");
         backButton.getStyleClass().remove("menu-highlighted");
         if (selectedField == 1) {
             aiLevelTextLabel.getStyleClass().add("menu-highlighted");
             aiLevelLabel.getStyleClass().add("value-highlighted");
+        } else if (selectedField == 2) {
+            expertBudgetTextLabel.getStyleClass().add("menu-highlighted");
+            expertBudgetLabel.getStyleClass().add("value-highlighted");
         } else if (selectedField == 0) {
             levelEditorButton.getStyleClass().add("menu-highlighted");
-        } else if (selectedField == 2) {
+        } else if (selectedField == 3) {
             backButton.getStyleClass().add("menu-highlighted");
         }
     }
@@ -105,21 +128,27 @@ public class SettingsController {
     private void handleArrowKey(KeyEvent event) {
         switch (event.getCode()) {
             case UP -> {
-                selectedField = (selectedField + 2) % 3;
+                selectedField = (selectedField + FIELD_COUNT - 1) % FIELD_COUNT;
                 updateAILevelHighlight();
                 focusSelectedField();
             }
             case DOWN -> {
-                selectedField = (selectedField + 1) % 3;
+                selectedField = (selectedField + 1) % FIELD_COUNT;
                 updateAILevelHighlight();
                 focusSelectedField();
             }
-            case LEFT -> { if (selectedField == 1) decrementAiLevel(); }
-            case RIGHT -> { if (selectedField == 1) incrementAiLevel(); }
+            case LEFT -> {
+                if (selectedField == 1) decrementAiLevel();
+                else if (selectedField == 2) decrementExpertBudget();
+            }
+            case RIGHT -> {
+                if (selectedField == 1) incrementAiLevel();
+                else if (selectedField == 2) incrementExpertBudget();
+            }
             case ENTER, SPACE -> {
                 if (selectedField == 0) {
                     openLevelEditor();
-                } else if (selectedField == 2) {
+                } else if (selectedField == 3) {
                     returnToMenu();
                 }
             }
@@ -134,6 +163,8 @@ public class SettingsController {
         } else if (selectedField == 1) {
             aiLevelBox.requestFocus();
         } else if (selectedField == 2) {
+            expertBudgetBox.requestFocus();
+        } else if (selectedField == 3) {
             backButton.requestFocus();
         }
     }
@@ -150,6 +181,18 @@ public class SettingsController {
         }
     }
 
+    private void decrementExpertBudget() {
+        if (expertBudgetIndex.get() > 0) {
+            expertBudgetIndex.set(expertBudgetIndex.get() - 1);
+        }
+    }
+
+    private void incrementExpertBudget() {
+        if (expertBudgetIndex.get() < GameSettings.EXPERT_BUDGETS_MILLIS.length - 1) {
+            expertBudgetIndex.set(expertBudgetIndex.get() + 1);
+        }
+    }
+
     private void loadBackgroundImage() {
         try {
             java.net.URL url = getClass().getResource("/images/menu/Bomber_fond.jpg");
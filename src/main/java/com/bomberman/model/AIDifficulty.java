@@ -6,5 +6,7 @@ package com.bomberman.model;
 public enum AIDifficulty {
     FACILE,
     NORMAL,
-    DIFFICILE
+    DIFFICILE,
+    /** Recherche Monte-Carlo sur simulations de la partie (voir {@link ExpertPlanner}). */
+    EXPERT
 }
\ No newline at end of file
@@ -47,4 +47,14 @@ public class ActiveBonus {
     public boolean isExpired() {
         return secondsRemaining <= 0;
     }
+
+    /** @return durée restante exacte, en secondes */
+    double getExactSecondsRemaining() {
+        return secondsRemaining;
+    }
+
+    /** @return copie indépendante (même type, valeur et durée restante) */
+    ActiveBonus copy() {
+        return new ActiveBonus(type, extraValue, secondsRemaining);
+    }
 }
\ No newline at end of file
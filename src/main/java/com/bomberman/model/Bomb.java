@@ -12,6 +12,11 @@ public class Bomb {
     private final int range; // rayon d’explosion
     private final Player owner; // joueur ayant posé la bombe
 
+    // Une fois programmée, le compte à rebours est déduit du tick courant de l'ordonnanceur
+    private BombScheduler scheduler;
+    private int detonationTick;
+    private boolean detonated = false;
+
     /**
      * Crée une bombe avec un propriétaire explicite.
      * @param x position X
@@ -46,7 +51,9 @@ public class Bomb {
     public int getY() { return y; }
 
     /** @return nombre de ticks restants avant explosion */
-    public int getTimer() { return timer; }
+    public int getTimer() {
+        return scheduler != null ? detonationTick - scheduler.getCurrentTick() : timer;
+    }
 
     /** @return portée de l’explosion */
     public int getRange() { return range; }
@@ -54,9 +61,25 @@ public class Bomb {
     /** @return joueur ayant posé la bombe, ou null si inconnu */
     public Player getOwner() { return owner; }
 
-    /** Fait avancer le timer d’un tick. */
+    /** Fait avancer le timer d’un tick (bombe non programmée uniquement). */
     public void tick() { timer--; }
 
     /** @return true si la bombe a explosé */
-    public boolean isExploded() { return timer <= 0; }
+    public boolean isExploded() { return detonated || getTimer() <= 0; }
+
+    /** @return true si la bombe a déjà été déclenchée (à son heure ou par réaction en chaîne) */
+    public boolean isDetonated() { return detonated; }
+
+    /** @return true si la bombe est prise en charge par un {@link BombScheduler} */
+    public boolean isScheduled() { return scheduler != null; }
+
+    /** @return numéro du tick de détonation (significatif seulement si la bombe est programmée) */
+    public int getDetonationTick() { return detonationTick; }
+
+    void bindScheduler(BombScheduler scheduler, int detonationTick) {
+        this.scheduler = scheduler;
+        this.detonationTick = detonationTick;
+    }
+
+    void markDetonated() { detonated = true; }
 }
\ No newline at end of file
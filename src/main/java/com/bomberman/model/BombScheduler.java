@@ -0,0 +1,127 @@
+package com.bomberman.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Ordonnanceur des événements temporels de la partie (roue temporelle indexée par numéro de tick) :
+ *   - détonation des bombes,
+ *   - fin des cases d'explosion.
+ *
+ * Chaque tick ne touche que la case de la roue correspondant au tick courant :
+ * le coût dépend du nombre d'événements dus, pas du nombre de bombes en jeu.
+ * Un événement plus lointain que la taille de la roue reste dans sa case et est ignoré
+ * jusqu'au bon tour.
+ */
+public class BombScheduler {
+    private static final int WHEEL_SIZE = 64; // puissance de 2
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private int currentTick = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<Bomb>[] bombSlots = new List[WHEEL_SIZE];
+    private final List<Bomb> dueBombs = new ArrayList<>();
+
+    // Fins d'explosion : pour chaque case de la roue, paires (tick, cellule) à plat
+    private final int[][] expirySlots = new int[WHEEL_SIZE][];
+    private final int[] expirySizes = new int[WHEEL_SIZE];
+
+    public BombScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            bombSlots[i] = new ArrayList<>();
+            expirySlots[i] = new int[8];
+        }
+    }
+
+    /** @return numéro du tick courant (0 avant le premier tick) */
+    public int getCurrentTick() { return currentTick; }
+
+    /**
+     * Programme la détonation d'une bombe dans getTimer() ticks à partir du tick courant.
+     */
+    public void schedule(Bomb bomb) {
+        int tick = currentTick + Math.max(1, bomb.getTimer());
+        bomb.bindScheduler(this, tick);
+        bombSlots[tick & WHEEL_MASK].add(bomb);
+    }
+
+    /**
+     * Programme la détonation d'une bombe à un tick absolu (restauration d'un instantané de partie).
+     */
+    public void scheduleAt(Bomb bomb, int tick) {
+        bomb.bindScheduler(this, tick);
+        bombSlots[tick & WHEEL_MASK].add(bomb);
+    }
+
+    /**
+     * Vide la roue (bombes et fins d'explosion) et replace l'horloge au tick donné.
+     */
+    public void reset(int tick) {
+        currentTick = tick;
+        dueBombs.clear();
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            bombSlots[i].clear();
+            expirySizes[i] = 0;
+        }
+    }
+
+    /**
+     * Programme la fin d'une case d'explosion au tick donné.
+     */
+    public void scheduleExpiry(int cell, int tick) {
+        int slot = tick & WHEEL_MASK;
+        int size = expirySizes[slot];
+        int[] entries = expirySlots[slot];
+        if (size + 2 > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+            expirySlots[slot] = entries;
+        }
+        entries[size] = tick;
+        entries[size + 1] = cell;
+        expirySizes[slot] = size + 2;
+    }
+
+    /**
+     * Passe au tick suivant.
+     * @return bombes dont la détonation tombe sur ce tick (liste réutilisée, valable jusqu'au prochain appel)
+     */
+    public List<Bomb> advance() {
+        currentTick++;
+        dueBombs.clear();
+        List<Bomb> slot = bombSlots[currentTick & WHEEL_MASK];
+        int kept = 0;
+        for (int i = 0; i < slot.size(); i++) {
+            Bomb bomb = slot.get(i);
+            if (bomb.isDetonated()) continue; // déjà partie en réaction en chaîne
+            if (bomb.getDetonationTick() <= currentTick) {
+                dueBombs.add(bomb);
+            } else {
+                slot.set(kept++, bomb); // tour de roue suivant
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+        return dueBombs;
+    }
+
+    /**
+     * Récupère les cases d'explosion dont la fin tombe sur le tick courant.
+     */
+    public void pollExpiries(IntConsumer action) {
+        int slot = currentTick & WHEEL_MASK;
+        int[] entries = expirySlots[slot];
+        int size = expirySizes[slot];
+        int kept = 0;
+        for (int i = 0; i < size; i += 2) {
+            if (entries[i] <= currentTick) {
+                action.accept(entries[i + 1]);
+            } else {
+                entries[kept++] = entries[i];
+                entries[kept++] = entries[i + 1];
+            }
+        }
+        expirySizes[slot] = kept;
+    }
+}
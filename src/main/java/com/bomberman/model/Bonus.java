@@ -1,22 +1,18 @@
 package com.bomberman.model;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import java.io.InputStream;
-
 /**
  * Classe abstraite représentant un bonus sur la map.
  * Chaque bonus sait :
  *   1) où il se trouve (en coordonnées « tile »),
  *   2) s’il a déjà été ramassé (collected),
- *   3) comment se dessiner (une image JavaFX),
+ *   3) quelle image le représente (chemin de ressource, chargé par la vue),
  *   4) comment s’appliquer à un Player (méthode abstraite applyTo).
  */
 public abstract class Bonus {
     protected int x;              // X en cases (tiles)
     protected int y;              // Y en cases (tiles)
     protected boolean collected;  // true si le bonus a déjà été ramassé
-    protected Image sprite;       // image du bonus
+    protected final String spritePath; // image du bonus (chargée par la vue via le cache partagé)
 
     /**
      * @param x         coordonnée X en cases
@@ -28,26 +24,12 @@ public abstract class Bonus {
         this.x = x;
         this.y = y;
         this.collected = false;
-        loadSprite(resource);
-    }
-    public Image getSprite() {
-        return sprite;
+        this.spritePath = resource;
     }
 
-    /**
-     * Charge l’image depuis le classpath.
-     */
-    private void loadSprite(String resourcePath) {
-        try (InputStream is = getClass().getResourceAsStream(resourcePath)) {
-            if (is == null) {
-                sprite = null;
-            } else {
-                sprite = new Image(is);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            sprite = null;
-        }
+    /** @return chemin dans le classpath de l'image du bonus */
+    public String getSpritePath() {
+        return spritePath;
     }
 
     /** @return true si le bonus a déjà été collecté par le joueur */
@@ -77,18 +59,4 @@ public abstract class Bonus {
      * @param player le joueur qui ramasse le bonus
      */
     public abstract void applyTo(Player player);
-
-    /**
-     * Dessine ce bonus à l’écran, en pixels, sur un GraphicsContext JavaFX.
-     *
-     * @param gc        GraphicsContext (par ex. celui d’un Canvas)
-     * @param tileSize  taille, en pixels, d’une case (tile) du jeu
-     */
-    public void draw(GraphicsContext gc, int tileSize) {
-        if (!collected && sprite != null) {
-            double pixelX = x * tileSize;
-            double pixelY = y * tileSize;
-            gc.drawImage(sprite, pixelX, pixelY, tileSize, tileSize);
-        }
-    }
-}
\ No newline at end of file
+}
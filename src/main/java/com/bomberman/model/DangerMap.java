@@ -0,0 +1,238 @@
+package com.bomberman.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Carte de danger partagée par toutes les IA : pour chaque case, le tick de la prochaine
+ * explosion qui l'atteindra (bombe la plus proche de sauter dont le souffle couvre la case).
+ *
+ * Les valeurs stockées sont des numéros de tick absolus : elles ne changent pas d'un tick à l'autre,
+ * la carte n'est donc modifiée que lorsqu'une bombe est posée ou explose.
+ * Le souffle suit la même règle que l'ancienne analyse des IA : il s'étend sur la portée de la bombe
+ * en ligne droite et n'est arrêté que par les murs indestructibles (qui ne changent jamais).
+ * Une bombe prise dans le souffle d'une autre saute avec elle (réaction en chaîne) : chaque bombe
+ * est donc appliquée au plus petit tick de détonation de la chaîne qui peut l'atteindre.
+ */
+public class DangerMap {
+    /** Valeur renvoyée pour une case qu'aucune bombe n'atteint. */
+    public static final int SAFE = Integer.MAX_VALUE;
+
+    private static final int[][] DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private final Grid grid;
+    private final BombScheduler clock;
+    private final int[] blastTicks;
+    // Bombes programmées présentes dans la carte, et tick de détonation effectif de chacune (réactions en chaîne comprises)
+    private final List<Bomb> bombs = new ArrayList<>();
+    private int[] chainTicks = new int[8];
+    // Incrémenté à chaque pose, explosion ou reconstruction (les cases sûres ont pu changer)
+    private int version = 0;
+
+    public DangerMap(Grid grid, BombScheduler clock) {
+        this.grid = grid;
+        this.clock = clock;
+        this.blastTicks = new int[grid.getWidth() * grid.getHeight()];
+        Arrays.fill(blastTicks, SAFE);
+    }
+
+    /**
+     * @return nombre de ticks avant que la case (x, y) soit soufflée, ou {@link #SAFE}
+     */
+    public int ticksUntilBlast(int x, int y) {
+        if (!grid.isInBounds(x, y)) return SAFE;
+        int tick = blastTicks[grid.index(x, y)];
+        return tick == SAFE ? SAFE : tick - clock.getCurrentTick();
+    }
+
+    /** @return compteur de modifications de la carte */
+    public int getVersion() { return version; }
+
+    /** @return true si aucune bombe connue n'atteint la case */
+    public boolean isSafe(int x, int y) {
+        return ticksUntilBlast(x, y) == SAFE;
+    }
+
+    /**
+     * Ajoute le souffle d'une bombe programmée. Son tick tient compte des bombes déjà posées dont le souffle
+     * l'atteint, et les bombes qu'elle atteint à son tour sont avancées si elle saute avant elles.
+     */
+    public void addBomb(Bomb bomb) {
+        int tick = bomb.getDetonationTick();
+        for (int i = 0; i < bombs.size(); i++) {
+            if (chainTicks[i] < tick && reaches(bombs.get(i), bomb)) tick = chainTicks[i];
+        }
+        int index = bombs.size();
+        if (index == chainTicks.length) chainTicks = Arrays.copyOf(chainTicks, index * 2);
+        bombs.add(bomb);
+        chainTicks[index] = tick;
+        stamp(bomb, tick);
+        propagate(new int[] {index}, 1);
+        version++;
+    }
+
+    /**
+     * Retire le souffle des bombes qui viennent d'exploser, recalcule les réactions en chaîne des bombes
+     * restantes, puis réapplique le souffle de celles qui recouvraient les cases effacées.
+     * @param exploded bombes retirées
+     */
+    public void removeBombs(List<Bomb> exploded) {
+        if (exploded.isEmpty()) return;
+        version++;
+        List<Bomb> cleared = new ArrayList<>(exploded);
+        for (Bomb bomb : exploded) {
+            stamp(bomb, -1);
+        }
+        int[] previous = compact(exploded);
+        int count = bombs.size();
+        int[] work = new int[count];
+        for (int i = 0; i < count; i++) {
+            chainTicks[i] = bombs.get(i).getDetonationTick();
+            work[i] = i;
+        }
+        propagate(work, count);
+        // Une bombe qui ne dépend plus d'une bombe explosée saute plus tard : son ancien souffle est effacé
+        boolean[] changed = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            if (chainTicks[i] != previous[i]) {
+                changed[i] = true;
+                stamp(bombs.get(i), -1);
+                cleared.add(bombs.get(i));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            Bomb other = bombs.get(i);
+            boolean restamp = changed[i];
+            for (int c = 0; !restamp && c < cleared.size(); c++) {
+                restamp = mayOverlap(cleared.get(c), other);
+            }
+            if (restamp) stamp(other, chainTicks[i]);
+        }
+    }
+
+    /** Remet la carte à zéro puis y place toutes les bombes programmées de la liste. */
+    public void rebuild(List<Bomb> bombs) {
+        Arrays.fill(blastTicks, SAFE);
+        this.bombs.clear();
+        version++;
+        for (Bomb bomb : bombs) {
+            if (bomb.isScheduled() && !bomb.isDetonated()) addBomb(bomb);
+        }
+    }
+
+    /**
+     * Retire les bombes explosées de la liste suivie.
+     * @return les ticks effectifs des bombes restantes avant recalcul, dans leur nouvel ordre
+     */
+    private int[] compact(List<Bomb> exploded) {
+        int[] previous = new int[bombs.size()];
+        int kept = 0;
+        for (int i = 0; i < bombs.size(); i++) {
+            Bomb bomb = bombs.get(i);
+            if (containsSame(exploded, bomb)) continue;
+            bombs.set(kept, bomb);
+            previous[kept] = chainTicks[i];
+            chainTicks[kept] = chainTicks[i];
+            kept++;
+        }
+        bombs.subList(kept, bombs.size()).clear();
+        return previous;
+    }
+
+    /**
+     * Avance les bombes atteintes par une bombe qui saute plus tôt qu'elles, de proche en proche,
+     * et réapplique leur souffle au nouveau tick.
+     * @param work indices des bombes dont le tick vient d'être fixé (le tableau sert de pile)
+     * @param size nombre d'indices dans la pile
+     */
+    private void propagate(int[] work, int size) {
+        while (size > 0) {
+            int source = work[--size];
+            Bomb from = bombs.get(source);
+            for (int j = 0; j < bombs.size(); j++) {
+                if (chainTicks[j] <= chainTicks[source] || !reaches(from, bombs.get(j))) continue;
+                chainTicks[j] = chainTicks[source];
+                stamp(bombs.get(j), chainTicks[j]);
+                if (size == work.length) work = Arrays.copyOf(work, Math.max(4, size * 2));
+                work[size++] = j;
+            }
+        }
+    }
+
+    /** @return true si le souffle de {@code from} atteint la case de {@code target} */
+    private boolean reaches(Bomb from, Bomb target) {
+        return blastTicksFrom(from.getX(), from.getY(), from.getRange(), 0, target.getX(), target.getY(), grid) != SAFE;
+    }
+
+    private static boolean containsSame(List<Bomb> list, Bomb bomb) {
+        for (Bomb b : list) {
+            if (b == bomb) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Nombre de ticks avant que le souffle d'une seule bombe (programmée ou non) atteigne (x, y).
+     * Sert pour une bombe hypothétique ou pas encore enregistrée dans la carte.
+     * @return le compte à rebours de la bombe, ou {@link #SAFE} si la case n'est pas dans son souffle
+     */
+    public static int blastTicksFrom(Bomb bomb, int x, int y, Grid grid) {
+        return blastTicksFrom(bomb.getX(), bomb.getY(), bomb.getRange(), bomb.getTimer(), x, y, grid);
+    }
+
+    /**
+     * Même calcul pour une bombe décrite par sa position, sa portée et son compte à rebours
+     * (évite de créer un objet Bomb pour une pose envisagée).
+     */
+    public static int blastTicksFrom(int bx, int by, int range, int timer, int x, int y, Grid grid) {
+        if (x == bx && y == by) return timer;
+        if (y == by && Math.abs(x - bx) <= range) {
+            for (int ix = Math.min(x, bx) + 1; ix < Math.max(x, bx); ix++) {
+                if (grid.getOrdinalUnchecked(ix, y) == Grid.INDESTRUCTIBLE_ORDINAL) return SAFE;
+            }
+            return timer;
+        }
+        if (x == bx && Math.abs(y - by) <= range) {
+            for (int iy = Math.min(y, by) + 1; iy < Math.max(y, by); iy++) {
+                if (grid.getOrdinalUnchecked(x, iy) == Grid.INDESTRUCTIBLE_ORDINAL) return SAFE;
+            }
+            return timer;
+        }
+        return SAFE;
+    }
+
+    /**
+     * Applique (tick >= 0, minimum) ou efface (tick < 0) le souffle d'une bombe.
+     */
+    private void stamp(Bomb bomb, int tick) {
+        int bx = bomb.getX(), by = bomb.getY();
+        if (!grid.isInBounds(bx, by)) return;
+        stampCell(grid.index(bx, by), tick);
+        for (int[] dir : DIRS) {
+            for (int i = 1; i <= bomb.getRange(); i++) {
+                int nx = bx + dir[0] * i, ny = by + dir[1] * i;
+                if (!grid.isInBounds(nx, ny)) break;
+                stampCell(grid.index(nx, ny), tick);
+                if (grid.getOrdinalUnchecked(nx, ny) == Grid.INDESTRUCTIBLE_ORDINAL) break;
+            }
+        }
+    }
+
+    private void stampCell(int cell, int tick) {
+        if (tick < 0) {
+            blastTicks[cell] = SAFE;
+        } else if (tick < blastTicks[cell]) {
+            blastTicks[cell] = tick;
+        }
+    }
+
+    /** @return true si les souffles des deux bombes peuvent se croiser ou se chevaucher */
+    private static boolean mayOverlap(Bomb a, Bomb b) {
+        int dx = Math.abs(a.getX() - b.getX());
+        int dy = Math.abs(a.getY() - b.getY());
+        if (dy == 0) return dx <= a.getRange() + b.getRange();
+        if (dx == 0) return dy <= a.getRange() + b.getRange();
+        return (dx <= a.getRange() && dy <= b.getRange()) || (dx <= b.getRange() && dy <= a.getRange());
+    }
+}
@@ -0,0 +1,79 @@
+package com.bomberman.model;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Cases de la grille modifiées depuis le dernier affichage (identifiant y * width + x).
+ * Alimenté par le modèle (grille, déplacements, bombes, bonus) et vidé par la vue,
+ * qui ne redessine que ces cases au lieu de tout le plateau.
+ * Chaque case n'est listée qu'une fois, quel que soit le nombre de modifications.
+ */
+public class DirtyCells {
+    private final int width;
+    private final int height;
+    private final boolean[] marked;
+    private final int[] cells;
+    private int size = 0;
+    private boolean allDirty = true; // rien n'a encore été affiché
+
+    public DirtyCells(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.marked = new boolean[width * height];
+        this.cells = new int[width * height];
+    }
+
+    /** Marque la case (x, y) à redessiner (ignoré hors de la grille). */
+    public void mark(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        mark(y * width + x);
+    }
+
+    /** Marque la case d'identifiant donné à redessiner. */
+    public void mark(int cell) {
+        if (allDirty || marked[cell]) return;
+        marked[cell] = true;
+        cells[size++] = cell;
+    }
+
+    /** Demande de tout redessiner (changement global : restauration, nouvelle partie...). */
+    public void markAll() {
+        clearList();
+        allDirty = true;
+    }
+
+    /** @return true si tout le plateau doit être redessiné */
+    public boolean isAllDirty() {
+        return allDirty;
+    }
+
+    /** @return true si aucune case n'est à redessiner */
+    public boolean isEmpty() {
+        return !allDirty && size == 0;
+    }
+
+    /**
+     * Transmet chaque case marquée à action puis vide la liste.
+     * Si tout le plateau est marqué, rien n'est transmis : l'appelant doit tester {@link #isAllDirty()} avant.
+     */
+    public void drain(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int cell = cells[i];
+            marked[cell] = false;
+            action.accept(cell);
+        }
+        size = 0;
+        allDirty = false;
+    }
+
+    /** Oublie toutes les marques (après un affichage complet). */
+    public void clear() {
+        clearList();
+        allDirty = false;
+    }
+
+    private void clearList() {
+        for (int i = 0; i < size; i++) marked[cells[i]] = false;
+        size = 0;
+    }
+}
@@ -0,0 +1,280 @@
+package com.bomberman.model;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Historique des modifications de l'éditeur de niveaux (annuler / rétablir sans limite).
+ *
+ * Chaque action (un tracé à la souris, une ligne, un rectangle, un remplissage) devient un seul
+ * {@link Diff} : la liste des cases modifiées, codée par plages de cases consécutives ayant la même
+ * ancienne et la même nouvelle valeur. Un diff ne contient que ce qui a changé : sa taille dépend du tracé,
+ * pas de la taille de la carte (un trait de 60 cases tient en quelques octets, là où une copie de la
+ * grille en prendrait des milliers).
+ *
+ * Les cases sont désignées par leur indice y * largeur + x et leurs valeurs sont les codes de
+ * {@link LevelEditor.CellType}, ceux du layout d'un {@link Level} (0 sol, 1 mur indestructible,
+ * 2 mur destructible, 3 à 5 les marqueurs).
+ */
+public class EditJournal {
+
+    /** Grille modifiée par le journal. */
+    public interface Target {
+        int getWidth();
+        int getHeight();
+        byte get(int index);
+        void set(int index, byte value);
+    }
+
+    /**
+     * Modifications d'une action, par plages : pour chaque plage, écart depuis la fin de la précédente,
+     * longueur - 1 (entiers à taille variable), puis ancienne et nouvelle valeur (un octet chacune).
+     */
+    public static final class Diff {
+        private final byte[] data;
+        private final int cellCount;
+
+        private Diff(byte[] data, int cellCount) {
+            this.data = data;
+            this.cellCount = cellCount;
+        }
+
+        /** @return nombre de cases modifiées par l'action */
+        public int getCellCount() { return cellCount; }
+
+        /** @return taille du diff codé, en octets */
+        public int getSize() { return data.length; }
+
+        private void apply(Target target, boolean forward) {
+            int[] pos = {0};
+            int index = 0;
+            while (pos[0] < data.length) {
+                index += readVarint(data, pos);
+                int length = readVarint(data, pos) + 1;
+                byte oldValue = data[pos[0]++];
+                byte newValue = data[pos[0]++];
+                byte value = forward ? newValue : oldValue;
+                for (int i = 0; i < length; i++) target.set(index + i, value);
+                index += length;
+            }
+        }
+    }
+
+    private final Target target;
+    private final Deque<Diff> undoStack = new ArrayDeque<>();
+    private final Deque<Diff> redoStack = new ArrayDeque<>();
+
+    // Action en cours : cases touchées (une seule fois chacune) et leur valeur avant l'action
+    private boolean recording;
+    private final BitSet touched = new BitSet();
+    private int[] touchedIndices = new int[64];
+    private byte[] touchedOld = new byte[64];
+    private int touchedCount;
+
+    public EditJournal(Target target) {
+        this.target = target;
+    }
+
+    // --- Actions ---
+
+    /** Commence une action : les {@link #set} suivants formeront un seul diff. */
+    public void beginStroke() {
+        if (recording) endStroke();
+        recording = true;
+    }
+
+    /**
+     * Modifie une case (ignoré hors de la grille). Hors d'une action, la modification forme une action à elle seule.
+     */
+    public void set(int x, int y, byte value) {
+        if (x < 0 || y < 0 || x >= target.getWidth() || y >= target.getHeight()) return;
+        if (!recording) {
+            beginStroke();
+            set(x, y, value);
+            endStroke();
+            return;
+        }
+        int index = y * target.getWidth() + x;
+        byte old = target.get(index);
+        if (old == value) return;
+        if (!touched.get(index)) {
+            touched.set(index);
+            if (touchedCount == touchedIndices.length) {
+                touchedIndices = Arrays.copyOf(touchedIndices, touchedCount * 2);
+                touchedOld = Arrays.copyOf(touchedOld, touchedCount * 2);
+            }
+            touchedIndices[touchedCount] = index;
+            touchedOld[touchedCount] = old;
+            touchedCount++;
+        }
+        target.set(index, value);
+    }
+
+    /**
+     * Termine l'action en cours et l'ajoute à l'historique (sauf si elle n'a rien changé).
+     * @return le diff enregistré, ou null
+     */
+    public Diff endStroke() {
+        if (!recording) return null;
+        recording = false;
+        Diff diff = encode();
+        for (int i = 0; i < touchedCount; i++) touched.clear(touchedIndices[i]);
+        touchedCount = 0;
+        if (diff == null) return null;
+        undoStack.push(diff);
+        redoStack.clear();
+        return diff;
+    }
+
+    /** Trace un segment (Bresenham) en une seule action. */
+    public Diff line(int x0, int y0, int x1, int y1, byte value) {
+        beginStroke();
+        LevelEditor.forEachCellOnLine(x0, y0, x1, y1, (x, y) -> set(x, y, value));
+        return endStroke();
+    }
+
+    /** Trace un rectangle, plein ou seulement son contour, en une seule action. */
+    public Diff rectangle(int x0, int y0, int x1, int y1, boolean filled, byte value) {
+        beginStroke();
+        LevelEditor.forEachCellInRectangle(x0, y0, x1, y1, filled, (x, y) -> set(x, y, value));
+        return endStroke();
+    }
+
+    /**
+     * Remplit la zone de cases de même valeur contenant (x, y), voisines par les côtés, en une seule action.
+     * Parcours par lignes horizontales : la pile ne contient qu'une case par segment à explorer.
+     */
+    public Diff floodFill(int x, int y, byte value) {
+        int width = target.getWidth(), height = target.getHeight();
+        if (x < 0 || y < 0 || x >= width || y >= height) return null;
+        byte from = target.get(y * width + x);
+        if (from == value) return null;
+
+        beginStroke();
+        int[] stack = new int[64];
+        int size = 0;
+        stack[size++] = y * width + x;
+        while (size > 0) {
+            int seed = stack[--size];
+            int sy = seed / width;
+            int left = seed % width;
+            if (target.get(seed) != from) continue;
+            while (left > 0 && target.get(sy * width + left - 1) == from) left--;
+            int right = seed % width;
+            while (right < width - 1 && target.get(sy * width + right + 1) == from) right++;
+            for (int cx = left; cx <= right; cx++) set(cx, sy, value);
+            // Un germe par segment de la ligne du dessus et du dessous
+            for (int ny = sy - 1; ny <= sy + 1; ny += 2) {
+                if (ny < 0 || ny >= height) continue;
+                boolean inSpan = false;
+                for (int cx = left; cx <= right; cx++) {
+                    boolean matches = target.get(ny * width + cx) == from;
+                    if (matches && !inSpan) {
+                        if (size == stack.length) stack = Arrays.copyOf(stack, size * 2);
+                        stack[size++] = ny * width + cx;
+                    }
+                    inSpan = matches;
+                }
+            }
+        }
+        return endStroke();
+    }
+
+    // --- Historique ---
+
+    public boolean canUndo() { return !undoStack.isEmpty() && !recording; }
+    public boolean canRedo() { return !redoStack.isEmpty() && !recording; }
+
+    /** Annule la dernière action. @return false s'il n'y a rien à annuler */
+    public boolean undo() {
+        if (!canUndo()) return false;
+        Diff diff = undoStack.pop();
+        diff.apply(target, false);
+        redoStack.push(diff);
+        return true;
+    }
+
+    /** Rétablit la dernière action annulée. @return false s'il n'y a rien à rétablir */
+    public boolean redo() {
+        if (!canRedo()) return false;
+        Diff diff = redoStack.pop();
+        diff.apply(target, true);
+        undoStack.push(diff);
+        return true;
+    }
+
+    /** Oublie tout l'historique (par exemple après le chargement d'un autre niveau). */
+    public void clear() {
+        if (recording) endStroke();
+        undoStack.clear();
+        redoStack.clear();
+    }
+
+    /** @return taille totale des diffs conservés, en octets */
+    public long getMemorySize() {
+        long total = 0;
+        for (Diff diff : undoStack) total += diff.getSize();
+        for (Diff diff : redoStack) total += diff.getSize();
+        return total;
+    }
+
+    // --- Codage ---
+
+    private Diff encode() {
+        if (touchedCount == 0) return null;
+        // Tri des cases par indice, ancienne valeur dans les bits de poids faible
+        long[] cells = new long[touchedCount];
+        int changed = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touchedIndices[i];
+            byte newValue = target.get(index);
+            if (newValue == touchedOld[i]) continue; // case revenue à sa valeur pendant l'action
+            cells[changed++] = ((long) index << 16) | ((touchedOld[i] & 0xFF) << 8) | (newValue & 0xFF);
+        }
+        if (changed == 0) return null;
+        Arrays.sort(cells, 0, changed);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int previousEnd = 0;
+        int i = 0;
+        while (i < changed) {
+            int start = (int) (cells[i] >>> 16);
+            int values = (int) (cells[i] & 0xFFFF);
+            int length = 1;
+            while (i + length < changed
+                    && (int) (cells[i + length] >>> 16) == start + length
+                    && (int) (cells[i + length] & 0xFFFF) == values) {
+                length++;
+            }
+            writeVarint(out, start - previousEnd);
+            writeVarint(out, length - 1);
+            out.write(values >>> 8);
+            out.write(values & 0xFF);
+            previousEnd = start + length;
+            i += length;
+        }
+        return new Diff(out.toByteArray(), changed);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = data[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+        }
+    }
+}
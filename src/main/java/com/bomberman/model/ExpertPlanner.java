@@ -0,0 +1,315 @@
+package com.bomberman.model;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recherche de l'IA EXPERT : Monte-Carlo par simulations (rollouts) sur le modèle sans interface.
+ *
+ * À partir d'un instantané de la partie, chacune des 6 actions possibles (rester, 4 déplacements, bombe)
+ * est évaluée en rejouant la suite de la partie sur {@link #ROLLOUT_DEPTH} ticks dans une partie de travail :
+ * l'action testée est imposée au premier tick, puis tous les joueurs (humains compris) suivent la politique DIFFICILE.
+ * L'action à simuler est choisie par UCB1 (les plus prometteuses sont davantage explorées).
+ * L'action retenue est celle de meilleure valeur moyenne ; le coup que jouerait la politique DIFFICILE
+ * sert d'a priori et l'emporte s'il est presque aussi bon (la recherche corrige surtout les coups dangereux
+ * et saisit les occasions, au lieu d'hésiter entre des coups équivalents).
+ *
+ * La recherche tourne sur un pool de threads dédié, pendant l'intervalle entre deux ticks :
+ * {@link #start(GameSnapshot)} la lance dès la fin d'un tick, {@link #await(GameSnapshot)} récupère le résultat
+ * au tick suivant. Les actions humaines faites entre-temps ne sont vues qu'au tick d'après.
+ * Aucune recherche n'est jamais faite sur le thread de la partie : sans recherche lancée pour le tick,
+ * ou si elle n'est pas terminée dans le budget en temps, {@link #await(GameSnapshot)} ne renvoie rien
+ * et l'IA joue comme DIFFICILE.
+ *
+ * La recherche est bornée par un budget en millisecondes et/ou un nombre de simulations.
+ * Avec un budget en temps (parties jouées), le résultat dépend de la machine : les replays enregistrent donc
+ * les coups joués par les IA EXPERT. Une limite en simulations seule (budget en temps à 0) donne une recherche
+ * reproductible, mais {@link #await(GameSnapshot)} attend alors sa fin : réservée aux parties sans affichage
+ * (tests, mesures) et aux anciens replays.
+ */
+public class ExpertPlanner {
+    /** Budget de recherche par tick par défaut (un tick dure 200 ms au rythme par défaut). */
+    public static final int DEFAULT_BUDGET_MILLIS = 60;
+    /** Nombre de simulations par tick des replays de version 1, enregistrés sans limites de recherche. */
+    public static final int DEFAULT_MAX_ROLLOUTS = 1000;
+    /** Nombre de ticks simulés par rollout : délai d'une bombe, durée de l'explosion et un peu de marge. */
+    public static final int ROLLOUT_DEPTH = Bomb.DEFAULT_TIMER + 4;
+
+    // Actions racine : rester, haut, bas, gauche, droite, bombe
+    private static final PlayerAI.Intent[] ACTIONS = {
+            PlayerAI.Intent.NONE,
+            new PlayerAI.Intent(false, 0, -1),
+            new PlayerAI.Intent(false, 0, 1),
+            new PlayerAI.Intent(false, -1, 0),
+            new PlayerAI.Intent(false, 1, 0),
+            new PlayerAI.Intent(true, 0, 0)
+    };
+    private static final double EXPLORATION = Math.sqrt(2);
+    // Écart de valeur moyenne en dessous duquel le coup a priori est préféré au meilleur coup simulé
+    private static final double PRIOR_MARGIN = 0.1;
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                Thread thread = new Thread(r, "bomberman-expert-ai");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final int playerIndex;
+    private final long seed;
+    private int budgetMillis = DEFAULT_BUDGET_MILLIS;
+    private int maxRollouts = 0;
+
+    // Partie de travail (créée au premier usage, réutilisée par toutes les simulations) et statistiques par action
+    private Game scratch;
+    private final int[] visits = new int[ACTIONS.length];
+    private final double[] totals = new double[ACTIONS.length];
+    private final boolean[] legal = new boolean[ACTIONS.length];
+    private volatile int lastRollouts;
+
+    // Recherche en cours sur le pool (accédée seulement par le thread de la partie)
+    private Future<PlayerAI.Intent> pending;
+    private int pendingTick = -1;
+    private volatile int generation;
+
+    /**
+     * @param playerIndex indice, dans la liste des joueurs, de l'IA qui cherche
+     * @param seed graine des simulations (combinée au tick : même recherche pour le même tick)
+     */
+    public ExpertPlanner(int playerIndex, long seed) {
+        this.playerIndex = playerIndex;
+        this.seed = seed;
+    }
+
+    /**
+     * Limites de la recherche par tick (0 = pas de limite de ce côté ; sans aucune limite, une simulation par action).
+     * @param budgetMillis temps de recherche maximal, en millisecondes
+     * @param maxRollouts nombre maximal de simulations
+     */
+    public void setLimits(int budgetMillis, int maxRollouts) {
+        this.budgetMillis = Math.max(0, budgetMillis);
+        this.maxRollouts = Math.max(0, maxRollouts);
+    }
+
+    public int getBudgetMillis() { return budgetMillis; }
+    public int getMaxRollouts() { return maxRollouts; }
+    /** @return nombre de simulations faites par la dernière recherche */
+    public int getLastRollouts() { return lastRollouts; }
+
+    // --- Recherche en arrière-plan ---
+
+    /** Lance la recherche pour le tick suivant l'instantané, sur le pool de l'IA (annule la précédente). */
+    void start(GameSnapshot root) {
+        cancel();
+        int searchGeneration = generation;
+        pendingTick = root.getTick();
+        pending = POOL.submit(() -> search(root, searchGeneration));
+    }
+
+    /**
+     * @return l'intention pour le tick qui suit l'instantané donné : résultat de la recherche lancée à la fin
+     * du tick précédent, ou null si aucune recherche ne porte sur ce tick, si elle échoue ou si elle dépasse
+     * le budget en temps (l'appelant se rabat sur la politique DIFFICILE)
+     */
+    PlayerAI.Intent await(GameSnapshot now) {
+        if (pending == null || pendingTick != now.getTick()) {
+            cancel();
+            return null;
+        }
+        Future<PlayerAI.Intent> future = pending;
+        pending = null;
+        pendingTick = -1;
+        try {
+            // Sans budget en temps, la recherche est bornée en simulations : on attend sa fin pour rester reproductible
+            return budgetMillis > 0 ? future.get(budgetMillis, TimeUnit.MILLISECONDS) : future.get();
+        } catch (TimeoutException e) {
+            generation++; // arrête la recherche en retard
+            future.cancel(false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            System.err.println("Erreur lors de la recherche de l'IA EXPERT : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Abandonne la recherche en cours (état de la partie remplacé, par exemple après une restauration). */
+    void cancel() {
+        generation++;
+        if (pending != null) pending.cancel(false);
+        pending = null;
+        pendingTick = -1;
+    }
+
+    // --- Recherche ---
+
+    /**
+     * Recherche sur le thread appelant, dans les limites configurées.
+     * @return la meilleure intention trouvée pour l'IA à partir de l'instantané
+     */
+    public PlayerAI.Intent search(GameSnapshot root) {
+        return search(root, generation);
+    }
+
+    private synchronized PlayerAI.Intent search(GameSnapshot root, int searchGeneration) {
+        if (root.isGameOver() || !root.players[playerIndex].alive) return PlayerAI.Intent.NONE;
+        long deadline = budgetMillis > 0 ? System.nanoTime() + budgetMillis * 1_000_000L : Long.MAX_VALUE;
+        int rolloutLimit = maxRollouts > 0 ? maxRollouts : (budgetMillis > 0 ? Integer.MAX_VALUE : ACTIONS.length);
+        GameRandom random = new GameRandom(seed ^ (root.getTick() * 0x9E3779B97F4A7C15L));
+
+        Game game = scratchFor(root);
+        game.restore(root);
+        int legalCount = markLegalActions(game);
+        if (legalCount == 1) {
+            for (int a = 0; a < ACTIONS.length; a++) if (legal[a]) return ACTIONS[a];
+        }
+        int prior = priorAction(game);
+        Arrays.fill(visits, 0);
+        Arrays.fill(totals, 0);
+
+        int rollouts = 0;
+        while (rollouts < rolloutLimit && generation == searchGeneration
+                && (rollouts < legalCount || System.nanoTime() < deadline)) {
+            int action = selectAction(rollouts);
+            double reward = rollout(game, root, action, random);
+            visits[action]++;
+            totals[action] += reward;
+            rollouts++;
+        }
+        lastRollouts = rollouts;
+
+        int best = 0;
+        for (int a = 1; a < ACTIONS.length; a++) {
+            if (legal[a] && visits[a] > 0 && mean(a) > mean(best)) best = a;
+        }
+        if (legal[prior] && visits[prior] > 0 && mean(prior) >= mean(best) - PRIOR_MARGIN) best = prior;
+        return ACTIONS[best];
+    }
+
+    private double mean(int action) {
+        return visits[action] == 0 ? Double.NEGATIVE_INFINITY : totals[action] / visits[action];
+    }
+
+    /** Coup de la politique DIFFICILE depuis l'état racine (déjà restauré), ramené aux 6 actions. */
+    private int priorAction(Game game) {
+        PlayerAI ai = (PlayerAI) game.getPlayers().get(playerIndex);
+        PlayerAI.Intent intent = ai.decide(game.getGrid(), game.getBombs(), game.getPlayers(), game.getDangerMap());
+        if (intent.dropBomb) return ACTIONS.length - 1;
+        for (int a = 0; a < ACTIONS.length - 1; a++) {
+            if (ACTIONS[a].dx == intent.dx && ACTIONS[a].dy == intent.dy) return a;
+        }
+        return 0;
+    }
+
+    /** UCB1 : d'abord chaque action légale une fois, puis compromis moyenne / exploration. */
+    private int selectAction(int rollouts) {
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double logTotal = Math.log(Math.max(1, rollouts));
+        for (int a = 0; a < ACTIONS.length; a++) {
+            if (!legal[a]) continue;
+            if (visits[a] == 0) return a;
+            double score = totals[a] / visits[a] + EXPLORATION * Math.sqrt(logTotal / visits[a]);
+            if (score > bestScore) {
+                bestScore = score;
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    /** Joue une simulation depuis l'instantané et renvoie sa valeur entre 0 (mort) et 1 (victoire). */
+    private double rollout(Game game, GameSnapshot root, int action, GameRandom random) {
+        game.restore(root);
+        game.reseedAIs(random);
+        Player me = game.getPlayers().get(playerIndex);
+        int livesBefore = me.getLives();
+        int opponentLivesBefore = opponentLives(game);
+        int wallsBefore = countDestructible(game.getGrid());
+
+        game.forceIntent(playerIndex, ACTIONS[action]);
+        int ticks = 0;
+        while (ticks < ROLLOUT_DEPTH && !game.isGameOver() && me.isAlive()) {
+            game.updateAIs();
+            game.updateBombs();
+            ticks++;
+        }
+
+        if (!me.isAlive()) return 0.2 * ticks / ROLLOUT_DEPTH;
+        if (game.isGameOver() && game.getWinner() == me) return 1.0;
+        // Survie, dégâts reçus et infligés, murs cassés, puis rapprochement de l'adversaire le plus proche
+        int span = game.getGrid().getWidth() + game.getGrid().getHeight();
+        double value = 0.55
+                + 0.1 * (me.getLives() - livesBefore)
+                + 0.15 * (opponentLivesBefore - opponentLives(game))
+                + 0.02 * (wallsBefore - countDestructible(game.getGrid()))
+                + 0.1 * (1.0 - (double) nearestOpponentDistance(game, me) / span);
+        return Math.max(0.25, Math.min(0.95, value));
+    }
+
+    /** Actions possibles depuis l'état racine (déjà restauré dans la partie de travail). */
+    private int markLegalActions(Game game) {
+        Player me = game.getPlayers().get(playerIndex);
+        Grid grid = game.getGrid();
+        int count = 0;
+        for (int a = 0; a < ACTIONS.length; a++) {
+            PlayerAI.Intent intent = ACTIONS[a];
+            boolean ok;
+            if (intent.dropBomb) {
+                ok = game.getBombs().size() < me.getMaxBombs() && game.getOccupancy().bombAt(me.getX(), me.getY()) == null;
+            } else if (intent.dx != 0 || intent.dy != 0) {
+                int nx = me.getX() + intent.dx, ny = me.getY() + intent.dy;
+                ok = grid.isInBounds(nx, ny) && grid.getOrdinalUnchecked(nx, ny) == Grid.EMPTY_ORDINAL;
+            } else {
+                ok = true;
+            }
+            legal[a] = ok;
+            if (ok) count++;
+        }
+        return count;
+    }
+
+    private int opponentLives(Game game) {
+        int total = 0;
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            if (i != playerIndex) total += game.getPlayers().get(i).getLives();
+        }
+        return total;
+    }
+
+    private int nearestOpponentDistance(Game game, Player me) {
+        int best = game.getGrid().getWidth() + game.getGrid().getHeight();
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            Player p = game.getPlayers().get(i);
+            if (i == playerIndex || !p.isAlive()) continue;
+            best = Math.min(best, Math.abs(p.getX() - me.getX()) + Math.abs(p.getY() - me.getY()));
+        }
+        return best;
+    }
+
+    private static int countDestructible(Grid grid) {
+        int count = 0;
+        for (int i = 0, n = grid.getWidth() * grid.getHeight(); i < n; i++) {
+            if (grid.getOrdinalAt(i) == Grid.DESTRUCTIBLE_ORDINAL) count++;
+        }
+        return count;
+    }
+
+    /** Partie de travail aux dimensions de l'instantané : tous les joueurs y sont des IA DIFFICILE, décidées en série. */
+    private Game scratchFor(GameSnapshot root) {
+        if (scratch == null || scratch.getGrid().getWidth() != root.getWidth() || scratch.getGrid().getHeight() != root.getHeight()
+                || scratch.getPlayers().size() != root.getPlayerCount()) {
+            scratch = new Game(root.getWidth(), root.getHeight(), 0, root.getPlayerCount(), null, AIDifficulty.DIFFICILE, seed);
+            scratch.setParallelAI(false);
+        }
+        return scratch;
+    }
+}
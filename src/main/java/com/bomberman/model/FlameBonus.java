@@ -1,14 +1,19 @@
 package com.bomberman.model;
 
 public class FlameBonus extends Bonus {
+    public static final String SPRITE = "/images/items/flame_bonus.png";
     private final int extraRange;
     private final double durationSeconds = 10.0; // dure 10 secondes
 
     public FlameBonus(int x, int y, int extraRange) {
-        super(x, y, "/images/items/flame_bonus.png");
+        super(x, y, SPRITE);
         this.extraRange = extraRange;
     }
 
+    public int getExtraRange() {
+        return extraRange;
+    }
+
     @Override
     public void applyTo(Player player) {
         if (!collected) {
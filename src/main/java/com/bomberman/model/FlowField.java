@@ -0,0 +1,183 @@
+package com.bomberman.model;
+
+import java.util.Arrays;
+
+/**
+ * Champ de distances vers une ou plusieurs cases sources (parcours en largeur multi-source),
+ * partagé par toutes les IA qui poursuivent la même cible : elles lisent leur premier pas
+ * dans le même parcours au lieu de lancer chacune sa recherche A*.
+ *
+ * Même règle de passage que la poursuite des IA DIFFICILE : cases vides ou destructibles
+ * qu'aucune bombe connue n'atteint. Le champ n'est remis à zéro que si les sources changent,
+ * ou si la grille (mur cassé, explosion) ou la carte de danger (bombe posée ou explosée) ont changé depuis.
+ * Le parcours est paresseux : il ne s'étend que jusqu'aux cases demandées et reprend là où il s'était
+ * arrêté pour la demande suivante, si bien qu'une cible proche ne coûte pas un parcours de toute la grille.
+ *
+ * Les méthodes sont synchronisées : pendant la décision en parallèle, les IA qui poursuivent la même
+ * cible se partagent un seul parcours. Toutes y demandent alors les mêmes sources (la partie n'est pas
+ * modifiée pendant cette phase), donc aucune ne remet le champ à zéro sous les pieds d'une autre.
+ */
+public class FlowField {
+    /** Distance d'une case d'où aucune source n'est atteignable. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private int width = -1;
+    private int height = -1;
+    private int[] distance = new int[0];
+    private int[] stamp = new int[0];       // == generation : distance connue (et définitive) dans ce champ
+    private int[] queue = new int[0];
+    private int head, tail;
+    private int generation = 0;
+
+    // Clé du dernier calcul : sources, grille et carte de danger (objets et versions)
+    private int[] sources = new int[0];
+    private int sourceCount = 0;
+    private Grid grid;
+    private DangerMap dangerMap;
+    private int gridVersion, dangerVersion;
+    private final int[] single = new int[1];
+
+    /**
+     * Prépare le champ pour une seule case cible.
+     * @return true si le champ a été remis à zéro, false s'il était déjà à jour
+     */
+    public synchronized boolean update(Grid grid, DangerMap dangerMap, int targetX, int targetY) {
+        single[0] = targetY * grid.getWidth() + targetX;
+        return update(grid, dangerMap, single, 1);
+    }
+
+    /**
+     * Prépare le champ pour plusieurs cases sources (identifiants y * width + x),
+     * par exemple tous les bonus au sol.
+     * @return true si le champ a été remis à zéro, false s'il était déjà à jour
+     */
+    public synchronized boolean update(Grid grid, DangerMap dangerMap, int[] cells, int count) {
+        if (isCurrent(grid, dangerMap, cells, count)) return false;
+        prepare(grid);
+        if (sources.length < count) sources = new int[count];
+        System.arraycopy(cells, 0, sources, 0, count);
+        sourceCount = count;
+        this.grid = grid;
+        this.dangerMap = dangerMap;
+        this.gridVersion = grid.getVersion();
+        this.dangerVersion = dangerMap.getVersion();
+
+        int gen = nextGeneration();
+        head = 0;
+        tail = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = cells[i];
+            if (stamp[cell] != gen && passable(cell % width, cell / width)) {
+                stamp[cell] = gen;
+                distance[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        return true;
+    }
+
+    /** @return nombre de pas de (x, y) jusqu'à la source la plus proche, ou {@link #UNREACHABLE} */
+    public synchronized int distanceAt(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return UNREACHABLE;
+        int cell = y * width + x;
+        while (stamp[cell] != generation && head < tail) expand();
+        return stamp[cell] == generation ? distance[cell] : UNREACHABLE;
+    }
+
+    /**
+     * Premier pas d'un plus court chemin de (startX, startY) vers une source, comme
+     * {@link PathFinder#findFirstStep} : la case de départ elle-même n'a pas besoin d'être passable.
+     * Entre voisins à égale distance, l'ordre est fixe (droite, gauche, bas, haut) : le résultat
+     * ne dépend pas de l'ordre dans lequel les IA ont interrogé le champ.
+     * @return identifiant (y * width + x) de la case voisine à rejoindre, la case de départ si c'est une source,
+     *         ou -1 si aucune source n'est atteignable
+     */
+    public synchronized int firstStep(int startX, int startY) {
+        int start = startY * width + startX;
+        for (int i = 0; i < sourceCount; i++) {
+            if (sources[i] == start) return start;
+        }
+        // Les cases sont découvertes par distance croissante : dès qu'un voisin est atteint à la distance d,
+        // il suffit de finir de développer les cases à d - 1 pour connaître tous les voisins à la distance d
+        int nearest = nearestNeighbourDistance(startX, startY);
+        while (head < tail && (nearest == UNREACHABLE || distance[queue[head]] < nearest)) {
+            expand();
+            nearest = nearestNeighbourDistance(startX, startY);
+        }
+        if (nearest == UNREACHABLE) return -1;
+        for (int d = 0; d < 4; d++) {
+            int nx = startX + DX[d], ny = startY + DY[d];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+            int n = ny * width + nx;
+            if (stamp[n] == generation && distance[n] == nearest) return n;
+        }
+        return -1;
+    }
+
+    /** Développe la prochaine case de la file. */
+    private void expand() {
+        int cell = queue[head++];
+        int cx = cell % width, cy = cell / width;
+        int next = distance[cell] + 1;
+        for (int d = 0; d < 4; d++) {
+            int nx = cx + DX[d], ny = cy + DY[d];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+            int n = ny * width + nx;
+            if (stamp[n] == generation || !passable(nx, ny)) continue;
+            stamp[n] = generation;
+            distance[n] = next;
+            queue[tail++] = n;
+        }
+    }
+
+    private int nearestNeighbourDistance(int x, int y) {
+        int best = UNREACHABLE;
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+            int n = ny * width + nx;
+            if (stamp[n] == generation && distance[n] < best) best = distance[n];
+        }
+        return best;
+    }
+
+    private boolean isCurrent(Grid grid, DangerMap dangerMap, int[] cells, int count) {
+        if (this.grid != grid || gridVersion != grid.getVersion()
+                || this.dangerMap != dangerMap || dangerVersion != dangerMap.getVersion()
+                || sourceCount != count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (sources[i] != cells[i]) return false;
+        }
+        return true;
+    }
+
+    private boolean passable(int x, int y) {
+        int cell = grid.getOrdinalUnchecked(x, y);
+        return (cell == Grid.EMPTY_ORDINAL || cell == Grid.DESTRUCTIBLE_ORDINAL) && dangerMap.isSafe(x, y);
+    }
+
+    private void prepare(Grid grid) {
+        if (grid.getWidth() == width && grid.getHeight() == height) return;
+        width = grid.getWidth();
+        height = grid.getHeight();
+        distance = new int[width * height];
+        stamp = new int[width * height];
+        queue = new int[width * height];
+        generation = 0;
+    }
+
+    private int nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Débordement (très rare) : on remet les marques à zéro
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+}
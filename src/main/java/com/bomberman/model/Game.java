@@ -1,8 +1,11 @@
 package com.bomberman.model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Classe principale du jeu Bomberman.
@@ -15,61 +18,139 @@ public class Game {
     private Player winner;
     private List<Bomb> bombs = new ArrayList<>();
     private List<Bonus> bonuses = new ArrayList<>();
-    private List<Explosion> explosions = new ArrayList<>();
     private final AIDifficulty aiDifficulty; // Ajouté
+    // Aléatoire de la partie (graine unique) et générateur dédié aux apparitions de bonus
+    private final GameRandom random;
+    private final GameRandom bonusRandom;
+    // Qui occupe chaque case (joueurs, bombe, bonus) : évite de parcourir les listes
+    private final OccupancyIndex occupancy;
+    // Cases modifiées depuis le dernier affichage (grille, joueurs, bombes, bonus, explosions)
+    private final DirtyCells dirtyCells;
+
+    /** Durée d'une case d'explosion, en ticks (effacée au tick suivant la détonation). */
+    private static final int EXPLOSION_TICKS = 2;
+    // Détonations et fins d'explosion programmées par tick
+    private final BombScheduler scheduler = new BombScheduler();
+    // Tick jusqu'auquel chaque case reste en explosion (-1 si aucune)
+    private final int[] explosionUntil;
+    // Bombes atteintes par une explosion, à faire sauter dans le même tick
+    private final ArrayDeque<Bomb> pendingDetonations = new ArrayDeque<>();
+    private final List<Bomb> detonatedThisTick = new ArrayList<>();
+    // Tick de la prochaine explosion sur chaque case, partagé par toutes les IA
+    private final DangerMap dangerMap;
 
     // --- TYPES EXPLOSION POUR AFFICHAGE ---
     public enum ExplosionPartType { CENTRE, BRANCH, END }
     public enum Direction { UP, DOWN, LEFT, RIGHT }
     public static class ExplosionCell {
+        public static final ExplosionCell CENTRE = new ExplosionCell(ExplosionPartType.CENTRE, null);
+        // Instances partagées : [type][direction] pour BRANCH et END
+        private static final ExplosionCell[][] INTERNED = new ExplosionCell[ExplosionPartType.values().length][Direction.values().length];
+        static {
+            for (ExplosionPartType type : ExplosionPartType.values()) {
+                for (Direction direction : Direction.values()) {
+                    INTERNED[type.ordinal()][direction.ordinal()] = type == ExplosionPartType.CENTRE
+                            ? CENTRE
+                            : new ExplosionCell(type, direction);
+                }
+            }
+        }
+
         public final ExplosionPartType type;
         public final Direction direction; // null pour centre
         public ExplosionCell(ExplosionPartType type, Direction direction) {
             this.type = type;
             this.direction = direction;
         }
-    }
-    // ---------------------------------------
 
-    /** Permet de mémoriser précisément les centres d'explosion actifs */
-    private final List<ExplosionCenter> explosionCenters = new ArrayList<>();
-    private static class ExplosionCenter {
-        int x, y;
-        int frame;
-        ExplosionCenter(int x, int y, int frame) {
-            this.x = x; this.y = y; this.frame = frame;
+        /** @return l'instance partagée correspondant au type et à la direction */
+        public static ExplosionCell of(ExplosionPartType type, Direction direction) {
+            if (type == ExplosionPartType.CENTRE || direction == null) return CENTRE;
+            return INTERNED[type.ordinal()][direction.ordinal()];
+        }
+
+        /** @return true si la partie est sur l'axe horizontal (gauche/droite) */
+        public boolean isHorizontal() {
+            return direction == Direction.LEFT || direction == Direction.RIGHT;
         }
-    }
-    private int explosionFrameCounter = 0;
 
-    private static class Explosion {
-        int x, y;
-        int ticksRemaining;
-        Explosion(int x, int y, int ticksRemaining) {
-            this.x = x;
-            this.y = y;
-            this.ticksRemaining = ticksRemaining;
+        /**
+         * Fusionne deux parties d'explosion qui se recouvrent sur une même case :
+         * un centre ou un croisement d'axes donne un centre, une branche l'emporte sur une fin,
+         * et deux fins opposées sur le même axe forment une branche.
+         */
+        public static ExplosionCell merge(ExplosionCell current, ExplosionCell added) {
+            if (current == null) return added;
+            if (added == null || current == added) return current;
+            if (current.type == ExplosionPartType.CENTRE || added.type == ExplosionPartType.CENTRE) return CENTRE;
+            if (current.isHorizontal() != added.isHorizontal()) return CENTRE;
+            if (current.type == ExplosionPartType.BRANCH) return current;
+            if (added.type == ExplosionPartType.BRANCH) return added;
+            return of(ExplosionPartType.BRANCH, current.direction);
         }
     }
+    // ---------------------------------------
+
+    // IA de la partie (dans l'ordre des joueurs) et intentions calculées pendant la phase de décision
+    private final List<PlayerAI> aiPlayers = new ArrayList<>();
+    private PlayerAI.Intent[] aiIntents = new PlayerAI.Intent[0];
+    // En dessous de ce nombre d'IA, la décision parallèle coûte plus qu'elle ne rapporte
+    private static final int PARALLEL_AI_THRESHOLD = 2;
+    private boolean parallelAI = true;
+    // Intentions imposées pour le prochain tour des IA (simulations de l'IA EXPERT), null sinon
+    private PlayerAI.Intent[] forcedIntents = new PlayerAI.Intent[0];
+    // Recherche de chaque IA EXPERT (null pour les autres niveaux), null si la partie n'en a aucune
+    private ExpertPlanner[] planners;
+    private int expertBudgetMillis = ExpertPlanner.DEFAULT_BUDGET_MILLIS;
+    private int expertMaxRollouts = 0;
+    // Instantané de début de tick lu par les IA EXPERT pendant la décision
+    private GameSnapshot expertRoot;
+    // Coups des IA EXPERT lus dans un replay (4 bits par coup, par tick puis par IA), null si elles cherchent
+    private byte[] recordedExpertIntents;
+    // Champ de distances vers chaque joueur, partagé par les IA DIFFICILE qui le poursuivent (null si aucune)
+    private FlowField[] targetFields;
+    // Vues en lecture seule passées aux IA pendant la décision
+    private final List<Bomb> readOnlyBombs = Collections.unmodifiableList(bombs);
+    private List<Player> readOnlyPlayers;
+
+    // Partie d'explosion à afficher sur chaque case, calculée une fois au moment de l'explosion (null si aucune)
+    private final ExplosionCell[] explosionOverlay;
+
+    // Versions des listes de bombes, de bonus et d'explosions : un instantané reprend celles qui n'ont pas changé
+    private int bombsVersion, bonusesVersion, explosionsVersion;
+    private GameSnapshot lastSnapshot;
+    private int snapshotBombsVersion, snapshotBonusesVersion, snapshotExplosionsVersion;
 
     public Game(int width, int height, int playerCount, int iaCount, Level level, AIDifficulty aiDifficulty) {
-        this.grid = new Grid(width, height, level);
+        this(width, height, playerCount, iaCount, level, aiDifficulty, GameRandom.newSeed());
+    }
+
+    /**
+     * Crée une partie reproductible : la même graine (avec le même niveau et les mêmes entrées)
+     * donne la même grille, les mêmes bonus et les mêmes décisions d'IA.
+     */
+    public Game(int width, int height, int playerCount, int iaCount, Level level, AIDifficulty aiDifficulty, long seed) {
+        this.random = new GameRandom(seed);
+        this.bonusRandom = random.forSubsystem("bonus");
+        this.grid = new Grid(width, height, level, random.forSubsystem("grid"));
+        this.dirtyCells = new DirtyCells(width, height);
+        grid.setDirtyCells(dirtyCells);
+        this.occupancy = new OccupancyIndex(width, height, dirtyCells);
+        this.explosionUntil = new int[width * height];
+        Arrays.fill(explosionUntil, -1);
+        this.explosionOverlay = new ExplosionCell[width * height];
+        this.dangerMap = new DangerMap(grid, scheduler);
         this.players = new ArrayList<>();
         this.gameOver = false;
         this.winner = null;
         this.aiDifficulty = aiDifficulty;
-        initializePlayers(playerCount, iaCount);
+        initializePlayers(playerCount, iaCount, level);
+        placeMarkedBonuses(level);
 
     }
 
-    private void initializePlayers(int humanCount, int iaCount) {
-        int[][] startPositions = {
-                {1, 1},
-                {grid.getWidth() - 2, grid.getHeight() - 2},
-                {1, grid.getHeight() - 2},
-                {grid.getWidth() - 2, 1}
-        };
-        int totalPlayers = humanCount + iaCount;
+    private void initializePlayers(int humanCount, int iaCount, Level level) {
+        int[][] startPositions = startPositions(humanCount, iaCount, level);
         int index = 0;
 
         // Humains
@@ -78,6 +159,7 @@ public class Game {
             int y = startPositions[index][1];
             clearSpawnZoneOnly(x, y);
             Player player = new Player(index + 1, x, y, true);
+            player.attachOccupancy(occupancy, players.size());
             players.add(player);
         }
 
@@ -86,8 +168,139 @@ public class Game {
             int x = startPositions[index][0];
             int y = startPositions[index][1];
             clearSpawnZoneOnly(x, y);
-            PlayerAI ia = new PlayerAI(index + 1, x, y, aiDifficulty); // Passe la difficulté ici
+            PlayerAI ia = new PlayerAI(index + 1, x, y, aiDifficulty, random.forSubsystem("ai-" + (index + 1))); // Passe la difficulté ici
+            ia.attachOccupancy(occupancy, players.size());
             players.add(ia);
+            aiPlayers.add(ia);
+        }
+        aiIntents = new PlayerAI.Intent[aiPlayers.size()];
+        forcedIntents = new PlayerAI.Intent[aiPlayers.size()];
+        if (!aiPlayers.isEmpty() && (aiDifficulty == AIDifficulty.DIFFICILE || aiDifficulty == AIDifficulty.EXPERT)) {
+            targetFields = new FlowField[players.size()];
+            for (int i = 0; i < targetFields.length; i++) targetFields[i] = new FlowField();
+            for (PlayerAI ia : aiPlayers) ia.setTargetFields(targetFields);
+        }
+        readOnlyPlayers = Collections.unmodifiableList(players);
+        if (aiDifficulty == AIDifficulty.EXPERT && !aiPlayers.isEmpty()) {
+            planners = new ExpertPlanner[aiPlayers.size()];
+            for (int i = 0; i < planners.length; i++) {
+                PlayerAI ai = aiPlayers.get(i);
+                planners[i] = new ExpertPlanner(players.indexOf(ai), random.forSubsystem("expert-" + ai.getId()).getSeed());
+            }
+        }
+    }
+
+    /**
+     * Limites de recherche des IA EXPERT, par tick (voir {@link ExpertPlanner#setLimits(int, int)}),
+     * puis lancement de la recherche du prochain tick avec ces limites.
+     * Sans effet si la partie n'a pas d'IA EXPERT.
+     */
+    public void setExpertSearchLimits(int budgetMillis, int maxRollouts) {
+        if (planners == null) return;
+        expertBudgetMillis = Math.max(0, budgetMillis);
+        expertMaxRollouts = Math.max(0, maxRollouts);
+        for (ExpertPlanner planner : planners) planner.setLimits(expertBudgetMillis, expertMaxRollouts);
+        startExpertSearches();
+    }
+
+    public int getExpertBudgetMillis() { return expertBudgetMillis; }
+    public int getExpertMaxRollouts() { return expertMaxRollouts; }
+
+    /**
+     * Rejoue les coups enregistrés des IA EXPERT au lieu de les chercher : la partie suit l'enregistrement
+     * quels que soient la machine et le budget d'origine. Au-delà des coups enregistrés, elles jouent comme DIFFICILE.
+     * @param codes deux coups par octet (4 bits, voir {@link PlayerAI.Intent#code()}), rangés par tick puis par IA
+     */
+    void playRecordedExpertIntents(byte[] codes) {
+        if (planners == null) return;
+        for (ExpertPlanner planner : planners) planner.cancel();
+        recordedExpertIntents = codes;
+    }
+
+    /** @return nombre d'IA de la partie */
+    int getAICount() { return aiPlayers.size(); }
+
+    /** Décision des IA en parallèle ou non (les parties de simulation décident en série, sur le thread de la recherche). */
+    void setParallelAI(boolean parallelAI) {
+        this.parallelAI = parallelAI;
+    }
+
+    /** Impose l'intention d'une IA pour le prochain tour des IA seulement. */
+    void forceIntent(int playerIndex, PlayerAI.Intent intent) {
+        int index = aiPlayers.indexOf(players.get(playerIndex));
+        if (index >= 0) forcedIntents[index] = intent;
+    }
+
+    /** Redonne une graine à chaque IA (les simulations partant du même instantané divergent ainsi). */
+    void reseedAIs(GameRandom source) {
+        for (PlayerAI ai : aiPlayers) ai.reseed(source.nextLong());
+    }
+
+    /**
+     * Cases de départ : humains puis IA. Chacun prend d'abord un marqueur d'apparition du niveau
+     * qui lui est destiné (dans l'ordre de lecture), sinon un coin libre de la grille.
+     */
+    private int[][] startPositions(int humanCount, int iaCount, Level level) {
+        int[][] corners = {
+                {1, 1},
+                {grid.getWidth() - 2, grid.getHeight() - 2},
+                {1, grid.getHeight() - 2},
+                {grid.getWidth() - 2, 1}
+        };
+        int[] humanSpawns = markedCells(level, LevelEditor.CellType.PLAYER_SPAWN);
+        int[] aiSpawns = markedCells(level, LevelEditor.CellType.AI_SPAWN);
+        int total = Math.min(humanCount + iaCount, corners.length);
+        int[][] positions = new int[total][];
+        for (int i = 0; i < total; i++) {
+            int[] spawns = i < humanCount ? humanSpawns : aiSpawns;
+            int rank = i < humanCount ? i : i - humanCount;
+            if (rank < spawns.length) {
+                positions[i] = new int[] {spawns[rank] % grid.getWidth(), spawns[rank] / grid.getWidth()};
+            }
+        }
+        // Coins pour ceux qui n'ont pas de marqueur, en évitant les cases déjà prises
+        int corner = 0;
+        for (int i = 0; i < total; i++) {
+            if (positions[i] != null) continue;
+            while (corner < corners.length - 1 && isTaken(positions, corners[corner])) corner++;
+            positions[i] = corners[corner++ % corners.length];
+        }
+        return positions;
+    }
+
+    private static boolean isTaken(int[][] positions, int[] cell) {
+        for (int[] p : positions) {
+            if (p != null && p[0] == cell[0] && p[1] == cell[1]) return true;
+        }
+        return false;
+    }
+
+    // Cases du niveau portant ce marqueur et situées dans la grille (indices de la grille)
+    private int[] markedCells(Level level, LevelEditor.CellType type) {
+        if (level == null) return new int[0];
+        int[] found = level.findMarkers(type);
+        int levelWidth = level.getWidth();
+        int count = 0;
+        for (int cell : found) {
+            int x = cell % levelWidth, y = cell / levelWidth;
+            if (grid.isInterior(x, y)) found[count++] = y * grid.getWidth() + x;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /** Un bonus tiré au sort sur chaque case marquée BONUS du niveau. */
+    private void placeMarkedBonuses(Level level) {
+        for (int cell : markedCells(level, LevelEditor.CellType.BONUS)) {
+            int x = cell % grid.getWidth(), y = cell / grid.getWidth();
+            if (grid.getOrdinalUnchecked(x, y) != Grid.EMPTY_ORDINAL || occupancy.bonusAt(x, y) != null) continue;
+            Bonus bonus = switch (bonusRandom.nextInt(3)) {
+                case 0 -> new FlameBonus(x, y, 1);
+                case 1 -> new JacketBonus(x, y);
+                default -> new LifeBonus(x, y);
+            };
+            bonuses.add(bonus);
+            occupancy.addBonus(bonus);
+            bonusesVersion++;
         }
     }
 
@@ -103,15 +316,103 @@ public class Game {
     public Player getWinner() { return winner; }
     public List<Bomb> getBombs() { return bombs; }
     public List<Bonus> getBonuses() { return bonuses; }
+    public OccupancyIndex getOccupancy() { return occupancy; }
+    public AIDifficulty getAIDifficulty() { return aiDifficulty; }
+    /** @return graine de la partie (pour la rejouer à l'identique) */
+    public long getSeed() { return random.getSeed(); }
+    /** @return cases à redessiner depuis le dernier affichage */
+    public DirtyCells getDirtyCells() { return dirtyCells; }
+    /** @return numéro du tick courant de la partie */
+    public int getCurrentTick() { return scheduler.getCurrentTick(); }
+    public DangerMap getDangerMap() { return dangerMap; }
 
+    /**
+     * Tour des IA en deux phases :
+     *   1. toutes les IA décident en parallèle, en lisant seulement la partie (vues non modifiables),
+     *   2. les intentions sont appliquées une par une dans l'ordre des joueurs (bombe puis déplacement),
+     *      ce qui garde un résultat déterministe quel que soit l'ordre de fin des calculs.
+     */
     public void updateAIs() {
-        for (Player p : players) {
-            if (p instanceof PlayerAI ai) {
-                ai.updateAI(grid, bombs, players); // Passe la liste des joueurs pour comportement avancé
+        int count = aiPlayers.size();
+        if (count == 0) return;
+        // Les IA EXPERT partent de l'état de fin du tick précédent (recherche lancée à ce moment-là)
+        expertRoot = planners != null && recordedExpertIntents == null ? snapshot() : null;
+        if (parallelAI && count >= PARALLEL_AI_THRESHOLD) {
+            IntStream.range(0, count).parallel().forEach(this::decideAI);
+        } else {
+            for (int i = 0; i < count; i++) decideAI(i);
+        }
+        for (int i = 0; i < count; i++) {
+            PlayerAI ai = aiPlayers.get(i);
+            PlayerAI.Intent intent = aiIntents[i];
+            aiIntents[i] = null;
+            if (planners != null && inputListener != null) {
+                inputListener.onExpertIntent(i, intent != null ? intent : PlayerAI.Intent.NONE);
+            }
+            if (intent == null || !ai.isAlive()) continue;
+            // Même limite que Player.dropBomb, revérifiée sur l'état réel (les autres IA ont pu poser avant)
+            if (intent.dropBomb && bombs.size() < ai.getMaxBombs()) {
+                Bomb bomb = new Bomb(ai.getX(), ai.getY(), Bomb.DEFAULT_TIMER, ai.getBombRange(), ai);
+                if (registerBomb(bomb)) bombs.add(bomb);
+            }
+            if (intent.dx != 0 || intent.dy != 0) {
+                ai.move(intent.dx, intent.dy, grid);
             }
         }
     }
 
+    private void decideAI(int index) {
+        PlayerAI.Intent forced = forcedIntents[index];
+        if (forced != null) {
+            // L'IA décide quand même, pour que sa mémoire (fuite de sa bombe...) suive le tick imposé
+            aiPlayers.get(index).decide(grid, readOnlyBombs, readOnlyPlayers, dangerMap);
+            forcedIntents[index] = null;
+            aiIntents[index] = forced;
+        } else if (planners != null && planners[index] != null) {
+            PlayerAI ai = aiPlayers.get(index);
+            PlayerAI.Intent planned;
+            if (!ai.isAlive()) {
+                planned = PlayerAI.Intent.NONE;
+            } else if (recordedExpertIntents != null) {
+                planned = recordedExpertIntent(index);
+            } else {
+                planned = planners[index].await(expertRoot);
+            }
+            // Aucun résultat pour ce tick : politique DIFFICILE, sans chercher sur le thread de la partie
+            aiIntents[index] = planned != null ? planned : ai.decide(grid, readOnlyBombs, readOnlyPlayers, dangerMap);
+        } else {
+            aiIntents[index] = aiPlayers.get(index).decide(grid, readOnlyBombs, readOnlyPlayers, dangerMap);
+        }
+    }
+
+    /** @return le coup enregistré de l'IA pour le tick courant, ou null au-delà de l'enregistrement */
+    private PlayerAI.Intent recordedExpertIntent(int index) {
+        int position = getCurrentTick() * aiPlayers.size() + index;
+        if (position / 2 >= recordedExpertIntents.length) return null;
+        return PlayerAI.Intent.fromCode(recordedExpertIntents[position / 2] >> ((position & 1) * 4));
+    }
+
+    /** Lance en arrière-plan la recherche des IA EXPERT pour le tick suivant, à partir de l'état de fin de tick. */
+    private void startExpertSearches() {
+        if (planners == null || recordedExpertIntents != null || gameOver) return;
+        GameSnapshot root = snapshot();
+        for (int i = 0; i < planners.length; i++) {
+            if (aiPlayers.get(i).isAlive()) planners[i].start(root);
+        }
+    }
+
+    /**
+     * Indexe et programme une nouvelle bombe.
+     * @return false si la case contient déjà une bombe (la bombe n'est alors pas enregistrée)
+     */
+    private boolean registerBomb(Bomb bomb) {
+        if (!occupancy.addBomb(bomb)) return false;
+        bombsVersion++;
+        scheduler.schedule(bomb);
+        dangerMap.addBomb(bomb);
+        return true;
+    }
+
     public void updateGameState() {
         int aliveCount = 0;
         Player lastAlive = null;
@@ -127,60 +428,105 @@ public class Game {
         }
     }
 
+    /**
+     * Abonné prévenu de chaque action d'un joueur humain (déplacement ou bombe), avant son application,
+     * et du coup de chaque IA EXPERT à chaque tour des IA.
+     */
+    public interface InputListener {
+        void onInput(int playerIndex, PlayerAction action);
+
+        /**
+         * Coup appliqué par une IA EXPERT au tick courant (NONE si elle est éliminée). Sa recherche dépend
+         * du temps de calcul disponible : un replay doit l'enregistrer pour rejouer la partie à l'identique.
+         * @param aiIndex indice de l'IA parmi les IA de la partie
+         */
+        default void onExpertIntent(int aiIndex, PlayerAI.Intent intent) {}
+    }
+
+    private InputListener inputListener;
+
+    /** Branche (ou retire avec null) l'abonné aux actions des joueurs, par exemple un enregistreur de replay. */
+    public void setInputListener(InputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /** Applique une action de joueur (utilisé pour rejouer un enregistrement). */
+    public void applyAction(Player player, PlayerAction action) {
+        if (action == PlayerAction.BOMB) {
+            placeBomb(player);
+        } else {
+            movePlayer(player, action.dx, action.dy);
+        }
+    }
+
+    private void notifyInput(Player player, PlayerAction action) {
+        if (inputListener != null && action != null) {
+            inputListener.onInput(players.indexOf(player), action);
+        }
+    }
+
     public void movePlayer(Player player, int dx, int dy) {
+        notifyInput(player, PlayerAction.fromMove(dx, dy));
         if (!gameOver && player.isAlive()) {
             player.move(dx, dy, grid);
         }
     }
 
     public void placeBomb(Player player) {
+        notifyInput(player, PlayerAction.BOMB);
         if (!player.isAlive()) return;
-        for (Bomb b : bombs) {
-            if (b.getX() == player.getX() && b.getY() == player.getY()) {
-                return;
-            }
-        }
+        if (occupancy.bombAt(player.getX(), player.getY()) != null) return;
         Bomb newBomb = new Bomb(player.getX(), player.getY(), Bomb.DEFAULT_TIMER, player.getBombRange(), player);
-        if (newBomb != null) {
+        if (registerBomb(newBomb)) {
             bombs.add(newBomb);
             grid.setCell(player.getX(), player.getY(), Grid.CellType.BOMB);
         }
     }
 
+    /**
+     * Pose une bombe sans propriétaire sur une case donnée (scénarios scriptés, mesures de performance).
+     * @return la bombe posée, ou null si la case est hors grille, non vide ou contient déjà une bombe
+     */
+    public Bomb placeBombAt(int x, int y, int range, int timer) {
+        if (!grid.isInBounds(x, y) || grid.getOrdinalUnchecked(x, y) != Grid.EMPTY_ORDINAL) return null;
+        Bomb newBomb = new Bomb(x, y, timer, range);
+        if (!registerBomb(newBomb)) return null;
+        bombs.add(newBomb);
+        grid.setCell(x, y, Grid.CellType.BOMB);
+        return newBomb;
+    }
+
     public void updateBombs() {
-        Iterator<Bomb> it = bombs.iterator();
-        while (it.hasNext()) {
-            Bomb b = it.next();
-            b.tick();
-            if (b.isExploded()) {
-                explode(b);
-                it.remove();
-            }
-        }
-        Iterator<Explosion> expIt = explosions.iterator();
-        while (expIt.hasNext()) {
-            Explosion exp = expIt.next();
-            exp.ticksRemaining--;
-            if (exp.ticksRemaining <= 0) {
-                if (grid.getCell(exp.x, exp.y) == Grid.CellType.EXPLOSION) {
-                    grid.setCell(exp.x, exp.y, Grid.CellType.EMPTY);
-                }
-                expIt.remove();
+        // Seules les bombes dont le tick de détonation est arrivé sont touchées
+        List<Bomb> due = scheduler.advance();
+        if (!due.isEmpty()) {
+            pendingDetonations.addAll(due);
+            while (!pendingDetonations.isEmpty()) {
+                Bomb b = pendingDetonations.poll();
+                if (b.isDetonated()) continue;
+                b.markDetonated();
+                occupancy.removeBomb(b);
+                detonatedThisTick.add(b);
+                explode(b); // peut ajouter d'autres bombes à pendingDetonations (réaction en chaîne)
             }
+            bombs.removeIf(Bomb::isDetonated);
+            bombsVersion++;
+            dangerMap.removeBombs(detonatedThisTick);
+            detonatedThisTick.clear();
         }
+        // Fin des cases d'explosion arrivées à échéance
+        scheduler.pollExpiries(this::expireExplosion);
         for (Player p : players) {
             if (!p.isAlive()) continue;
-            Iterator<Bonus> bonusIt = bonuses.iterator();
-            while (bonusIt.hasNext()) {
-                Bonus bonus = bonusIt.next();
-                if (!bonus.isCollected()
-                        && p.getX() == bonus.getX()
-                        && p.getY() == bonus.getY()) {
-                    bonus.applyTo(p);
-                }
-                if (bonus.isCollected()) {
-                    bonusIt.remove();
-                }
+            Bonus bonus = occupancy.bonusAt(p.getX(), p.getY());
+            if (bonus == null) continue;
+            if (!bonus.isCollected()) {
+                bonus.applyTo(p);
+            }
+            if (bonus.isCollected()) {
+                occupancy.removeBonus(bonus);
+                bonuses.remove(bonus);
+                bonusesVersion++;
             }
         }
         for (Player p : players) {
@@ -188,37 +534,68 @@ public class Game {
                 p.updateActiveBonuses();
             }
         }
-        // Nettoyage des centres d'explosion qui ne sont plus actifs (plus d'explosion à cet endroit)
-        explosionCenters.removeIf(ec ->
-                explosions.stream().noneMatch(exp -> exp.x == ec.x && exp.y == ec.y && exp.ticksRemaining > 0)
-        );
         updateGameState();
+        startExpertSearches();
+    }
+
+    /**
+     * Efface une case d'explosion si aucune explosion plus récente ne l'a prolongée.
+     */
+    private void expireExplosion(int cell) {
+        if (explosionUntil[cell] != scheduler.getCurrentTick()) return;
+        explosionUntil[cell] = -1;
+        explosionOverlay[cell] = null;
+        explosionsVersion++;
+        dirtyCells.mark(cell);
+        if (grid.getOrdinalAt(cell) == Grid.EXPLOSION_ORDINAL) {
+            grid.setCell(cell % grid.getWidth(), cell / grid.getWidth(), Grid.CellType.EMPTY);
+        }
     }
 
-    // Ajout : incrémentation de la frame et enregistrement du centre
-    private void addExplosion(int x, int y, boolean isCenter) {
+    /**
+     * Passe une case en explosion et y enregistre la partie à afficher (fusionnée avec une explosion déjà présente).
+     */
+    private void addExplosion(int x, int y, ExplosionCell part) {
         grid.setCell(x, y, Grid.CellType.EXPLOSION);
-        explosions.add(new Explosion(x, y, 2));
-        if (isCenter) {
-            explosionCenters.add(new ExplosionCenter(x, y, explosionFrameCounter));
+        int cell = grid.index(x, y);
+        int until = scheduler.getCurrentTick() + EXPLOSION_TICKS - 1;
+        if (until > explosionUntil[cell]) {
+            explosionUntil[cell] = until;
+            scheduler.scheduleExpiry(cell, until);
+        }
+        explosionOverlay[cell] = ExplosionCell.merge(explosionOverlay[cell], part);
+        explosionsVersion++;
+        dirtyCells.mark(cell); // la case était peut-être déjà en explosion : seule sa partie affichée change
+        // Réaction en chaîne : une bombe touchée par l'explosion saute dans le même tick
+        Bomb other = occupancy.bombAt(x, y);
+        if (other != null && !other.isDetonated()) {
+            pendingDetonations.add(other);
         }
     }
+    private static final int[][] EXPLOSION_DIRS = {{1,0},{-1,0},{0,1},{0,-1}};
+    private static final Direction[] EXPLOSION_DIRECTIONS = {Direction.RIGHT, Direction.LEFT, Direction.DOWN, Direction.UP};
+
     private void explode(Bomb b) {
         int x = b.getX(), y = b.getY(), range = b.getRange();
-        explosionFrameCounter++; // incrémente à chaque nouvelle explosion centrale
-        addExplosion(x, y, true); // true => centre
+        addExplosion(x, y, ExplosionCell.CENTRE);
         damagePlayersAt(x, y);
 
-        int[][] dirs = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] dir : dirs) {
+        for (int d = 0; d < EXPLOSION_DIRS.length; d++) {
+            int[] dir = EXPLOSION_DIRS[d];
             for (int i = 1; i <= range; i++) {
                 int nx = x + dir[0]*i, ny = y + dir[1]*i;
                 if (!grid.isInBounds(nx, ny)) break;
-                Grid.CellType c = grid.getCell(nx, ny);
-                if (c == Grid.CellType.INDESTRUCTIBLE) break;
-                addExplosion(nx, ny, false); // false => branche
+                int c = grid.getOrdinalUnchecked(nx, ny);
+                if (c == Grid.INDESTRUCTIBLE_ORDINAL) break;
+                // Fin de branche : portée atteinte, mur destructible, ou case suivante bloquante
+                int fx = nx + dir[0], fy = ny + dir[1];
+                boolean isEnd = i == range
+                        || c == Grid.DESTRUCTIBLE_ORDINAL
+                        || !grid.isInBounds(fx, fy)
+                        || grid.getOrdinalUnchecked(fx, fy) == Grid.INDESTRUCTIBLE_ORDINAL;
+                addExplosion(nx, ny, ExplosionCell.of(isEnd ? ExplosionPartType.END : ExplosionPartType.BRANCH, EXPLOSION_DIRECTIONS[d]));
                 damagePlayersAt(nx, ny);
-                if (c == Grid.CellType.DESTRUCTIBLE) {
+                if (c == Grid.DESTRUCTIBLE_ORDINAL) {
                     destroyWall(nx, ny);
                     break;
                 }
@@ -226,104 +603,179 @@ public class Game {
         }
     }
     private void damagePlayersAt(int x, int y) {
-        for (Player p : players) {
-            if (p.isAlive() && p.getX() == x && p.getY() == y) {
-                if (!p.isInvincibleToBombs()) {
-                    p.takeDamage();
-                }
+        int mask = occupancy.playersAt(x, y);
+        while (mask != 0) {
+            int slot = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            Player p = players.get(slot);
+            if (p.isAlive() && !p.isInvincibleToBombs()) {
+                p.takeDamage();
             }
         }
     }
     private void destroyWall(int x, int y) {
-        if (Math.random() < 0.2) {
-            int bonusType = (int) (Math.random() * 3);
-            switch (bonusType) {
-                case 0 -> bonuses.add(new FlameBonus(x, y, 1));
-                case 1 -> bonuses.add(new JacketBonus(x, y));
-                case 2 -> bonuses.add(new LifeBonus(x, y));
-            }
+        if (bonusRandom.nextDouble() < 0.2) {
+            int bonusType = bonusRandom.nextInt(3);
+            Bonus bonus = switch (bonusType) {
+                case 0 -> new FlameBonus(x, y, 1);
+                case 1 -> new JacketBonus(x, y);
+                default -> new LifeBonus(x, y);
+            };
+            bonuses.add(bonus);
+            occupancy.addBonus(bonus);
+            bonusesVersion++;
         }
     }
 
-    // ----------- NOUVEAU : pour affichage explosion façon Bomberman -----------
+    // ----------- Instantanés de partie -----------
+
     /**
-     * Retourne le type et la direction de la partie d'explosion pour la case (x, y), ou null si pas d'explosion.
-     * Ne retourne CENTRE que pour la case où une bombe a explosé.
-     * Jamais de branche ni de fin sur la case centre.
+     * Capture l'état complet de la partie à la fin du tick courant (voir {@link GameSnapshot}).
+     * Assez peu coûteux pour être appelé à chaque tick : la grille n'est pas copiée, et ce qui n'a pas changé
+     * depuis l'instantané précédent est partagé avec lui.
      */
-    // Remplace uniquement la méthode getExplosionCell par celle-ci
+    public GameSnapshot snapshot() {
+        GameSnapshot previous = lastSnapshot;
 
-    public ExplosionCell getExplosionCell(int x, int y) {
-        if (grid.getCell(x, y) != Grid.CellType.EXPLOSION) return null;
+        GameSnapshot.PlayerState[] playerStates = new GameSnapshot.PlayerState[players.size()];
+        boolean samePlayers = previous != null;
+        for (int i = 0; i < playerStates.length; i++) {
+            GameSnapshot.PlayerState before = previous != null ? previous.players[i] : null;
+            playerStates[i] = GameSnapshot.PlayerState.of(players.get(i), before);
+            samePlayers &= playerStates[i] == before;
+        }
+        if (samePlayers) playerStates = previous.players;
 
-        // Est-ce un centre d'explosion actuellement visible ?
-        for (ExplosionCenter ec : explosionCenters) {
-            if (ec.x == x && ec.y == y) {
-                boolean stillAlive = false;
-                for (Explosion exp : explosions) {
-                    if (exp.x == x && exp.y == y && exp.ticksRemaining > 0) {
-                        stillAlive = true;
-                        break;
-                    }
-                }
-                if (stillAlive) return new ExplosionCell(ExplosionPartType.CENTRE, null);
+        GameSnapshot.BombState[] bombStates;
+        if (previous != null && snapshotBombsVersion == bombsVersion) {
+            bombStates = previous.bombs;
+        } else {
+            bombStates = new GameSnapshot.BombState[bombs.size()];
+            for (int i = 0; i < bombStates.length; i++) {
+                Bomb b = bombs.get(i);
+                bombStates[i] = new GameSnapshot.BombState(b.getX(), b.getY(), b.getRange(), b.getDetonationTick(), players.indexOf(b.getOwner()));
             }
         }
 
-        // Est-ce une branche reliée à un centre dans une des 4 directions ?
-        for (int d = 0; d < 4; d++) {
-            int dx = 0, dy = 0;
-            Direction dir = null;
-            switch (d) {
-                case 0 -> { dx = 1; dir = Direction.RIGHT; }
-                case 1 -> { dx = -1; dir = Direction.LEFT; }
-                case 2 -> { dy = 1; dir = Direction.DOWN; }
-                case 3 -> { dy = -1; dir = Direction.UP; }
-            }
-            // On remonte jusqu'à trouver un centre, en s'arrêtant si mur ou case vide
-            int cx = x;
-            int cy = y;
-            boolean foundCenter = false;
-            int steps = 0;
-            while (true) {
-                cx -= dx;
-                cy -= dy;
-                steps++;
-                if (!grid.isInBounds(cx, cy)) break;
-                if (grid.getCell(cx, cy) != Grid.CellType.EXPLOSION) break;
-                // Est-ce un centre actif ?
-                for (ExplosionCenter ec : explosionCenters) {
-                    if (ec.x == cx && ec.y == cy) {
-                        boolean stillAlive = false;
-                        for (Explosion exp : explosions) {
-                            if (exp.x == cx && exp.y == cy && exp.ticksRemaining > 0) {
-                                stillAlive = true;
-                                break;
-                            }
-                        }
-                        if (stillAlive) {
-                            foundCenter = true;
-                            break;
-                        }
-                    }
-                }
-                if (foundCenter) break;
+        GameSnapshot.BonusState[] bonusStates;
+        if (previous != null && snapshotBonusesVersion == bonusesVersion) {
+            bonusStates = previous.bonuses;
+        } else {
+            bonusStates = new GameSnapshot.BonusState[bonuses.size()];
+            for (int i = 0; i < bonusStates.length; i++) bonusStates[i] = GameSnapshot.BonusState.of(bonuses.get(i));
+        }
+
+        int[] explosions;
+        if (previous != null && snapshotExplosionsVersion == explosionsVersion) {
+            explosions = previous.explosions;
+        } else {
+            int count = 0;
+            for (int until : explosionUntil) if (until >= 0) count++;
+            explosions = new int[count * 3];
+            for (int cell = 0, k = 0; cell < explosionUntil.length; cell++) {
+                if (explosionUntil[cell] < 0) continue;
+                explosions[k++] = cell;
+                explosions[k++] = explosionUntil[cell];
+                explosions[k++] = GameSnapshot.encodeExplosion(explosionOverlay[cell]);
             }
-            if (foundCenter) {
-                // On est bien dans une branche venant d'un centre, dans la direction d
-                // Vérifie si c'est une fin : la suivante dans la même direction N'EST PAS explosion
-                int nx = x + dx;
-                int ny = y + dy;
-                boolean isEnd = (!grid.isInBounds(nx, ny) || grid.getCell(nx, ny) != Grid.CellType.EXPLOSION);
-                if (isEnd) {
-                    return new ExplosionCell(ExplosionPartType.END, dir);
-                } else {
-                    return new ExplosionCell(ExplosionPartType.BRANCH, dir);
-                }
+        }
+
+        lastSnapshot = new GameSnapshot(getCurrentTick(), grid.getWidth(), grid.getHeight(), grid.shareCells(),
+                playerStates, bombStates, bonusStates, explosions, bonusRandom.getState(), gameOver, players.indexOf(winner));
+        snapshotBombsVersion = bombsVersion;
+        snapshotBonusesVersion = bonusesVersion;
+        snapshotExplosionsVersion = explosionsVersion;
+        return lastSnapshot;
+    }
+
+    /**
+     * Remet la partie dans l'état d'un instantané (de cette partie, ou d'une partie créée avec les mêmes paramètres).
+     * Les bombes et bonus sont recréés ; l'ordonnanceur, l'index d'occupation et la carte de danger sont reconstruits.
+     * Seules les cases qui changent sont signalées à redessiner. La recherche des IA EXPERT repart de l'instantané,
+     * comme à la fin du tick où il a été pris : la suite de la partie est la même qu'à l'origine.
+     * @throws IllegalArgumentException si la taille de la grille ou le nombre de joueurs diffère
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.width != grid.getWidth() || snapshot.height != grid.getHeight() || snapshot.players.length != players.size()) {
+            throw new IllegalArgumentException("Instantané " + snapshot.width + "x" + snapshot.height + " (" + snapshot.players.length
+                    + " joueurs) incompatible avec la partie " + grid.getWidth() + "x" + grid.getHeight() + " (" + players.size() + " joueurs)");
+        }
+        grid.restoreShared(snapshot.cells);
+        occupancy.clear();
+        scheduler.reset(snapshot.tick);
+        pendingDetonations.clear();
+        detonatedThisTick.clear();
+        Arrays.fill(aiIntents, null);
+        Arrays.fill(forcedIntents, null);
+        if (planners != null) {
+            for (ExpertPlanner planner : planners) planner.cancel();
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            GameSnapshot.PlayerState state = snapshot.players[i];
+            Player p = players.get(i);
+            p.restoreState(state.x, state.y, state.alive, state.lives, state.bombRange, state.maxBombs, Arrays.asList(state.activeBonuses));
+            if (p instanceof PlayerAI ai) {
+                // Sans mémoire dans l'instantané (joueur humain joué par une IA dans une simulation), rien ne doit rester des précédentes
+                if (state.ai != null) ai.restoreMemory(state.ai);
+                else ai.resetMemory();
             }
+            occupancy.addPlayer(i, state.x, state.y);
+        }
+
+        bombs.clear();
+        for (GameSnapshot.BombState state : snapshot.bombs) {
+            Player owner = state.owner >= 0 ? players.get(state.owner) : null;
+            Bomb bomb = new Bomb(state.x, state.y, state.detonationTick - snapshot.tick, state.range, owner);
+            occupancy.addBomb(bomb);
+            scheduler.scheduleAt(bomb, state.detonationTick);
+            bombs.add(bomb);
+        }
+        dangerMap.rebuild(bombs);
+
+        bonuses.clear();
+        for (GameSnapshot.BonusState state : snapshot.bonuses) {
+            Bonus bonus = state.toBonus();
+            bonuses.add(bonus);
+            occupancy.addBonus(bonus);
+        }
+
+        for (int cell = 0; cell < explosionUntil.length; cell++) {
+            if (explosionUntil[cell] >= 0) dirtyCells.mark(cell);
+        }
+        Arrays.fill(explosionUntil, -1);
+        Arrays.fill(explosionOverlay, null);
+        for (int k = 0; k < snapshot.explosions.length; k += 3) {
+            int cell = snapshot.explosions[k], until = snapshot.explosions[k + 1];
+            explosionUntil[cell] = until;
+            explosionOverlay[cell] = GameSnapshot.decodeExplosion(snapshot.explosions[k + 2]);
+            scheduler.scheduleExpiry(cell, until);
+            dirtyCells.mark(cell);
         }
-        // Si aucune branche détectée, branche droite (par défaut, ne devrait jamais arriver)
-        return new ExplosionCell(ExplosionPartType.BRANCH, Direction.RIGHT);
+
+        bonusRandom.setState(snapshot.bonusRandomState);
+        gameOver = snapshot.gameOver;
+        winner = snapshot.winnerIndex >= 0 ? players.get(snapshot.winnerIndex) : null;
+
+        // Les objets recréés correspondent exactement à l'instantané : le prochain pourra le réutiliser
+        lastSnapshot = snapshot;
+        snapshotBombsVersion = bombsVersion;
+        snapshotBonusesVersion = bonusesVersion;
+        snapshotExplosionsVersion = explosionsVersion;
+        startExpertSearches();
+    }
+
+    // ----------- NOUVEAU : pour affichage explosion façon Bomberman -----------
+    /**
+     * Retourne le type et la direction de la partie d'explosion pour la case (x, y), ou null si pas d'explosion.
+     * Ne retourne CENTRE que pour la case où une bombe a explosé (ou un croisement de branches).
+     * Lecture directe de la couche calculée à l'explosion : O(1), sans allocation.
+     */
+    public ExplosionCell getExplosionCell(int x, int y) {
+        if (grid.getCell(x, y) != Grid.CellType.EXPLOSION) return null;
+        ExplosionCell part = explosionOverlay[grid.index(x, y)];
+        // Par défaut (ne devrait jamais arriver) : branche droite
+        return part != null ? part : ExplosionCell.of(ExplosionPartType.BRANCH, Direction.RIGHT);
     }
     // --------------------------------------------------------------------------
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package com.bomberman.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boucle de simulation à pas fixe, indépendante de JavaFX.
+ * Fait avancer une {@link Game} tick par tick (IA puis bombes) et prévient ses abonnés.
+ *
+ * Deux façons de l'utiliser :
+ *   1) en temps réel : l'appelant (ex. un AnimationTimer) fournit le temps écoulé à {@link #advance(long)},
+ *      l'accumulateur rattrape les ticks en retard et {@link #getInterpolation()} donne la fraction
+ *      de tick écoulée pour un rendu interpolé ;
+ *   2) sans interface : {@link #runHeadless(long)} enchaîne les ticks aussi vite que possible.
+ */
+public final class GameEngine {
+    public static final int DEFAULT_TICKS_PER_SECOND = 5; // 0.2 s par tick
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+
+    /**
+     * Abonné prévenu après chaque tick de simulation.
+     */
+    public interface TickListener {
+        void onTick(Game game, long tick);
+    }
+
+    private final Game game;
+    private final List<TickListener> listeners = new ArrayList<>();
+    private int ticksPerSecond;
+    private long tickDurationNanos;
+    private int maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
+    private long accumulatorNanos = 0;
+    private long tickCount = 0;
+
+    public GameEngine(Game game) {
+        this(game, DEFAULT_TICKS_PER_SECOND);
+    }
+
+    public GameEngine(Game game, int ticksPerSecond) {
+        this.game = game;
+        setTicksPerSecond(ticksPerSecond);
+    }
+
+    public Game getGame() { return game; }
+    public long getTickCount() { return tickCount; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public long getTickDurationNanos() { return tickDurationNanos; }
+    public int getMaxCatchUpTicks() { return maxCatchUpTicks; }
+
+    public void setTicksPerSecond(int ticksPerSecond) {
+        if (ticksPerSecond <= 0) throw new IllegalArgumentException("ticksPerSecond doit être > 0 : " + ticksPerSecond);
+        this.ticksPerSecond = ticksPerSecond;
+        this.tickDurationNanos = 1_000_000_000L / ticksPerSecond;
+    }
+
+    /**
+     * Nombre maximal de ticks rattrapés par appel à {@link #advance(long)}.
+     * Au-delà, le retard est abandonné pour ne pas geler l'affichage après une longue pause.
+     */
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        this.maxCatchUpTicks = Math.max(1, maxCatchUpTicks);
+    }
+
+    public void addTickListener(TickListener listener) { listeners.add(listener); }
+    public void removeTickListener(TickListener listener) { listeners.remove(listener); }
+
+    /**
+     * Exécute un seul tick de simulation.
+     * @return false si la partie était déjà terminée (aucun tick exécuté)
+     */
+    public boolean step() {
+        if (game.isGameOver()) return false;
+        game.updateAIs();
+        game.updateBombs();
+        tickCount++;
+        for (TickListener listener : listeners) {
+            listener.onTick(game, tickCount);
+        }
+        return true;
+    }
+
+    /**
+     * Ajoute le temps écoulé à l'accumulateur et exécute autant de ticks que nécessaire.
+     * @param elapsedNanos temps réel écoulé depuis le dernier appel
+     * @return nombre de ticks exécutés
+     */
+    public int advance(long elapsedNanos) {
+        if (elapsedNanos > 0) accumulatorNanos += elapsedNanos;
+        int executed = 0;
+        while (accumulatorNanos >= tickDurationNanos && executed < maxCatchUpTicks) {
+            accumulatorNanos -= tickDurationNanos;
+            if (!step()) {
+                accumulatorNanos = 0;
+                break;
+            }
+            executed++;
+        }
+        // Trop de retard : on garde seulement la fraction de tick en cours
+        if (accumulatorNanos >= tickDurationNanos) {
+            accumulatorNanos %= tickDurationNanos;
+        }
+        return executed;
+    }
+
+    /**
+     * @return fraction (entre 0 et 1) du tick suivant déjà écoulée, pour interpoler l'affichage
+     */
+    public double getInterpolation() {
+        return (double) accumulatorNanos / tickDurationNanos;
+    }
+
+    /** Vide l'accumulateur (ex. à la reprise après une pause). */
+    public void resetClock() {
+        accumulatorNanos = 0;
+    }
+
+    /**
+     * Enchaîne les ticks sans attendre, jusqu'à la fin de la partie ou la limite donnée.
+     * @param maxTicks nombre maximal de ticks à exécuter
+     * @return nombre de ticks exécutés
+     */
+    public long runHeadless(long maxTicks) {
+        long executed = 0;
+        while (executed < maxTicks && step()) {
+            executed++;
+        }
+        return executed;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bomberman.model;
+
+/**
+ * Générateur pseudo-aléatoire d'une partie (algorithme SplitMix64), entièrement déterminé par sa graine.
+ *
+ * Chaque sous-système (génération de la grille, apparition des bonus, chaque IA) reçoit son propre générateur
+ * dérivé de la graine de la partie par {@link #forSubsystem(String)} : les tirages de l'un ne décalent pas
+ * ceux des autres, et aucun verrou n'est partagé (contrairement à Math.random()).
+ * Une partie rejouée avec la même graine et les mêmes entrées donne donc exactement le même déroulement.
+ *
+ * Non thread-safe : un générateur ne doit être utilisé que par un seul sous-système.
+ */
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long state;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /** @return une graine différente à chaque appel (parties non rejouées) */
+    public static long newSeed() {
+        return mix64(System.nanoTime() ^ Thread.currentThread().threadId() * GOLDEN_GAMMA);
+    }
+
+    /** @return graine initiale de ce générateur */
+    public long getSeed() { return seed; }
+
+    /** @return état courant (pour une sauvegarde de la partie) */
+    public long getState() { return state; }
+
+    /** Replace le générateur dans un état obtenu par {@link #getState()}. */
+    public void setState(long state) { this.state = state; }
+
+    /**
+     * Générateur indépendant pour un sous-système, dérivé de la graine et du nom seulement
+     * (le résultat ne dépend pas des tirages déjà faits ni de l'ordre de création).
+     */
+    public GameRandom forSubsystem(String name) {
+        return new GameRandom(mix64(seed ^ mix64(name.hashCode() * GOLDEN_GAMMA)));
+    }
+
+    /** @return nouveau générateur indépendant, tiré de celui-ci (fait avancer ce générateur) */
+    public GameRandom split() {
+        return new GameRandom(mix64(nextLong()));
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    /** @return entier uniforme dans [0, bound[ */
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound doit être positif : " + bound);
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /** @return réel uniforme dans [0, 1[ */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
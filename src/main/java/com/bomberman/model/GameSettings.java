@@ -9,13 +9,20 @@ import javafx.beans.property.SimpleIntegerProperty;
  */
 public class GameSettings {
     // Valeurs possibles : 0=FACILE, 1=NORMAL, 2=DIFFICILE, 3=EXPERT
-    public static final String[] AI_LEVELS = {"FACILE", "NORMAL", "DIFFICILE"};
+    public static final String[] AI_LEVELS = {"FACILE", "NORMAL", "DIFFICILE", "EXPERT"};
     private static final IntegerProperty aiLevelIndex = new SimpleIntegerProperty(0);
+    // Temps de réflexion par tick des IA EXPERT proposés (ms) ; par défaut celui de ExpertPlanner
+    public static final int[] EXPERT_BUDGETS_MILLIS = {20, 40, ExpertPlanner.DEFAULT_BUDGET_MILLIS, 100, 150};
+    private static final IntegerProperty expertBudgetIndex = new SimpleIntegerProperty(2);
 
     public static IntegerProperty aiLevelIndexProperty() { return aiLevelIndex; }
     public static int getAiLevelIndex() { return aiLevelIndex.get(); }
     public static void setAiLevelIndex(int idx) { aiLevelIndex.set(idx); }
 
+    public static IntegerProperty expertBudgetIndexProperty() { return expertBudgetIndex; }
+    /** @return temps de réflexion choisi pour les IA EXPERT, en millisecondes par tick */
+    public static int getExpertBudgetMillis() { return EXPERT_BUDGETS_MILLIS[expertBudgetIndex.get()]; }
+
     public static AIDifficulty getSelectedAIDifficulty() {
         return AIDifficulty.valueOf(AI_LEVELS[getAiLevelIndex()]);
     }
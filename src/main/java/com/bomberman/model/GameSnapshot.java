@@ -0,0 +1,294 @@
+package com.bomberman.model;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Instantané immuable d'une partie à la fin d'un tick : grille, joueurs (avec leurs bonus actifs et la mémoire des IA),
+ * bombes, bonus au sol, cases en explosion et générateur des bonus.
+ * Obtenu par {@link Game#snapshot()} et remis en place par {@link Game#restore(GameSnapshot)}
+ * (retour en arrière, déplacement dans un replay, sauvegarde d'une partie, recherche d'IA par anticipation).
+ *
+ * Conçu pour être pris à chaque tick :
+ *   - le tableau des cases est partagé avec la grille, qui ne le copie qu'à sa prochaine modification (copie sur écriture),
+ *   - les états de joueurs, et les listes de bombes, de bonus et d'explosions qui n'ont pas changé
+ *     depuis l'instantané précédent sont repris tels quels.
+ *
+ * Format binaire (write/read) :
+ *   "BMSN", version (1 octet), tick, largeur, hauteur (varint), cases (1 octet chacune),
+ *   joueurs, bombes, bonus, explosions (nombre puis champs en varint), état du générateur des bonus,
+ *   fin de partie et gagnant (indice + 1, 0 si aucun).
+ */
+public final class GameSnapshot {
+    private static final byte[] MAGIC = {'B', 'M', 'S', 'N'};
+    private static final int VERSION = 1;
+
+    final int tick;
+    final int width;
+    final int height;
+    final byte[] cells; // partagé, jamais modifié
+    final PlayerState[] players;
+    final BombState[] bombs;
+    final BonusState[] bonuses;
+    final int[] explosions; // triplets (case, tick de fin, code de la partie affichée)
+    final long bonusRandomState;
+    final boolean gameOver;
+    final int winnerIndex;
+
+    GameSnapshot(int tick, int width, int height, byte[] cells, PlayerState[] players, BombState[] bombs,
+                 BonusState[] bonuses, int[] explosions, long bonusRandomState, boolean gameOver, int winnerIndex) {
+        this.tick = tick;
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.players = players;
+        this.bombs = bombs;
+        this.bonuses = bonuses;
+        this.explosions = explosions;
+        this.bonusRandomState = bonusRandomState;
+        this.gameOver = gameOver;
+        this.winnerIndex = winnerIndex;
+    }
+
+    /** @return tick de la partie au moment de l'instantané */
+    public int getTick() { return tick; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getPlayerCount() { return players.length; }
+    public int getBombCount() { return bombs.length; }
+    public int getBonusCount() { return bonuses.length; }
+    public boolean isGameOver() { return gameOver; }
+
+    // --- États des entités ---
+
+    /** État d'un joueur ; pour une IA, avec sa mémoire d'un tick à l'autre. */
+    static final class PlayerState {
+        final int x, y;
+        final boolean alive;
+        final int lives, bombRange, maxBombs;
+        final ActiveBonus[] activeBonuses; // copies, jamais modifiées
+        final PlayerAI.Memory ai; // null pour un humain
+
+        PlayerState(int x, int y, boolean alive, int lives, int bombRange, int maxBombs,
+                    ActiveBonus[] activeBonuses, PlayerAI.Memory ai) {
+            this.x = x;
+            this.y = y;
+            this.alive = alive;
+            this.lives = lives;
+            this.bombRange = bombRange;
+            this.maxBombs = maxBombs;
+            this.activeBonuses = activeBonuses;
+            this.ai = ai;
+        }
+
+        /** @return l'état du joueur, en reprenant previous s'il est identique */
+        static PlayerState of(Player p, PlayerState previous) {
+            if (previous != null && previous.matches(p)) return previous;
+            List<ActiveBonus> active = p.getActiveBonuses();
+            ActiveBonus[] copies = new ActiveBonus[active.size()];
+            for (int i = 0; i < copies.length; i++) copies[i] = active.get(i).copy();
+            PlayerAI.Memory memory = p instanceof PlayerAI ai ? ai.saveMemory() : null;
+            return new PlayerState(p.getX(), p.getY(), p.isAlive(), p.getLives(), p.getBombRange(), p.getMaxBombs(), copies, memory);
+        }
+
+        private boolean matches(Player p) {
+            if (x != p.getX() || y != p.getY() || alive != p.isAlive() || lives != p.getLives()
+                    || bombRange != p.getBombRange() || maxBombs != p.getMaxBombs()) return false;
+            List<ActiveBonus> active = p.getActiveBonuses();
+            if (active.size() != activeBonuses.length) return false;
+            for (int i = 0; i < activeBonuses.length; i++) {
+                ActiveBonus a = activeBonuses[i], b = active.get(i);
+                if (a.getType() != b.getType() || a.getExtraValue() != b.getExtraValue()
+                        || a.getExactSecondsRemaining() != b.getExactSecondsRemaining()) return false;
+            }
+            return p instanceof PlayerAI ai ? this.ai != null && this.ai.matches(ai) : this.ai == null;
+        }
+    }
+
+    /** Bombe programmée : position, portée, tick de détonation et propriétaire (indice du joueur, -1 si aucun). */
+    static final class BombState {
+        final int x, y, range, detonationTick, owner;
+
+        BombState(int x, int y, int range, int detonationTick, int owner) {
+            this.x = x;
+            this.y = y;
+            this.range = range;
+            this.detonationTick = detonationTick;
+            this.owner = owner;
+        }
+    }
+
+    /** Bonus au sol : type (0 flamme, 1 gilet, 2 vie, comme à l'apparition), position et portée ajoutée. */
+    static final class BonusState {
+        static final int FLAME = 0, JACKET = 1, LIFE = 2;
+
+        final int kind, x, y, extraRange;
+
+        BonusState(int kind, int x, int y, int extraRange) {
+            this.kind = kind;
+            this.x = x;
+            this.y = y;
+            this.extraRange = extraRange;
+        }
+
+        static BonusState of(Bonus bonus) {
+            if (bonus instanceof FlameBonus flame) return new BonusState(FLAME, bonus.getX(), bonus.getY(), flame.getExtraRange());
+            if (bonus instanceof JacketBonus) return new BonusState(JACKET, bonus.getX(), bonus.getY(), 0);
+            return new BonusState(LIFE, bonus.getX(), bonus.getY(), 0);
+        }
+
+        Bonus toBonus() {
+            return switch (kind) {
+                case FLAME -> new FlameBonus(x, y, extraRange);
+                case JACKET -> new JacketBonus(x, y);
+                default -> new LifeBonus(x, y);
+            };
+        }
+    }
+
+    // --- Parties d'explosion : 0 pour le centre, 1 + type * 4 + direction sinon ---
+
+    static int encodeExplosion(Game.ExplosionCell part) {
+        if (part == null || part.type == Game.ExplosionPartType.CENTRE) return 0;
+        return 1 + part.type.ordinal() * 4 + part.direction.ordinal();
+    }
+
+    static Game.ExplosionCell decodeExplosion(int code) {
+        if (code == 0) return Game.ExplosionCell.CENTRE;
+        return Game.ExplosionCell.of(Game.ExplosionPartType.values()[(code - 1) / 4], Game.Direction.values()[(code - 1) % 4]);
+    }
+
+    // --- Lecture / écriture ---
+
+    public void save(Path file) throws IOException {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(os);
+        }
+    }
+
+    public static GameSnapshot load(Path file) throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(is);
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        Replay.writeVarint(out, tick);
+        Replay.writeVarint(out, width);
+        Replay.writeVarint(out, height);
+        out.write(cells);
+
+        Replay.writeVarint(out, players.length);
+        for (PlayerState p : players) {
+            Replay.writeVarint(out, p.x);
+            Replay.writeVarint(out, p.y);
+            out.writeByte((p.alive ? 1 : 0) | (p.ai != null ? 2 : 0));
+            Replay.writeVarint(out, p.lives);
+            Replay.writeVarint(out, p.bombRange);
+            Replay.writeVarint(out, p.maxBombs);
+            Replay.writeVarint(out, p.activeBonuses.length);
+            for (ActiveBonus ab : p.activeBonuses) {
+                out.writeByte(ab.getType().ordinal());
+                Replay.writeVarint(out, ab.getExtraValue());
+                out.writeDouble(ab.getExactSecondsRemaining());
+            }
+            if (p.ai != null) {
+                out.writeLong(p.ai.randomState);
+                out.writeBoolean(p.ai.mustFleeOwnBomb);
+                out.writeBoolean(p.ai.mustFleeOwnBombNormal);
+                out.writeInt(p.ai.lastBombX);
+                out.writeInt(p.ai.lastBombY);
+                out.writeInt(p.ai.lastBombTimer);
+            }
+        }
+
+        Replay.writeVarint(out, bombs.length);
+        for (BombState b : bombs) {
+            Replay.writeVarint(out, b.x);
+            Replay.writeVarint(out, b.y);
+            Replay.writeVarint(out, b.range);
+            Replay.writeVarint(out, b.detonationTick);
+            Replay.writeVarint(out, b.owner + 1);
+        }
+
+        Replay.writeVarint(out, bonuses.length);
+        for (BonusState b : bonuses) {
+            out.writeByte(b.kind);
+            Replay.writeVarint(out, b.x);
+            Replay.writeVarint(out, b.y);
+            Replay.writeVarint(out, b.extraRange);
+        }
+
+        Replay.writeVarint(out, explosions.length / 3);
+        for (int value : explosions) Replay.writeVarint(out, value);
+
+        out.writeLong(bonusRandomState);
+        out.writeBoolean(gameOver);
+        Replay.writeVarint(out, winnerIndex + 1);
+        out.flush();
+    }
+
+    public static GameSnapshot read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) throw new IOException("Sauvegarde de partie invalide");
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("Version de sauvegarde non prise en charge : " + version);
+        int tick = Replay.readVarint(in);
+        int width = Replay.readVarint(in);
+        int height = Replay.readVarint(in);
+        byte[] cells = new byte[width * height];
+        in.readFully(cells);
+        for (byte cell : cells) {
+            if (cell < 0 || cell >= Grid.CellType.values().length) throw new IOException("Case invalide : " + cell);
+        }
+
+        PlayerState[] players = new PlayerState[Replay.readVarint(in)];
+        for (int i = 0; i < players.length; i++) {
+            int x = Replay.readVarint(in);
+            int y = Replay.readVarint(in);
+            int flags = in.readUnsignedByte();
+            int lives = Replay.readVarint(in);
+            int bombRange = Replay.readVarint(in);
+            int maxBombs = Replay.readVarint(in);
+            ActiveBonus[] active = new ActiveBonus[Replay.readVarint(in)];
+            for (int j = 0; j < active.length; j++) {
+                ActiveBonus.Type type = ActiveBonus.Type.values()[in.readUnsignedByte()];
+                int extra = Replay.readVarint(in);
+                active[j] = new ActiveBonus(type, extra, in.readDouble());
+            }
+            PlayerAI.Memory memory = null;
+            if ((flags & 2) != 0) {
+                memory = new PlayerAI.Memory(in.readLong(), in.readBoolean(), in.readBoolean(), in.readInt(), in.readInt(), in.readInt());
+            }
+            players[i] = new PlayerState(x, y, (flags & 1) != 0, lives, bombRange, maxBombs, active, memory);
+        }
+
+        BombState[] bombs = new BombState[Replay.readVarint(in)];
+        for (int i = 0; i < bombs.length; i++) {
+            bombs[i] = new BombState(Replay.readVarint(in), Replay.readVarint(in), Replay.readVarint(in),
+                    Replay.readVarint(in), Replay.readVarint(in) - 1);
+        }
+
+        BonusState[] bonuses = new BonusState[Replay.readVarint(in)];
+        for (int i = 0; i < bonuses.length; i++) {
+            int kind = in.readUnsignedByte();
+            bonuses[i] = new BonusState(kind, Replay.readVarint(in), Replay.readVarint(in), Replay.readVarint(in));
+        }
+
+        int[] explosions = new int[Replay.readVarint(in) * 3];
+        for (int i = 0; i < explosions.length; i++) explosions[i] = Replay.readVarint(in);
+
+        long bonusRandomState = in.readLong();
+        boolean gameOver = in.readBoolean();
+        int winnerIndex = Replay.readVarint(in) - 1;
+        return new GameSnapshot(tick, width, height, cells, players, bombs, bonuses, explosions, bonusRandomState, gameOver, winnerIndex);
+    }
+}
@@ -9,52 +9,235 @@ public class Grid {
         EXPLOSION
     }
 
+    // Ordinaux des types de case, pour les chemins chauds qui lisent directement le tableau d'octets
+    public static final byte EMPTY_ORDINAL = (byte) CellType.EMPTY.ordinal();
+    public static final byte INDESTRUCTIBLE_ORDINAL = (byte) CellType.INDESTRUCTIBLE.ordinal();
+    public static final byte DESTRUCTIBLE_ORDINAL = (byte) CellType.DESTRUCTIBLE.ordinal();
+    public static final byte BOMB_ORDINAL = (byte) CellType.BOMB.ordinal();
+    public static final byte EXPLOSION_ORDINAL = (byte) CellType.EXPLOSION.ordinal();
+
+    private static final CellType[] CELL_TYPES = CellType.values();
+
     private final int width;
     private final int height;
-    private final CellType[][] cells;
+    // Stockage compact ligne par ligne : case (x, y) à l'indice y * width + x, valeur = ordinal du CellType
+    private byte[] cells;
+    // Tableau partagé avec un instantané de partie : copié à la première écriture (copie sur écriture)
+    private boolean shared = false;
+    // Cases à redessiner (null si personne n'affiche cette grille)
+    private DirtyCells dirtyCells;
+    // Incrémenté à chaque modification des cases (caches calculés à partir de la grille)
+    private int version = 0;
 
     public Grid(int width, int height, Level level) {
+        this(width, height, level, new GameRandom(GameRandom.newSeed()));
+    }
+
+    /**
+     * @param random générateur utilisé pour placer les murs destructibles quand le niveau ne fournit pas de layout
+     */
+    public Grid(int width, int height, Level level, GameRandom random) {
         this.width = width;
         this.height = height;
-        cells = new CellType[width][height];
+        // Niveau à plat en mémoire (éditeur) à la taille de la grille : son tableau est repris sans copie,
+        // et ne sera copié qu'à la première modification de la grille
+        byte[] levelCells = level != null ? level.sharedCells(width, height) : null;
+        if (levelCells != null) {
+            cells = levelCells;
+            shared = true;
+            return;
+        }
+        cells = new byte[width * height];
+        // Niveau d'archive à la taille de la grille : copie directe des cases, sans passer par le layout
+        if (level != null && level.copyPackedCells(cells, width, height)) return;
 
         int[][] layout = level != null ? level.getLayout() : null; // <-- Ici
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
+                CellType type;
                 if (layout != null && y < layout.length && x < layout[0].length) {
                     switch (layout[y][x]) {
-                        case 1 -> cells[x][y] = CellType.INDESTRUCTIBLE;
-                        case 2 -> cells[x][y] = CellType.DESTRUCTIBLE;
-                        default -> cells[x][y] = CellType.EMPTY;
+                        case 1 -> type = CellType.INDESTRUCTIBLE;
+                        case 2 -> type = CellType.DESTRUCTIBLE;
+                        default -> type = CellType.EMPTY;
                     }
                 } else {
                     if (x == 0 || y == 0 || x == width - 1 || y == height - 1) {
-                        cells[x][y] = CellType.INDESTRUCTIBLE;
+                        type = CellType.INDESTRUCTIBLE;
                     } else if (x % 2 == 0 && y % 2 == 0) {
-                        cells[x][y] = CellType.INDESTRUCTIBLE;
-                    } else if (Math.random() < 0.2) {
-                        cells[x][y] = CellType.DESTRUCTIBLE;
+                        type = CellType.INDESTRUCTIBLE;
+                    } else if (random.nextDouble() < 0.2) {
+                        type = CellType.DESTRUCTIBLE;
                     } else {
-                        cells[x][y] = CellType.EMPTY;
+                        type = CellType.EMPTY;
                     }
                 }
+                cells[y * width + x] = (byte) type.ordinal();
             }
         }
     }
 
+    /**
+     * Crée une grille à partir d'un tableau d'ordinaux déjà rempli (copié, la grille garde son propre tableau).
+     * @param cells ordinaux des cases, ligne par ligne, de taille width * height
+     */
+    public Grid(int width, int height, byte[] cells) {
+        if (cells.length != width * height) {
+            throw new IllegalArgumentException("Taille de grille incohérente : " + cells.length + " != " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.cells = cells.clone();
+    }
+
+    /**
+     * Rattache le suivi des cases à redessiner : chaque changement de case y sera signalé.
+     */
+    void setDirtyCells(DirtyCells dirtyCells) {
+        this.dirtyCells = dirtyCells;
+    }
+
     public int getWidth() { return width; }
     public int getHeight() { return height; }
 
+    /** @return compteur de modifications : deux lectures égales garantissent que les cases n'ont pas changé */
+    public int getVersion() { return version; }
+
     public CellType getCell(int x, int y) {
-        if (isInBounds(x, y)) return cells[x][y];
+        if (isInBounds(x, y)) return CELL_TYPES[cells[y * width + x]];
         return null;
     }
 
     public void setCell(int x, int y, CellType cellType) {
-        if (isInBounds(x, y)) cells[x][y] = cellType;
+        if (isInBounds(x, y)) setCellUnchecked(x, y, cellType);
     }
 
     public boolean isInBounds(int x, int y) {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
-}
\ No newline at end of file
+
+    /** @return true si la case n'est pas sur le bord (ses 4 voisines sont dans la grille) */
+    public boolean isInterior(int x, int y) {
+        return x > 0 && x < width - 1 && y > 0 && y < height - 1;
+    }
+
+    // --- Accès par indice / ordinal ---
+
+    /** @return indice de la case (x, y) dans le tableau ligne par ligne (sans vérification) */
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /** @return ordinal du type de la case, ou -1 si hors de la grille */
+    public int getCellOrdinal(int x, int y) {
+        if (isInBounds(x, y)) return cells[y * width + x];
+        return -1;
+    }
+
+    /** Version sans vérification de bornes : l'appelant garantit que (x, y) est dans la grille. */
+    public int getOrdinalUnchecked(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    /** Version sans vérification de bornes, par indice. */
+    public int getOrdinalAt(int index) {
+        return cells[index];
+    }
+
+    /** Version sans vérification de bornes : l'appelant garantit que (x, y) est dans la grille. */
+    public CellType getCellUnchecked(int x, int y) {
+        return CELL_TYPES[cells[y * width + x]];
+    }
+
+    /** Version sans vérification de bornes : l'appelant garantit que (x, y) est dans la grille. */
+    public void setCellUnchecked(int x, int y, CellType cellType) {
+        int cell = y * width + x;
+        byte ordinal = (byte) cellType.ordinal();
+        if (cells[cell] == ordinal) return;
+        ensureWritable();
+        cells[cell] = ordinal;
+        version++;
+        if (dirtyCells != null) dirtyCells.mark(cell);
+    }
+
+    /** @return le type correspondant à un ordinal lu dans la grille */
+    public static CellType typeOf(int ordinal) {
+        return CELL_TYPES[ordinal];
+    }
+
+    // --- Copies en bloc ---
+
+    /**
+     * Copie la ligne y (width ordinaux) dans dest à partir de destOffset.
+     */
+    public void copyRow(int y, byte[] dest, int destOffset) {
+        System.arraycopy(cells, y * width, dest, destOffset, width);
+    }
+
+    /**
+     * Remplace la ligne y par les width ordinaux lus dans src à partir de srcOffset.
+     */
+    public void setRow(int y, byte[] src, int srcOffset) {
+        ensureWritable();
+        System.arraycopy(src, srcOffset, cells, y * width, width);
+        version++;
+        if (dirtyCells != null) {
+            for (int x = 0; x < width; x++) dirtyCells.mark(y * width + x);
+        }
+    }
+
+    /** @return copie de toutes les cases (ordinaux, ligne par ligne) */
+    public byte[] snapshot() {
+        return cells.clone();
+    }
+
+    /**
+     * Restaure toutes les cases depuis une copie obtenue par {@link #snapshot()}.
+     */
+    public void restore(byte[] snapshot) {
+        if (snapshot.length != cells.length) {
+            throw new IllegalArgumentException("Snapshot de taille " + snapshot.length + " pour une grille de " + cells.length + " cases");
+        }
+        ensureWritable();
+        System.arraycopy(snapshot, 0, cells, 0, cells.length);
+        version++;
+        if (dirtyCells != null) dirtyCells.markAll();
+    }
+
+    // --- Partage avec les instantanés de partie (copie sur écriture) ---
+
+    /**
+     * @return le tableau des cases lui-même, sans copie : la grille le copiera avant sa prochaine modification.
+     * L'appelant ne doit jamais écrire dedans.
+     */
+    byte[] shareCells() {
+        shared = true;
+        return cells;
+    }
+
+    /**
+     * Reprend un tableau obtenu par {@link #shareCells()} (sans copie, il reste partagé).
+     * Seules les cases qui diffèrent sont signalées à redessiner.
+     */
+    void restoreShared(byte[] sharedCells) {
+        if (sharedCells.length != cells.length) {
+            throw new IllegalArgumentException("Snapshot de taille " + sharedCells.length + " pour une grille de " + cells.length + " cases");
+        }
+        if (sharedCells == cells) return;
+        if (dirtyCells != null) {
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] != sharedCells[i]) dirtyCells.mark(i);
+            }
+        }
+        cells = sharedCells;
+        shared = true;
+        version++;
+    }
+
+    private void ensureWritable() {
+        if (shared) {
+            cells = cells.clone();
+            shared = false;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.bomberman.model;
 
 public class JacketBonus extends Bonus {
+    public static final String SPRITE = "/images/items/jacket_bonus.png";
     private final double durationSeconds = 20.0;
 
     public JacketBonus(int x, int y) {
-        super(x, y, "/images/items/jacket_bonus.png"); // mets ici ton image
+        super(x, y, SPRITE); // mets ici ton image
     }
 
     @Override
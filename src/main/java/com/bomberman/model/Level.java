@@ -1,15 +1,26 @@
 package com.bomberman.model;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 public class Level {
     private final String name;
     private final String groundImagePath;
     private final String wallIndestructibleImagePath;
     private final String wallDestructibleImagePath;
-    private final int[][] layout; // 0: sol, 1: mur indestructible, 2: destructible
+    // 0: sol, 1: mur indestructible, 2: destructible, 3 à 5 : marqueurs (voir LevelEditor.CellType), posés sur du sol
+    private volatile int[][] layout;
+    // Niveau à plat (archive LevelPack ou éditeur) : cases en ordinaux de Grid, ligne par ligne,
+    // dans la projection mémoire de l'archive ou dans un tableau (alors repris sans copie par la grille)
+    private final ByteBuffer packedCells;
+    private final int packedWidth, packedHeight;
+    // Marqueurs d'un niveau à plat (0 = aucun), null s'il n'y en a pas
+    private final byte[] markers;
 
     public Level(String name, String groundImagePath, String wallIndestructibleImagePath, String wallDestructibleImagePath, int[][] layout) {
         this.name = name;
@@ -17,38 +28,241 @@ public class Level {
         this.wallIndestructibleImagePath = normalizeResourcePath(wallIndestructibleImagePath);
         this.wallDestructibleImagePath = normalizeResourcePath(wallDestructibleImagePath);
         this.layout = layout;
+        this.packedCells = null;
+        this.packedWidth = 0;
+        this.packedHeight = 0;
+        this.markers = null;
+    }
+
+    /**
+     * Niveau à plat, un octet par case ; les tableaux sont repris sans copie et ne doivent plus être modifiés.
+     * @param cells ordinaux de {@link Grid.CellType} (sol et murs), ligne par ligne
+     * @param markers codes des marqueurs ({@link LevelEditor.CellType}, 0 = aucun), ou null
+     */
+    public Level(String name, String groundImagePath, String wallIndestructibleImagePath, String wallDestructibleImagePath,
+                 int width, int height, byte[] cells, byte[] markers) {
+        if (cells.length != width * height || (markers != null && markers.length != cells.length)) {
+            throw new IllegalArgumentException("Taille de niveau incohérente : " + cells.length + " != " + width + "x" + height);
+        }
+        this.name = name;
+        this.groundImagePath = normalizeResourcePath(groundImagePath);
+        this.wallIndestructibleImagePath = normalizeResourcePath(wallIndestructibleImagePath);
+        this.wallDestructibleImagePath = normalizeResourcePath(wallDestructibleImagePath);
+        this.packedCells = ByteBuffer.wrap(cells);
+        this.packedWidth = width;
+        this.packedHeight = height;
+        this.markers = markers;
+    }
+
+    /**
+     * Niveau adossé aux cases d'une archive (voir {@link LevelPack}) : le tableau layout n'est construit
+     * que si on le demande, une grille de même taille copie les cases directement depuis l'archive.
+     * @param markers codes des marqueurs, une case par octet (0 = aucun), ou null
+     */
+    Level(Header header, ByteBuffer packedCells, byte[] markers) {
+        this.name = header.name;
+        this.groundImagePath = header.groundImagePath;
+        this.wallIndestructibleImagePath = header.wallIndestructibleImagePath;
+        this.wallDestructibleImagePath = header.wallDestructibleImagePath;
+        this.packedCells = packedCells;
+        this.packedWidth = header.width;
+        this.packedHeight = header.height;
+        this.markers = markers;
     }
 
     public String getName() { return name; }
     public String getGroundImagePath() { return groundImagePath; }
     public String getWallIndestructibleImagePath() { return wallIndestructibleImagePath; }
     public String getWallDestructibleImagePath() { return wallDestructibleImagePath; }
-    public int[][] getLayout() { return layout; }
+
+    public int[][] getLayout() {
+        int[][] result = layout;
+        if (result == null && packedCells != null && packedHeight > 0) {
+            result = new int[packedHeight][packedWidth];
+            for (int r = 0; r < packedHeight; r++) {
+                for (int c = 0; c < packedWidth; c++) {
+                    int i = r * packedWidth + c;
+                    int marker = markers != null ? markers[i] : 0;
+                    result[r][c] = marker != 0 ? marker : packedCells.get(i);
+                }
+            }
+            layout = result;
+        }
+        return result;
+    }
+
+    /** @return nombre de colonnes du layout (0 si le niveau n'en a pas) */
+    public int getWidth() {
+        if (packedCells != null) return packedWidth;
+        int[][] l = layout;
+        return l == null || l.length == 0 ? 0 : l[0].length;
+    }
+
+    /** @return nombre de lignes du layout (0 si le niveau n'en a pas) */
+    public int getHeight() {
+        if (packedCells != null) return packedHeight;
+        int[][] l = layout;
+        return l == null ? 0 : l.length;
+    }
+
+    /**
+     * Cases portant un marqueur donné (apparition de joueur, d'IA, bonus), dans l'ordre de lecture.
+     * @return indices y * {@link #getWidth()} + x, tableau vide s'il n'y en a aucune
+     */
+    public int[] findMarkers(LevelEditor.CellType type) {
+        int code = type.ordinal();
+        int width = getWidth(), height = getHeight();
+        int[] found = new int[8];
+        int count = 0;
+        if (packedCells != null) {
+            if (markers == null) return new int[0];
+            for (int i = 0; i < markers.length; i++) {
+                if (markers[i] != code) continue;
+                if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                found[count++] = i;
+            }
+        } else {
+            int[][] l = layout;
+            for (int r = 0; r < height; r++) {
+                for (int c = 0; c < width && c < l[r].length; c++) {
+                    if (l[r][c] != code) continue;
+                    if (count == found.length) found = Arrays.copyOf(found, count * 2);
+                    found[count++] = r * width + c;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Copie en bloc les cases d'un niveau à plat dans le tableau d'une grille de même taille.
+     * @return false si le niveau n'est pas à plat ou n'a pas la taille de la grille (rien n'est copié)
+     */
+    boolean copyPackedCells(byte[] dest, int width, int height) {
+        if (packedCells == null || packedWidth != width || packedHeight != height) return false;
+        packedCells.get(0, dest, 0, width * height);
+        return true;
+    }
+
+    /**
+     * @return le tableau des cases lui-même, si le niveau est à plat en mémoire et a la taille de la grille,
+     *         sinon null. Personne ne doit écrire dedans (la grille le copie avant sa première modification).
+     */
+    byte[] sharedCells(int width, int height) {
+        if (packedCells == null || !packedCells.hasArray() || packedCells.arrayOffset() != 0
+                || packedWidth != width || packedHeight != height) {
+            return null;
+        }
+        byte[] array = packedCells.array();
+        return array.length == width * height ? array : null;
+    }
 
     // --- Chargement depuis un fichier .level ---
+    /**
+     * Charge un niveau au format texte ou binaire (reconnu à ses octets magiques).
+     * Format texte : lecture en flux, l'en-tête ligne par ligne, puis chaque ligne du layout convertie
+     * directement en ligne d'entiers (sans charger tout le fichier en mémoire ni copier les lignes pour les rogner).
+     */
     public static Level fromFile(Path file) throws IOException {
-        List<String> lines = Files.readAllLines(file);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            if (isBinary(in)) return readBinary(in);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            Header header = readHeader(reader);
+            List<int[]> rows = new ArrayList<>();
+            int cols = -1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int start = firstNonBlank(line), end = lastNonBlank(line);
+                if (start >= end) continue; // lignes vides (fin de fichier)
+                if (cols < 0) cols = end - start;
+                if (end - start < cols) throw new IOException("Ligne de layout trop courte : " + (rows.size() + 1));
+                int[] row = new int[cols];
+                for (int c = 0; c < cols; c++) {
+                    row[c] = line.charAt(start + c) - '0';
+                }
+                rows.add(row);
+            }
+            return new Level(header.name, header.groundImagePath, header.wallIndestructibleImagePath,
+                    header.wallDestructibleImagePath, rows.toArray(new int[0][]));
+        }
+    }
+
+    /**
+     * En-tête d'un fichier .level (nom, images, dimensions du layout), lu sans construire le layout.
+     */
+    public static final class Header {
+        private final String name;
+        private final String groundImagePath;
+        private final String wallIndestructibleImagePath;
+        private final String wallDestructibleImagePath;
+        private int width, height;
+
+        public Header(String name, String groundImagePath, String wallIndestructibleImagePath, String wallDestructibleImagePath, int width, int height) {
+            this.name = name;
+            this.groundImagePath = normalizeResourcePath(groundImagePath);
+            this.wallIndestructibleImagePath = normalizeResourcePath(wallIndestructibleImagePath);
+            this.wallDestructibleImagePath = normalizeResourcePath(wallDestructibleImagePath);
+            this.width = width;
+            this.height = height;
+        }
+
+        public String getName() { return name; }
+        public String getGroundImagePath() { return groundImagePath; }
+        public String getWallIndestructibleImagePath() { return wallIndestructibleImagePath; }
+        public String getWallDestructibleImagePath() { return wallDestructibleImagePath; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+    }
+
+    /**
+     * Lit seulement l'en-tête d'un fichier .level (texte ou binaire) : les lignes du layout sont comptées,
+     * pas converties, et les cases d'un fichier binaire ne sont pas lues du tout.
+     */
+    public static Header readHeader(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            if (isBinary(in)) {
+                DataInputStream data = new DataInputStream(in);
+                readBinaryPrologue(data);
+                return readBinaryHeader(data);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            Header header = readHeader(reader);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int length = lastNonBlank(line) - firstNonBlank(line);
+                if (length <= 0) continue;
+                if (header.height == 0) header.width = length;
+                header.height++;
+            }
+            return header;
+        }
+    }
+
+    // Lit les lignes d'en-tête jusqu'à "layout:" (le lecteur est alors placé sur la première ligne du layout)
+    private static Header readHeader(BufferedReader reader) throws IOException {
         String name = "", ground = "", ind = "", des = "";
-        int layoutStart = -1;
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
             if (line.startsWith("name:")) name = line.substring(5).trim();
             else if (line.startsWith("groundImage:")) ground = line.substring(12).trim();
             else if (line.startsWith("wallIndestructibleImage:")) ind = line.substring(25).trim();
             else if (line.startsWith("wallDestructibleImage:")) des = line.substring(22).trim();
-            else if (line.startsWith("layout:")) { layoutStart = i + 1; break; }
-        }
-        if (layoutStart < 0) throw new IOException("Fichier de niveau invalide (pas de layout)");
-        int rows = lines.size() - layoutStart;
-        int cols = lines.get(layoutStart).trim().length();
-        int[][] layout = new int[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            String l = lines.get(layoutStart + r).trim();
-            for (int c = 0; c < cols; c++) {
-                layout[r][c] = l.charAt(c) - '0';
-            }
+            else if (line.startsWith("layout:")) return new Header(name, ground, ind, des, 0, 0);
         }
-        return new Level(name, ground, ind, des, layout);
+        throw new IOException("Fichier de niveau invalide (pas de layout)");
+    }
+
+    private static int firstNonBlank(String line) {
+        int i = 0;
+        while (i < line.length() && line.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int lastNonBlank(String line) {
+        int i = line.length();
+        while (i > 0 && line.charAt(i - 1) <= ' ') i--;
+        return i;
     }
 
     // --- Sauvegarde dans un fichier .level ---
@@ -59,13 +273,151 @@ public class Level {
             w.write("wallIndestructibleImage: " + wallIndestructibleImagePath + "\n");
             w.write("wallDestructibleImage: " + wallDestructibleImagePath + "\n");
             w.write("layout:\n");
-            for (int[] row : layout) {
+            for (int[] row : getLayout()) {
                 for (int cell : row) w.write(Integer.toString(cell));
                 w.write("\n");
             }
         }
     }
 
+    // --- Format binaire ---
+    /*
+     * Fichier .level binaire, lu et écrit en flux :
+     *   "BMLV", version (1 octet), options (1 octet : bit 0 = cases compressées par Deflate),
+     *   nom et 3 images (UTF), colonnes et lignes (varint),
+     *   puis les cases, 2 bits par case (4 cases par octet, la première dans les bits de poids faible),
+     *   chaque ligne commençant sur un nouvel octet (un marqueur y est écrit comme du sol) ;
+     *   si l'option bit 1 est présente, suivent les marqueurs : leur nombre, puis pour chacun l'écart
+     *   d'indice depuis le précédent (varint) et son code (1 octet).
+     * L'en-tête n'est jamais compressé : il se lit sans décompresser les cases.
+     */
+    private static final byte[] BINARY_MAGIC = {'B', 'M', 'L', 'V'};
+    private static final int BINARY_VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int FLAG_MARKERS = 2;
+
+    /** Sauvegarde au format binaire (cases compressées par Deflate si demandé). */
+    public void saveBinary(Path file, boolean deflate) throws IOException {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+            writeBinary(os, deflate);
+        }
+    }
+
+    public void writeBinary(OutputStream os, boolean deflate) throws IOException {
+        int[][] layout = getLayout();
+        int rows = layout == null ? 0 : layout.length;
+        int cols = rows == 0 ? 0 : layout[0].length;
+        int markerCount = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols && c < layout[r].length; c++) if (layout[r][c] > 2) markerCount++;
+        }
+        DataOutputStream out = new DataOutputStream(os);
+        out.write(BINARY_MAGIC);
+        out.writeByte(BINARY_VERSION);
+        out.writeByte((deflate ? FLAG_DEFLATE : 0) | (markerCount > 0 ? FLAG_MARKERS : 0));
+        out.writeUTF(name == null ? "" : name);
+        out.writeUTF(groundImagePath == null ? "" : groundImagePath);
+        out.writeUTF(wallIndestructibleImagePath == null ? "" : wallIndestructibleImagePath);
+        out.writeUTF(wallDestructibleImagePath == null ? "" : wallDestructibleImagePath);
+        Replay.writeVarint(out, cols);
+        Replay.writeVarint(out, rows);
+        out.flush();
+
+        DeflaterOutputStream deflater = deflate ? new DeflaterOutputStream(os) : null;
+        OutputStream cells = deflate ? deflater : os;
+        byte[] packed = new byte[(cols + 3) / 4];
+        for (int r = 0; r < rows; r++) {
+            Arrays.fill(packed, (byte) 0);
+            for (int c = 0; c < cols; c++) {
+                int cell = c < layout[r].length ? layout[r][c] : 0;
+                if (cell < 0 || cell >= LevelEditor.CellType.values().length) {
+                    throw new IOException("Case de layout non représentable en binaire : " + cell);
+                }
+                if (cell > 2) cell = 0; // marqueur : sol, le marqueur suit les cases
+                packed[c >> 2] |= (byte) (cell << ((c & 3) << 1));
+            }
+            cells.write(packed);
+        }
+        if (markerCount > 0) {
+            DataOutputStream markerOut = new DataOutputStream(cells);
+            Replay.writeVarint(markerOut, markerCount);
+            int previous = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols && c < layout[r].length; c++) {
+                    if (layout[r][c] <= 2) continue;
+                    int index = r * cols + c;
+                    Replay.writeVarint(markerOut, index - previous);
+                    markerOut.writeByte(layout[r][c]);
+                    previous = index;
+                }
+            }
+            markerOut.flush();
+        }
+        if (deflater != null) deflater.finish();
+        os.flush();
+    }
+
+    /** Lit un niveau binaire (octets magiques compris). */
+    public static Level readBinary(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        int flags = readBinaryPrologue(in);
+        boolean deflate = (flags & FLAG_DEFLATE) != 0;
+        Header header = readBinaryHeader(in);
+        int cols = header.width, rows = header.height;
+
+        DataInputStream cells = deflate ? new DataInputStream(new InflaterInputStream(in)) : in;
+        byte[] packed = new byte[(cols + 3) / 4];
+        int[][] grid = new int[rows][];
+        for (int r = 0; r < rows; r++) {
+            cells.readFully(packed);
+            int[] row = new int[cols];
+            for (int c = 0; c < cols; c++) {
+                row[c] = (packed[c >> 2] >> ((c & 3) << 1)) & 3;
+            }
+            grid[r] = row;
+        }
+        if ((flags & FLAG_MARKERS) != 0) {
+            int count = Replay.readVarint(cells);
+            int index = 0;
+            for (int i = 0; i < count; i++) {
+                index += Replay.readVarint(cells);
+                int code = cells.readUnsignedByte();
+                if (cols == 0 || index >= rows * cols) throw new IOException("Marqueur hors du niveau : " + index);
+                grid[index / cols][index % cols] = code;
+            }
+        }
+        return new Level(header.name, header.groundImagePath, header.wallIndestructibleImagePath,
+                header.wallDestructibleImagePath, rows == 0 ? null : grid);
+    }
+
+    /** @return true si le flux (avec mark) commence par les octets magiques du format binaire ; le flux n'avance pas */
+    private static boolean isBinary(InputStream in) throws IOException {
+        in.mark(BINARY_MAGIC.length);
+        byte[] magic = in.readNBytes(BINARY_MAGIC.length);
+        in.reset();
+        return Arrays.equals(magic, BINARY_MAGIC);
+    }
+
+    // Octets magiques, version et options ; renvoie les options (FLAG_DEFLATE, FLAG_MARKERS)
+    private static int readBinaryPrologue(DataInputStream in) throws IOException {
+        byte[] magic = new byte[BINARY_MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, BINARY_MAGIC)) throw new IOException("Fichier de niveau binaire invalide");
+        int version = in.readUnsignedByte();
+        if (version != BINARY_VERSION) throw new IOException("Version de niveau non prise en charge : " + version);
+        return in.readUnsignedByte();
+    }
+
+    private static Header readBinaryHeader(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String ground = in.readUTF();
+        String ind = in.readUTF();
+        String des = in.readUTF();
+        int cols = Replay.readVarint(in);
+        int rows = Replay.readVarint(in);
+        return new Header(name, ground, ind, des, cols, rows);
+    }
+
     // --- Liste tous les niveaux d'un dossier ---
     public static List<Level> loadLevelsFromDirectory(Path dir) throws IOException {
         List<Level> levels = new ArrayList<>();
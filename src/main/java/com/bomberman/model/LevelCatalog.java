@@ -0,0 +1,292 @@
+package com.bomberman.model;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Catalogue des niveaux (prédéfinis et personnalisés), parcouru en arrière-plan.
+ *
+ * Seuls les en-têtes (nom, images, dimensions) sont lus au parcours, en parallèle ; ils sont gardés
+ * dans un fichier d'index indexé par chemin, date de modification et taille, si bien qu'à l'ouverture
+ * suivante seuls les fichiers nouveaux ou modifiés sont relus. Le layout d'un niveau n'est lu
+ * qu'au moment où on en a besoin (aperçu, lancement de la partie), puis gardé en mémoire.
+ *
+ * Les archives {@link LevelPack} (.bmpack) des mêmes dossiers sont ouvertes par projection mémoire :
+ * chacun de leurs niveaux devient une entrée du catalogue, lue directement dans l'archive
+ * (elles ne passent pas par le fichier d'index, leur table des matières en tient lieu).
+ */
+public class LevelCatalog {
+    public static final Path PREDEFINED_DIR = Path.of("src/main/resources/levels/predefined");
+    public static final Path CUSTOM_DIR = Path.of("src/main/resources/levels/custom");
+    private static final String INDEX_FILE = "levels.index";
+
+    private static final ExecutorService POOL = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bomberman-levels");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static LevelCatalog instance;
+
+    /**
+     * Niveau du catalogue : en-tête toujours disponible, layout chargé à la demande.
+     */
+    public static final class Entry {
+        private final Path path;
+        private final long lastModified;
+        private final long size;
+        private volatile Level.Header header;
+        private volatile Level level;
+        // Niveau d'archive : archive et indice dans celle-ci (null pour un fichier .level)
+        private final LevelPack pack;
+        private final int packIndex;
+
+        Entry(Path path, long lastModified, long size, Level.Header header) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.header = header;
+            this.pack = null;
+            this.packIndex = -1;
+        }
+
+        Entry(LevelPack pack, int packIndex) {
+            this.path = pack.getFile();
+            this.lastModified = 0;
+            this.size = 0;
+            this.pack = pack;
+            this.packIndex = packIndex;
+        }
+
+        public Path getPath() { return path; }
+        public String getName() { return getHeader().getName(); }
+
+        /** En-tête du niveau (lu dans la table des matières au premier appel pour un niveau d'archive). */
+        public Level.Header getHeader() {
+            Level.Header result = header;
+            if (result == null) {
+                result = pack.getHeader(packIndex);
+                header = result;
+            }
+            return result;
+        }
+
+        /** @return true si {@link #getLevel()} ne lira pas de fichier (layout en mémoire ou niveau d'archive) */
+        public boolean isLoaded() { return level != null || pack != null; }
+
+        /** Niveau complet, lu au premier appel puis gardé en mémoire. */
+        public Level getLevel() throws IOException {
+            Level loaded = level;
+            if (loaded == null) {
+                loaded = pack != null ? pack.getLevel(packIndex) : Level.fromFile(path);
+                level = loaded;
+            }
+            return loaded;
+        }
+
+        private boolean matches(long lastModified, long size) {
+            return this.lastModified == lastModified && this.size == size;
+        }
+    }
+
+    // Archive ouverte, avec la date et la taille du fichier au moment de l'ouverture
+    private static final class OpenPack {
+        final LevelPack pack;
+        final long lastModified;
+        final long size;
+        final List<Entry> entries;
+
+        OpenPack(LevelPack pack, long lastModified, long size) {
+            this.pack = pack;
+            this.lastModified = lastModified;
+            this.size = size;
+            List<Entry> list = new ArrayList<>(pack.size());
+            for (int i = 0; i < pack.size(); i++) list.add(new Entry(pack, i));
+            this.entries = List.copyOf(list);
+        }
+    }
+
+    private final List<Path> directories;
+    private final Path indexFile;
+    // Entrées connues (index puis parcours), par chemin absolu
+    private final Map<String, Entry> known = new ConcurrentHashMap<>();
+    // Archives ouvertes, par chemin absolu
+    private final Map<String, OpenPack> packs = new ConcurrentHashMap<>();
+    private boolean indexLoaded = false;
+
+    public LevelCatalog(List<Path> directories, Path indexFile) {
+        this.directories = List.copyOf(directories);
+        this.indexFile = indexFile;
+    }
+
+    /** Catalogue partagé des dossiers de niveaux du jeu. */
+    public static synchronized LevelCatalog getInstance() {
+        if (instance == null) {
+            instance = new LevelCatalog(List.of(PREDEFINED_DIR, CUSTOM_DIR), Paths.get(INDEX_FILE));
+        }
+        return instance;
+    }
+
+    /**
+     * Lance le parcours des dossiers en arrière-plan.
+     * @return les niveaux trouvés, dossier par dossier puis par nom de fichier
+     */
+    public CompletableFuture<List<Entry>> scanAsync() {
+        return CompletableFuture.supplyAsync(this::scan, POOL);
+    }
+
+    /** Lit le layout d'un niveau en arrière-plan (immédiat s'il est déjà en mémoire). */
+    public CompletableFuture<Level> loadAsync(Entry entry) {
+        if (entry.isLoaded()) {
+            try {
+                return CompletableFuture.completedFuture(entry.getLevel());
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return entry.getLevel();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, POOL);
+    }
+
+    /**
+     * Parcours synchrone : les fichiers inchangés depuis le dernier parcours (ou l'index) sont repris tels quels,
+     * les autres sont relus en parallèle. L'index n'est réécrit que si quelque chose a changé.
+     */
+    public synchronized List<Entry> scan() {
+        if (!indexLoaded) {
+            loadIndex();
+            indexLoaded = true;
+        }
+        List<Path> files = new ArrayList<>();
+        for (Path dir : directories) {
+            if (!Files.isDirectory(dir)) continue;
+            List<Path> inDir = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.{level,bmpack}")) {
+                for (Path f : stream) inDir.add(f);
+            } catch (IOException e) {
+                System.err.println("Erreur lecture dossier de niveaux: " + dir + " : " + e.getMessage());
+            }
+            inDir.sort(Comparator.comparing(f -> f.getFileName().toString()));
+            files.addAll(inDir);
+        }
+
+        List<Entry> entries = files.parallelStream()
+                .map(f -> f.getFileName().toString().endsWith(LevelPack.FILE_EXTENSION) ? packEntries(f) : fileEntry(f))
+                .flatMap(List::stream)
+                .toList();
+
+        // Archives disparues : fermées
+        Set<String> present = new HashSet<>();
+        for (Path f : files) present.add(key(f));
+        packs.entrySet().removeIf(e -> {
+            if (present.contains(e.getKey())) return false;
+            closeQuietly(e.getValue().pack);
+            return true;
+        });
+
+        // Fichiers .level supprimés depuis le dernier parcours, puis fichiers nouveaux ou modifiés
+        boolean changed = known.keySet().retainAll(present);
+        for (Entry entry : entries) {
+            if (entry.pack == null && known.put(key(entry.path), entry) != entry) changed = true;
+        }
+        if (changed) saveIndex();
+        return entries;
+    }
+
+    // Entrée à jour pour un fichier : celle déjà connue si le fichier n'a pas changé, sinon son en-tête relu
+    private List<Entry> fileEntry(Path file) {
+        try {
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+            Entry previous = known.get(key(file));
+            if (previous != null && previous.matches(lastModified, size)) return List.of(previous);
+            return List.of(new Entry(file, lastModified, size, Level.readHeader(file)));
+        } catch (Exception e) {
+            System.err.println("Erreur chargement niveau: " + file + " : " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    // Niveaux d'une archive : celle déjà ouverte si le fichier n'a pas changé, sinon il est (ré)ouvert
+    private List<Entry> packEntries(Path file) {
+        try {
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            long size = Files.size(file);
+            OpenPack previous = packs.get(key(file));
+            if (previous != null && previous.lastModified == lastModified && previous.size == size) return previous.entries;
+            OpenPack opened = new OpenPack(LevelPack.open(file), lastModified, size);
+            packs.put(key(file), opened);
+            if (previous != null) closeQuietly(previous.pack);
+            return opened.entries;
+        } catch (Exception e) {
+            System.err.println("Erreur ouverture archive de niveaux: " + file + " : " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static void closeQuietly(LevelPack pack) {
+        try {
+            pack.close();
+        } catch (IOException e) {
+            System.err.println("Erreur fermeture archive de niveaux: " + pack.getFile() + " : " + e.getMessage());
+        }
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    // --- Fichier d'index : une ligne par niveau, champs séparés par des tabulations ---
+    // chemin, date de modification, taille, largeur, hauteur, nom, sol, mur indestructible, mur destructible
+
+    private void loadIndex() {
+        if (!Files.exists(indexFile)) return;
+        try {
+            for (String line : Files.readAllLines(indexFile)) {
+                String[] f = line.split("\t", -1);
+                if (f.length != 9) continue;
+                try {
+                    Path path = Paths.get(f[0]);
+                    Level.Header header = new Level.Header(f[5], f[6], f[7], f[8], Integer.parseInt(f[3]), Integer.parseInt(f[4]));
+                    known.put(key(path), new Entry(path, Long.parseLong(f[1]), Long.parseLong(f[2]), header));
+                } catch (RuntimeException e) {
+                    // Ligne abîmée : le fichier sera simplement relu
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur lors du chargement de l'index des niveaux : " + e.getMessage());
+        }
+    }
+
+    private void saveIndex() {
+        List<String> lines = new ArrayList<>();
+        for (Entry entry : known.values()) {
+            Level.Header h = entry.getHeader();
+            lines.add(String.join("\t", key(entry.path), Long.toString(entry.lastModified), Long.toString(entry.size),
+                    Integer.toString(h.getWidth()), Integer.toString(h.getHeight()), clean(h.getName()),
+                    clean(h.getGroundImagePath()), clean(h.getWallIndestructibleImagePath()), clean(h.getWallDestructibleImagePath())));
+        }
+        Collections.sort(lines);
+        try {
+            Files.write(indexFile, lines);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la sauvegarde de l'index des niveaux : " + e.getMessage());
+        }
+    }
+
+    // Les champs ne doivent contenir ni tabulation ni retour à la ligne
+    private static String clean(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,119 @@
+package com.bomberman.model;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Conversion des fichiers .level entre le format texte et le format binaire compact,
+ * ou regroupement dans une archive {@link LevelPack}.
+ *
+ * Utilisation : LevelConverter [--deflate | --text] source... dossierDeSortie
+ *               LevelConverter --pack source... archive.bmpack
+ *   - chaque source est un fichier .level ou un dossier (tous ses .level, par ordre de nom),
+ *   - par défaut les niveaux sont écrits en binaire, --deflate compresse en plus les cases,
+ *     --text réécrit au format texte (par exemple pour éditer un niveau binaire à la main),
+ *   - les fichiers gardent leur nom ; le format d'entrée est reconnu automatiquement,
+ *   - --pack écrit tous les niveaux, dans l'ordre, dans une seule archive.
+ */
+public class LevelConverter {
+    public enum Target { BINARY, BINARY_DEFLATE, TEXT, PACK }
+
+    /**
+     * Convertit un niveau vers le format demandé.
+     */
+    public static void convert(Path source, Path destination, Target target) throws IOException {
+        Level level = Level.fromFile(source);
+        switch (target) {
+            case BINARY -> level.saveBinary(destination, false);
+            case BINARY_DEFLATE -> level.saveBinary(destination, true);
+            case TEXT -> level.saveToFile(destination);
+            case PACK -> LevelPack.write(destination, List.of(level));
+        }
+    }
+
+    public static void main(String[] args) {
+        Target target = Target.BINARY;
+        List<String> paths = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--deflate")) target = Target.BINARY_DEFLATE;
+            else if (arg.equals("--text")) target = Target.TEXT;
+            else if (arg.equals("--pack")) target = Target.PACK;
+            else paths.add(arg);
+        }
+        if (paths.size() < 2) {
+            System.err.println("Utilisation : LevelConverter [--deflate | --text] source... dossierDeSortie");
+            System.err.println("              LevelConverter --pack source... archive" + LevelPack.FILE_EXTENSION);
+            System.exit(1);
+        }
+
+        // Dernier argument : dossier de sortie (ou fichier archive avec --pack)
+        Path outputDir = Paths.get(paths.remove(paths.size() - 1));
+        List<Path> sources = new ArrayList<>();
+        for (String p : paths) {
+            Path path = Paths.get(p);
+            if (Files.isDirectory(path)) {
+                List<Path> inDir = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.level")) {
+                    for (Path f : stream) inDir.add(f);
+                } catch (IOException e) {
+                    System.err.println("Erreur lecture dossier: " + path + " : " + e.getMessage());
+                }
+                inDir.sort(Comparator.comparing(f -> f.getFileName().toString()));
+                sources.addAll(inDir);
+            } else {
+                sources.add(path);
+            }
+        }
+
+        if (target == Target.PACK) {
+            writePack(sources, outputDir);
+            return;
+        }
+
+        int converted = 0;
+        try {
+            Files.createDirectories(outputDir);
+        } catch (IOException e) {
+            System.err.println("Impossible de créer le dossier de sortie : " + e.getMessage());
+            System.exit(1);
+        }
+        for (Path source : sources) {
+            Path destination = outputDir.resolve(source.getFileName());
+            try {
+                if (Files.exists(destination) && Files.isSameFile(source, destination)) {
+                    System.err.println("Source et destination identiques, ignoré : " + source);
+                    continue;
+                }
+                convert(source, destination, target);
+                System.out.println(source + " -> " + destination + " (" + Files.size(source) + " -> " + Files.size(destination) + " octets)");
+                converted++;
+            } catch (Exception e) {
+                System.err.println("Erreur conversion niveau: " + source + " : " + e.getMessage());
+            }
+        }
+        System.out.println(converted + " niveau(x) converti(s)");
+    }
+
+    private static void writePack(List<Path> sources, Path pack) {
+        List<Level> levels = new ArrayList<>();
+        for (Path source : sources) {
+            try {
+                levels.add(Level.fromFile(source));
+            } catch (Exception e) {
+                System.err.println("Erreur chargement niveau: " + source + " : " + e.getMessage());
+            }
+        }
+        try {
+            Path parent = pack.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            LevelPack.write(pack, levels);
+            System.out.println(levels.size() + " niveau(x) -> " + pack + " (" + Files.size(pack) + " octets)");
+        } catch (IOException e) {
+            System.err.println("Erreur écriture archive: " + pack + " : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package com.bomberman.model;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Classe de base pour la gestion de l'édition de niveaux personnalisés.
  * Permet de créer, modifier et sauvegarder des niveaux Bomberman.
+ *
+ * La carte est stockée à plat, un octet par case (indice y * largeur + x), en deux couches :
+ *   - le terrain, avec les ordinaux de {@link Grid.CellType} : c'est directement le tableau d'une grille,
+ *   - les marqueurs (apparition d'un joueur, d'une IA, bonus), posés sur du sol.
+ * Le code d'une case (ordinal de {@link CellType}) est aussi sa valeur dans le layout d'un {@link Level} :
+ * 0 sol, 1 mur indestructible, 2 mur destructible, 3 à 5 les marqueurs.
+ *
+ * {@link #toLevel} passe les tableaux au niveau sans copie ; l'éditeur les copie à sa prochaine
+ * modification (copie sur écriture), le niveau ne change donc jamais après coup.
  */
-public class LevelEditor {
+public class LevelEditor implements EditJournal.Target {
 
     private int width;
     private int height;
-    private List<List<CellType>> grid;
+    private byte[] terrain;
+    private byte[] markers;
+    private int markerCount;
+    // Tableaux passés à un Level : copiés avant la prochaine écriture
+    private boolean shared;
 
     public enum CellType {
         EMPTY,
@@ -23,87 +35,192 @@ public class LevelEditor {
         // Ajoute d'autres types si besoin...
     }
 
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final byte FIRST_MARKER = (byte) CellType.PLAYER_SPAWN.ordinal();
+
+    /** Reçoit les cases parcourues par {@link #forEachCellOnLine}. */
+    @FunctionalInterface
+    public interface CellVisitor {
+        void visit(int x, int y);
+    }
+
     public LevelEditor(int width, int height) {
         this.width = width;
         this.height = height;
-        this.grid = new ArrayList<>();
-        for (int y = 0; y < height; y++) {
-            List<CellType> row = new ArrayList<>();
-            for (int x = 0; x < width; x++) {
-                row.add(CellType.EMPTY);
-            }
-            grid.add(row);
-        }
+        this.terrain = new byte[width * height];
+        this.markers = new byte[width * height];
     }
 
-    public int getWidth() { return width; }
-    public int getHeight() { return height; }
+    @Override public int getWidth() { return width; }
+    @Override public int getHeight() { return height; }
 
     public CellType getCell(int x, int y) {
         if (isInBounds(x, y)) {
-            return grid.get(y).get(x);
+            return CELL_TYPES[get(y * width + x)];
         }
         return null;
     }
 
     public void setCell(int x, int y, CellType type) {
         if (isInBounds(x, y)) {
-            grid.get(y).set(x, type);
+            set(y * width + x, (byte) type.ordinal());
         }
     }
 
+    /** @return code de la case n° index : son marqueur s'il y en a un, sinon son terrain */
+    @Override
+    public byte get(int index) {
+        byte marker = markers[index];
+        return marker != 0 ? marker : terrain[index];
+    }
+
+    /** Pose un code de case : un marqueur remplace le terrain par du sol, un terrain efface le marqueur. */
+    @Override
+    public void set(int index, byte code) {
+        if (get(index) == code) return;
+        ensureWritable();
+        boolean marker = code >= FIRST_MARKER;
+        if (markers[index] != 0) markerCount--;
+        if (marker) markerCount++;
+        markers[index] = marker ? code : 0;
+        terrain[index] = marker ? Grid.EMPTY_ORDINAL : terrainOrdinal(code);
+    }
+
     public void clear() {
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                grid.get(y).set(x, CellType.EMPTY);
-            }
+        ensureWritable();
+        Arrays.fill(terrain, Grid.EMPTY_ORDINAL);
+        Arrays.fill(markers, (byte) 0);
+        markerCount = 0;
+    }
+
+    /**
+     * Change les dimensions de la carte ; la partie commune aux deux tailles est conservée, le reste est du sol.
+     */
+    public void resize(int newWidth, int newHeight) {
+        byte[] newTerrain = new byte[newWidth * newHeight];
+        byte[] newMarkers = new byte[newWidth * newHeight];
+        int count = 0;
+        for (int y = 0; y < Math.min(height, newHeight); y++) {
+            int keep = Math.min(width, newWidth);
+            System.arraycopy(terrain, y * width, newTerrain, y * newWidth, keep);
+            System.arraycopy(markers, y * width, newMarkers, y * newWidth, keep);
+            for (int x = 0; x < keep; x++) if (newMarkers[y * newWidth + x] != 0) count++;
         }
+        width = newWidth;
+        height = newHeight;
+        terrain = newTerrain;
+        markers = newMarkers;
+        markerCount = count;
+        shared = false;
     }
 
-    public List<List<CellType>> getGrid() {
-        return grid;
+    /** @return nombre de cases portant un marqueur */
+    public int getMarkerCount() { return markerCount; }
+
+    /** @return nombre de cases portant ce code */
+    public int count(CellType type) {
+        byte code = (byte) type.ordinal();
+        int n = 0;
+        for (int i = 0; i < terrain.length; i++) if (get(i) == code) n++;
+        return n;
     }
 
     private boolean isInBounds(int x, int y) {
         return x >= 0 && x < width && y >= 0 && y < height;
     }
 
-    // Conversion vers int[][] compatible avec Level
+    private void ensureWritable() {
+        if (shared) {
+            terrain = terrain.clone();
+            markers = markers.clone();
+            shared = false;
+        }
+    }
+
+    private static byte terrainOrdinal(byte code) {
+        return switch (code) {
+            case 1 -> Grid.INDESTRUCTIBLE_ORDINAL;
+            case 2 -> Grid.DESTRUCTIBLE_ORDINAL;
+            default -> Grid.EMPTY_ORDINAL;
+        };
+    }
+
+    // Conversion vers int[][] compatible avec Level (codes de case, marqueurs compris)
     public int[][] toIntLayout() {
         int[][] layout = new int[height][width];
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                layout[y][x] = switch (grid.get(y).get(x)) {
-                    case WALL -> 1;
-                    case BREAKABLE -> 2;
-                    default -> 0;
-                };
+                layout[y][x] = get(y * width + x);
             }
         }
         return layout;
     }
 
-    // Conversion depuis int[][] (Level -> LevelEditor)
+    // Conversion depuis int[][] (Level -> LevelEditor), aux dimensions actuelles de l'éditeur
     public void fromIntLayout(int[][] layout) {
+        clear();
         for (int y = 0; y < height && y < layout.length; y++) {
             for (int x = 0; x < width && x < layout[y].length; x++) {
-                grid.get(y).set(x, switch (layout[y][x]) {
-                    case 1 -> CellType.WALL;
-                    case 2 -> CellType.BREAKABLE;
-                    default -> CellType.EMPTY;
-                });
+                int code = layout[y][x];
+                set(y * width + x, (byte) (code >= 0 && code < CELL_TYPES.length ? code : 0));
             }
         }
     }
 
-    // Optionnel : créer un Level à partir de l'éditeur
+    /**
+     * Niveau correspondant à la carte, sans copie : ses cases sont les tableaux de l'éditeur
+     * (une grille de même taille les reprend aussi sans copie, voir {@link Grid}).
+     */
     public Level toLevel(String name, String groundImg, String wallIndImg, String wallDesImg) {
-        return new Level(name, groundImg, wallIndImg, wallDesImg, toIntLayout());
+        shared = true;
+        return new Level(name, groundImg, wallIndImg, wallDesImg, width, height, terrain, markerCount > 0 ? markers : null);
     }
 
-    // Optionnel : charger l'état de l'éditeur depuis un Level
+    /** Charge la carte d'un niveau ; l'éditeur prend ses dimensions. */
     public void loadFromLevel(Level level) {
-        fromIntLayout(level.getLayout());
+        int[][] layout = level.getLayout();
+        int rows = layout == null ? 0 : layout.length;
+        int cols = rows == 0 ? 0 : layout[0].length;
+        if (rows == 0 || cols == 0) {
+            clear();
+            return;
+        }
+        resize(cols, rows);
+        fromIntLayout(layout);
         // Gère ici les images si besoin
     }
-}
\ No newline at end of file
+
+    /**
+     * Parcourt les cases du segment (x0, y0) -> (x1, y1), extrémités comprises, par l'algorithme de Bresenham :
+     * des cases voisines (diagonales comprises), sans trou même si la souris a sauté plusieurs cases d'un coup.
+     */
+    public static void forEachCellOnLine(int x0, int y0, int x1, int y1, CellVisitor visitor) {
+        int dx = Math.abs(x1 - x0), dy = -Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        while (true) {
+            visitor.visit(x0, y0);
+            if (x0 == x1 && y0 == y1) return;
+            int e2 = 2 * err;
+            if (e2 >= dy) { err += dy; x0 += sx; }
+            if (e2 <= dx) { err += dx; y0 += sy; }
+        }
+    }
+
+    /**
+     * Parcourt les cases du rectangle de coins opposés (x0, y0) et (x1, y1), dans n'importe quel ordre :
+     * toutes ses cases si filled, sinon seulement son contour (chaque case une seule fois).
+     */
+    public static void forEachCellInRectangle(int x0, int y0, int x1, int y1, boolean filled, CellVisitor visitor) {
+        int left = Math.min(x0, x1), right = Math.max(x0, x1);
+        int top = Math.min(y0, y1), bottom = Math.max(y0, y1);
+        for (int y = top; y <= bottom; y++) {
+            if (filled || y == top || y == bottom) {
+                for (int x = left; x <= right; x++) visitor.visit(x, y);
+            } else {
+                visitor.visit(left, y);
+                if (right != left) visitor.visit(right, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.bomberman.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Génération procédurale de niveaux, reproductible : les mêmes paramètres et la même graine donnent
+ * toujours le même niveau.
+ *
+ * Étapes : bordure de murs indestructibles, couloirs selon le style choisi, murs destructibles tirés
+ * au sort avec la densité demandée, symétrie (la carte est générée sur une partie puis recopiée en
+ * miroir), puis dégagement des quatre coins de départ. Chaque carte est contrôlée par {@link LevelValidator}
+ * et retirée au sort (graine suivante) si un point d'apparition est isolé ou sans abri. La densité n'est pas
+ * contrôlée : c'est un paramètre, toute valeur entre 0 et 1 donne des cartes jouables.
+ *
+ * Le mode lot génère des milliers de niveaux en parallèle sur tous les cœurs ; la graine de chaque niveau
+ * ne dépend que de la graine du lot et de son rang, le résultat ne dépend donc pas de l'ordre d'exécution.
+ *
+ * Utilisation : LevelGenerator [--size 15x13] [--density 0.3] [--symmetry BOTH] [--style CLASSIC]
+ *               [--seed N] [--name Prefixe] nombre archive.bmpack
+ */
+public class LevelGenerator {
+    /** Miroirs appliqués à la carte. */
+    public enum Symmetry {
+        NONE,
+        HORIZONTAL,     // gauche / droite
+        VERTICAL,       // haut / bas
+        BOTH,           // les quatre quarts
+        ROTATIONAL      // demi-tour autour du centre
+    }
+
+    /** Disposition des murs indestructibles à l'intérieur de la carte. */
+    public enum CorridorStyle {
+        CLASSIC,        // piliers une case sur deux, comme le plateau par défaut
+        OPEN,           // quelques blocs isolés, grands espaces
+        MAZE            // labyrinthe à couloirs d'une case, avec des boucles
+    }
+
+    /** Nombre de tirages essayés pour obtenir une carte jouable. */
+    public static final int MAX_ATTEMPTS = 32;
+    // Proportion de blocs indestructibles du style OPEN, et de murs de labyrinthe ouverts en plus (boucles)
+    private static final double OPEN_BLOCK_DENSITY = 0.06;
+    private static final double MAZE_LOOP_RATE = 0.2;
+
+    private static final byte EMPTY = Grid.EMPTY_ORDINAL;
+    private static final byte WALL = Grid.INDESTRUCTIBLE_ORDINAL;
+    private static final byte BREAKABLE = Grid.DESTRUCTIBLE_ORDINAL;
+
+    /** Paramètres de génération. */
+    public static final class Parameters {
+        private final int width, height;
+        private double density = 0.3;
+        private Symmetry symmetry = Symmetry.BOTH;
+        private CorridorStyle corridorStyle = CorridorStyle.CLASSIC;
+        private String namePrefix = "Généré";
+        private String groundImagePath = "/images/elementsMap/herbe.png";
+        private String wallIndestructibleImagePath = "/images/elementsMap/murIndestructible.png";
+        private String wallDestructibleImagePath = "/images/elementsMap/murDestructible.png";
+
+        public Parameters(int width, int height) {
+            if (width < 7 || height < 7) throw new IllegalArgumentException("Carte trop petite : " + width + "x" + height + " (7x7 minimum)");
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public double getDensity() { return density; }
+        public Symmetry getSymmetry() { return symmetry; }
+        public CorridorStyle getCorridorStyle() { return corridorStyle; }
+        public String getNamePrefix() { return namePrefix; }
+
+        /** @param density probabilité qu'une case libre reçoive un mur destructible (0 à 1) */
+        public void setDensity(double density) {
+            if (density < 0 || density > 1) throw new IllegalArgumentException("Densité hors de [0, 1] : " + density);
+            this.density = density;
+        }
+
+        public void setSymmetry(Symmetry symmetry) { this.symmetry = Objects.requireNonNull(symmetry); }
+        public void setCorridorStyle(CorridorStyle corridorStyle) { this.corridorStyle = Objects.requireNonNull(corridorStyle); }
+        public void setNamePrefix(String namePrefix) { this.namePrefix = namePrefix; }
+
+        public void setImages(String groundImagePath, String wallIndestructibleImagePath, String wallDestructibleImagePath) {
+            this.groundImagePath = groundImagePath;
+            this.wallIndestructibleImagePath = wallIndestructibleImagePath;
+            this.wallDestructibleImagePath = wallDestructibleImagePath;
+        }
+    }
+
+    private LevelGenerator() {}
+
+    // --- Un niveau ---
+
+    /**
+     * Génère une carte sans la contrôler.
+     * @return cases en ordinaux de {@link Grid.CellType}, ligne par ligne
+     */
+    public static byte[] generateCells(Parameters p, long seed) {
+        GameRandom random = new GameRandom(seed);
+        int w = p.width, h = p.height;
+        byte[] cells = new byte[w * h];
+
+        switch (p.corridorStyle) {
+            case CLASSIC -> {
+                for (int y = 2; y < h - 1; y += 2) {
+                    for (int x = 2; x < w - 1; x += 2) cells[y * w + x] = WALL;
+                }
+            }
+            case OPEN -> {
+                for (int i = 0; i < cells.length; i++) {
+                    if (random.nextDouble() < OPEN_BLOCK_DENSITY) cells[i] = WALL;
+                }
+            }
+            case MAZE -> carveMaze(cells, w, h, random);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == EMPTY && random.nextDouble() < p.density) cells[i] = BREAKABLE;
+        }
+        applySymmetry(cells, w, h, p.symmetry);
+        for (int x = 0; x < w; x++) {
+            cells[x] = WALL;
+            cells[(h - 1) * w + x] = WALL;
+        }
+        for (int y = 0; y < h; y++) {
+            cells[y * w] = WALL;
+            cells[y * w + w - 1] = WALL;
+        }
+        // Coins de départ : la case et deux cases le long de chaque bord (la seconde est hors du souffle de la première bombe)
+        clearCorner(cells, w, 1, 1, 1, 1);
+        clearCorner(cells, w, w - 2, 1, -1, 1);
+        clearCorner(cells, w, 1, h - 2, 1, -1);
+        clearCorner(cells, w, w - 2, h - 2, -1, -1);
+        return cells;
+    }
+
+    /**
+     * Génère un niveau jouable : les tirages se succèdent (graines dérivées de seed) jusqu'à ce que
+     * {@link #isPlayable} soit vérifié, au plus {@link #MAX_ATTEMPTS} fois.
+     * @return le niveau, ou null si aucun tirage n'est jouable (paramètres trop contraignants)
+     */
+    public static Level generate(Parameters p, long seed, String name) {
+        GameRandom seeds = new GameRandom(seed);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            byte[] cells = generateCells(p, attempt == 0 ? seed : seeds.nextLong());
+            if (!isPlayable(cells, p.width, p.height)) continue;
+            return new Level(name, p.groundImagePath, p.wallIndestructibleImagePath, p.wallDestructibleImagePath,
+                    p.width, p.height, cells, null);
+        }
+        return null;
+    }
+
+    /**
+     * Contrôle d'une carte (ordinaux de Grid, qui sont aussi les codes de l'éditeur pour le sol et les murs) :
+     * points d'apparition reliés et chacun avec un abri. Les avertissements de densité de l'éditeur sont ignorés.
+     */
+    static boolean isPlayable(byte[] cells, int width, int height) {
+        LevelValidator.Report report = new LevelValidator(width, height, cells).validate();
+        return report.getDisconnectedSpawns().length == 0 && report.getTrappedSpawns().length == 0;
+    }
+
+    // --- Mode lot ---
+
+    /**
+     * Génère count niveaux en parallèle. Le niveau de rang i a sa propre graine, dérivée de seed et de i :
+     * le lot est identique d'une exécution à l'autre quel que soit le nombre de cœurs.
+     * Les rangs sans tirage jouable sont omis (la liste peut donc être plus courte que count).
+     */
+    public static List<Level> generateBatch(Parameters p, long seed, int count) {
+        GameRandom root = new GameRandom(seed);
+        return IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> generate(p, root.forSubsystem("level-" + i).getSeed(), p.namePrefix + " " + (i + 1)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Génère un lot et l'écrit dans une archive {@link LevelPack}.
+     * @return nombre de niveaux écrits
+     * @throws IllegalStateException si aucun niveau n'est jouable (l'archive n'est alors pas écrite)
+     */
+    public static int writeBatch(Path pack, Parameters p, long seed, int count) throws IOException {
+        List<Level> levels = generateBatch(p, seed, count);
+        if (levels.isEmpty()) throw new IllegalStateException("aucun niveau jouable sur " + count + " demandé(s)");
+        Path parent = pack.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        LevelPack.write(pack, levels);
+        return levels.size();
+    }
+
+    // --- Étapes ---
+
+    /**
+     * Labyrinthe parfait par exploration en profondeur sur les cases de coordonnées impaires
+     * (les cases paires entre elles sont les murs), puis quelques murs ouverts en plus pour créer des boucles.
+     */
+    private static void carveMaze(byte[] cells, int w, int h, GameRandom random) {
+        java.util.Arrays.fill(cells, WALL);
+        int cols = (w - 1) / 2, rows = (h - 1) / 2;
+        int[] stack = new int[cols * rows];
+        boolean[] visited = new boolean[cols * rows];
+        int size = 0;
+        stack[size++] = 0;
+        visited[0] = true;
+        cells[w + 1] = EMPTY;
+        int[] dx = {1, -1, 0, 0}, dy = {0, 0, 1, -1};
+        int[] options = new int[4];
+        while (size > 0) {
+            int current = stack[size - 1];
+            int cx = current % cols, cy = current / cols;
+            int n = 0;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + dx[d], ny = cy + dy[d];
+                if (nx >= 0 && ny >= 0 && nx < cols && ny < rows && !visited[ny * cols + nx]) options[n++] = d;
+            }
+            if (n == 0) {
+                size--;
+                continue;
+            }
+            int d = options[random.nextInt(n)];
+            int nx = cx + dx[d], ny = cy + dy[d];
+            visited[ny * cols + nx] = true;
+            // Case du labyrinthe (2x+1, 2y+1) et mur entre les deux
+            cells[(2 * ny + 1) * w + 2 * nx + 1] = EMPTY;
+            cells[(2 * cy + 1 + dy[d]) * w + 2 * cx + 1 + dx[d]] = EMPTY;
+            stack[size++] = ny * cols + nx;
+        }
+        // Boucles : murs entre deux couloirs (jamais les piliers aux coordonnées paires/paires)
+        for (int y = 1; y < h - 1; y++) {
+            for (int x = 1; x < w - 1; x++) {
+                if (cells[y * w + x] != WALL || (x % 2 == 0) == (y % 2 == 0)) continue;
+                if (random.nextDouble() < MAZE_LOOP_RATE) cells[y * w + x] = EMPTY;
+            }
+        }
+    }
+
+    // Recopie chaque case depuis sa case « source » de la partie générée
+    private static void applySymmetry(byte[] cells, int w, int h, Symmetry symmetry) {
+        if (symmetry == Symmetry.NONE) return;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int sx = x, sy = y;
+                switch (symmetry) {
+                    case HORIZONTAL -> sx = Math.min(x, w - 1 - x);
+                    case VERTICAL -> sy = Math.min(y, h - 1 - y);
+                    case BOTH -> { sx = Math.min(x, w - 1 - x); sy = Math.min(y, h - 1 - y); }
+                    case ROTATIONAL -> {
+                        // Seconde moitié (dans l'ordre de lecture) = première moitié tournée d'un demi-tour
+                        if (y * w + x > (h - 1 - y) * w + (w - 1 - x)) { sx = w - 1 - x; sy = h - 1 - y; }
+                    }
+                    default -> { }
+                }
+                cells[y * w + x] = cells[sy * w + sx];
+            }
+        }
+    }
+
+    // Vide la case de départ (x, y) et deux cases vers l'intérieur, à l'horizontale et à la verticale
+    private static void clearCorner(byte[] cells, int w, int x, int y, int stepX, int stepY) {
+        cells[y * w + x] = EMPTY;
+        for (int i = 1; i <= 2; i++) {
+            cells[y * w + x + i * stepX] = EMPTY;
+            cells[(y + i * stepY) * w + x] = EMPTY;
+        }
+    }
+
+    // --- Ligne de commande ---
+
+    public static void main(String[] args) {
+        int width = 15, height = 13;
+        double density = 0.3;
+        Symmetry symmetry = Symmetry.BOTH;
+        CorridorStyle style = CorridorStyle.CLASSIC;
+        long seed = GameRandom.newSeed();
+        String name = null;
+        List<String> positional = new java.util.ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--size" -> {
+                        String[] parts = args[++i].toLowerCase().split("x");
+                        width = Integer.parseInt(parts[0]);
+                        height = Integer.parseInt(parts[1]);
+                    }
+                    case "--density" -> density = Double.parseDouble(args[++i]);
+                    case "--symmetry" -> symmetry = Symmetry.valueOf(args[++i].toUpperCase());
+                    case "--style" -> style = CorridorStyle.valueOf(args[++i].toUpperCase());
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    case "--name" -> name = args[++i];
+                    default -> positional.add(args[i]);
+                }
+            }
+            if (positional.size() != 2) throw new IllegalArgumentException("nombre et archive attendus");
+            Parameters p = new Parameters(width, height);
+            p.setDensity(density);
+            p.setSymmetry(symmetry);
+            p.setCorridorStyle(style);
+            if (name != null) p.setNamePrefix(name);
+            int count = Integer.parseInt(positional.get(0));
+            if (count <= 0) throw new IllegalArgumentException("nombre de niveaux <= 0 : " + count);
+            Path pack = Paths.get(positional.get(1));
+
+            long start = System.nanoTime();
+            int written = writeBatch(pack, p, seed, count);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(written + " niveau(x) jouable(s) sur " + count + " -> " + pack
+                    + " (graine " + seed + ", " + millis + " ms, " + Files.size(pack) + " octets)");
+        } catch (IOException e) {
+            System.err.println("Erreur écriture archive : " + e.getMessage());
+            System.exit(1);
+        } catch (RuntimeException e) {
+            System.err.println("Paramètres invalides : " + e.getMessage());
+            System.err.println("Utilisation : LevelGenerator [--size 15x13] [--density 0.3] [--symmetry NONE|HORIZONTAL|VERTICAL|BOTH|ROTATIONAL]");
+            System.err.println("              [--style CLASSIC|OPEN|MAZE] [--seed N] [--name Prefixe] nombre archive" + LevelPack.FILE_EXTENSION);
+            System.exit(1);
+        }
+    }
+}
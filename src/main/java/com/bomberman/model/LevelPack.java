@@ -0,0 +1,353 @@
+package com.bomberman.model;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archive de niveaux (.bmpack) : tous les niveaux dans un seul fichier, ouvert par projection mémoire.
+ *
+ * Format (entiers en petit-boutiste) :
+ *   - en-tête de 32 octets : "BMPK", version (1 octet), 3 octets réservés, nombre de niveaux (int),
+ *     4 octets réservés, position de la table des chaînes (long), position des cases (long) ;
+ *   - table des matières à partir de l'octet 32, une entrée de 40 octets par niveau :
+ *     largeur, hauteur (int), position de ses cases (long), 4 positions dans la table des chaînes
+ *     (nom, sol, mur indestructible, mur destructible), puis position de ses marqueurs (long, 0 s'il n'en a pas) ;
+ *     en version 1, l'entrée fait 32 octets, sans marqueurs ;
+ *   - table des chaînes : longueur (2 octets) puis octets UTF-8 ;
+ *   - cases : un octet par case, ordinal de {@link Grid.CellType}, ligne par ligne (un marqueur y est écrit comme du sol) ;
+ *   - marqueurs (apparitions, bonus), comme dans le format binaire d'un {@link Level} : leur nombre,
+ *     puis pour chacun l'écart d'indice depuis le précédent (varint) et son code (1 octet).
+ *
+ * L'entrée d'un niveau se trouve par simple calcul d'adresse : accès en O(1) par indice sans rien lire
+ * des autres niveaux. Les cases ont déjà la représentation de {@link Grid} : une grille de même taille
+ * les copie en un seul bloc depuis la projection, sans construire le tableau layout du niveau.
+ * Toutes les lectures sont absolues (la position du tampon ne bouge jamais), l'archive peut donc être
+ * lue par plusieurs threads à la fois.
+ * L'ouverture vérifie toute l'archive (positions et tailles dans le fichier, chaînes, valeurs des cases) :
+ * une archive abîmée est refusée par une IOException au lieu d'échouer plus tard, à la lecture d'un niveau.
+ */
+public class LevelPack implements Closeable {
+    public static final String FILE_EXTENSION = ".bmpack";
+    private static final byte[] MAGIC = {'B', 'M', 'P', 'K'};
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = 40;
+    // Entrée des archives de version 1, sans position de marqueurs
+    private static final int ENTRY_SIZE_V1 = 32;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int entrySize;
+    private final long stringsOffset;
+    // Index nom -> indice, construit à la première recherche par nom
+    private volatile Map<String, Integer> byName;
+
+    private LevelPack(Path file, FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE) throw new IOException("Archive de niveaux invalide : " + file);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) throw new IOException("Archive de niveaux invalide : " + file);
+        }
+        int version = buffer.get(4);
+        if (version < 1 || version > VERSION) throw new IOException("Version d'archive non prise en charge : " + version);
+        this.entrySize = version >= 2 ? ENTRY_SIZE : ENTRY_SIZE_V1;
+        this.count = buffer.getInt(8);
+        this.stringsOffset = buffer.getLong(16);
+        if (count < 0 || HEADER_SIZE + (long) count * entrySize > buffer.capacity()) {
+            throw new IOException("Table des matières abîmée : " + file);
+        }
+        validate();
+    }
+
+    /**
+     * Vérifie chaque entrée de la table des matières contre la taille du fichier : dimensions, cases, chaînes
+     * et marqueurs doivent y tenir, et les cases ne contenir que sol, mur indestructible ou mur destructible
+     * (une grille les copie telles quelles).
+     */
+    private void validate() throws IOException {
+        int capacity = buffer.capacity();
+        if (stringsOffset < HEADER_SIZE + (long) count * entrySize || stringsOffset > capacity) {
+            throw corrupt("table des chaînes hors du fichier");
+        }
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_SIZE + i * entrySize;
+            int width = buffer.getInt(entry), height = buffer.getInt(entry + 4);
+            long cellsOffset = buffer.getLong(entry + 8);
+            if (width < 0 || height < 0 || cellsOffset < stringsOffset
+                    || cellsOffset + (long) width * height > capacity) {
+                throw corrupt("cases du niveau " + i + " hors du fichier");
+            }
+            for (int k = 0; k < 4; k++) {
+                long position = stringsOffset + buffer.getInt(entry + 16 + 4 * k);
+                if (position < stringsOffset || position + 2 > capacity
+                        || position + 2 + Short.toUnsignedInt(buffer.getShort((int) position)) > capacity) {
+                    throw corrupt("chaîne du niveau " + i + " hors du fichier");
+                }
+            }
+            for (int c = (int) cellsOffset, end = c + width * height; c < end; c++) {
+                byte cell = buffer.get(c);
+                if (cell != Grid.EMPTY_ORDINAL && cell != Grid.INDESTRUCTIBLE_ORDINAL && cell != Grid.DESTRUCTIBLE_ORDINAL) {
+                    throw corrupt("case invalide (" + cell + ") dans le niveau " + i);
+                }
+            }
+            readMarkers(entry, width * height, i, false);
+        }
+    }
+
+    /**
+     * Lit la liste des marqueurs d'une entrée en vérifiant qu'elle tient dans le fichier et dans le niveau.
+     * @param keep false pour seulement vérifier
+     * @return les codes des marqueurs, une case par octet, ou null si le niveau n'en a pas (ou si keep est false)
+     */
+    private byte[] readMarkers(int entry, int cellCount, int index, boolean keep) throws IOException {
+        if (entrySize < ENTRY_SIZE) return null;
+        long offset = buffer.getLong(entry + 32);
+        if (offset == 0) return null;
+        if (offset < stringsOffset || offset >= buffer.capacity()) throw corrupt("marqueurs du niveau " + index + " hors du fichier");
+        int[] position = {(int) offset};
+        int markerCount = readVarint(position);
+        if (markerCount < 0 || markerCount > cellCount) throw corrupt("nombre de marqueurs du niveau " + index);
+        byte[] markers = keep ? new byte[cellCount] : null;
+        int cell = 0;
+        for (int k = 0; k < markerCount; k++) {
+            int gap = readVarint(position);
+            cell += gap;
+            if (position[0] >= buffer.capacity()) throw corrupt("marqueurs du niveau " + index + " hors du fichier");
+            int code = buffer.get(position[0]++) & 0xFF;
+            if (gap < 0 || cell < 0 || cell >= cellCount || code <= 2 || code >= LevelEditor.CellType.values().length) {
+                throw corrupt("marqueur invalide dans le niveau " + index);
+            }
+            if (keep) markers[cell] = (byte) code;
+        }
+        return markers;
+    }
+
+    // Entier variable (7 bits par octet) lu à la position donnée, qui avance
+    private int readVarint(int[] position) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (position[0] >= buffer.capacity()) throw corrupt("entier variable hors du fichier");
+            int b = buffer.get(position[0]++) & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw corrupt("entier variable trop long");
+    }
+
+    private IOException corrupt(String detail) {
+        return new IOException("Archive de niveaux abîmée (" + detail + ") : " + file);
+    }
+
+    /**
+     * Ouvre une archive en lecture par projection mémoire, après vérification de son contenu.
+     * @throws IOException si le fichier n'est pas une archive de niveaux ou s'il est abîmé
+     */
+    public static LevelPack open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Archive trop volumineuse (2 Go maximum) : " + file);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new LevelPack(file, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getFile() { return file; }
+
+    /** @return nombre de niveaux de l'archive */
+    public int size() { return count; }
+
+    /** En-tête du niveau n° index (nom, images, dimensions), lu directement dans la table des matières. */
+    public Level.Header getHeader(int index) {
+        int entry = entryOffset(index);
+        return new Level.Header(
+                readString(buffer.getInt(entry + 16)), readString(buffer.getInt(entry + 20)),
+                readString(buffer.getInt(entry + 24)), readString(buffer.getInt(entry + 28)),
+                buffer.getInt(entry), buffer.getInt(entry + 4));
+    }
+
+    /** @return nom du niveau n° index, sans décoder les chemins d'images */
+    public String getName(int index) {
+        return readString(buffer.getInt(entryOffset(index) + 16));
+    }
+
+    /**
+     * Niveau n° index, adossé à l'archive : ses cases restent dans la projection mémoire
+     * jusqu'à ce qu'une grille les copie (ou qu'on demande son layout). Ses marqueurs sont décodés.
+     */
+    public Level getLevel(int index) {
+        int entry = entryOffset(index);
+        Level.Header header = getHeader(index);
+        int cellCount = header.getWidth() * header.getHeight();
+        int cellsOffset = (int) buffer.getLong(entry + 8);
+        ByteBuffer cells = buffer.slice(cellsOffset, cellCount);
+        try {
+            return new Level(header, cells, readMarkers(entry, cellCount, index, true));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // impossible : l'archive est vérifiée à l'ouverture
+        }
+    }
+
+    /** @return indice du premier niveau portant ce nom, ou -1 */
+    public int indexOf(String name) {
+        Map<String, Integer> index = byName;
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = count - 1; i >= 0; i--) index.put(getName(i), i);
+            byName = index;
+        }
+        return index.getOrDefault(name, -1);
+    }
+
+    /**
+     * Ferme le fichier. La projection reste lisible jusqu'à ce qu'elle soit libérée par le ramasse-miettes :
+     * les niveaux déjà obtenus restent donc utilisables.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int entryOffset(int index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Niveau " + index + " sur " + count);
+        return HEADER_SIZE + index * entrySize;
+    }
+
+    private String readString(int offset) {
+        int position = (int) stringsOffset + offset;
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        byte[] bytes = new byte[length];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Écriture ---
+
+    /**
+     * Écrit une archive contenant les niveaux dans l'ordre de la liste.
+     * Les marqueurs (3 à 5) sont gardés dans la liste de marqueurs du niveau ; les autres cases que mur indestructible (1)
+     * et mur destructible (2) sont écrites comme sol, comme à la création d'une grille.
+     */
+    public static void write(Path file, List<Level> levels) throws IOException {
+        // Table des chaînes (chaînes identiques écrites une seule fois : les images sont souvent partagées)
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        Map<String, Integer> stringOffsets = new HashMap<>();
+        int[][] refs = new int[levels.size()][4];
+        // Listes de marqueurs de tous les niveaux, et position de celle de chaque niveau (-1 s'il n'en a pas)
+        ByteArrayOutputStream markers = new ByteArrayOutputStream();
+        int[] markerRefs = new int[levels.size()];
+        long cellBytes = 0;
+        for (int i = 0; i < levels.size(); i++) {
+            Level level = levels.get(i);
+            String[] values = {level.getName(), level.getGroundImagePath(), level.getWallIndestructibleImagePath(), level.getWallDestructibleImagePath()};
+            for (int k = 0; k < 4; k++) {
+                String value = values[k] == null ? "" : values[k];
+                Integer offset = stringOffsets.get(value);
+                if (offset == null) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length > 0xFFFF) throw new IOException("Chaîne trop longue pour l'archive : " + value.substring(0, 32) + "...");
+                    offset = strings.size();
+                    strings.write(bytes.length & 0xFF);
+                    strings.write(bytes.length >>> 8);
+                    strings.write(bytes);
+                    stringOffsets.put(value, offset);
+                }
+                refs[i][k] = offset;
+            }
+            int[][] layout = level.getLayout();
+            int rows = layout == null ? 0 : layout.length;
+            cellBytes += (long) rows * (rows == 0 ? 0 : layout[0].length);
+            markerRefs[i] = writeMarkers(markers, layout);
+        }
+
+        long stringsOffset = HEADER_SIZE + (long) levels.size() * ENTRY_SIZE;
+        long cellsOffset = stringsOffset + strings.size();
+        long markersOffset = cellsOffset + cellBytes;
+        if (markersOffset + markers.size() > Integer.MAX_VALUE) throw new IOException("Archive trop volumineuse (2 Go maximum)");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).put((byte) VERSION).put(new byte[3]).putInt(levels.size()).putInt(0)
+                    .putLong(stringsOffset).putLong(cellsOffset);
+            out.write(header.array());
+
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long position = cellsOffset;
+            for (int i = 0; i < levels.size(); i++) {
+                int[][] layout = levels.get(i).getLayout();
+                int rows = layout == null ? 0 : layout.length;
+                int cols = rows == 0 ? 0 : layout[0].length;
+                entry.clear();
+                entry.putInt(cols).putInt(rows).putLong(position)
+                        .putInt(refs[i][0]).putInt(refs[i][1]).putInt(refs[i][2]).putInt(refs[i][3])
+                        .putLong(markerRefs[i] < 0 ? 0 : markersOffset + markerRefs[i]);
+                out.write(entry.array());
+                position += (long) rows * cols;
+            }
+
+            strings.writeTo(out);
+
+            for (Level level : levels) {
+                int[][] layout = level.getLayout();
+                if (layout == null) continue;
+                int cols = layout.length == 0 ? 0 : layout[0].length;
+                byte[] row = new byte[cols];
+                for (int[] line : layout) {
+                    for (int c = 0; c < cols; c++) {
+                        int cell = c < line.length ? line[c] : 0;
+                        row[c] = cell == 1 ? Grid.INDESTRUCTIBLE_ORDINAL : cell == 2 ? Grid.DESTRUCTIBLE_ORDINAL : Grid.EMPTY_ORDINAL;
+                    }
+                    out.write(row);
+                }
+            }
+
+            markers.writeTo(out);
+        }
+    }
+
+    /**
+     * Ajoute la liste des marqueurs d'un layout (voir le format).
+     * @return position de la liste dans {@code out}, ou -1 si le layout n'a pas de marqueur (rien n'est écrit)
+     */
+    private static int writeMarkers(ByteArrayOutputStream out, int[][] layout) throws IOException {
+        int rows = layout == null ? 0 : layout.length;
+        int cols = rows == 0 ? 0 : layout[0].length;
+        int markerCount = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols && c < layout[r].length; c++) if (isMarker(layout[r][c])) markerCount++;
+        }
+        if (markerCount == 0) return -1;
+        int start = out.size();
+        Replay.writeVarint(out, markerCount);
+        int previous = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols && c < layout[r].length; c++) {
+                if (!isMarker(layout[r][c])) continue;
+                int index = r * cols + c;
+                Replay.writeVarint(out, index - previous);
+                out.write(layout[r][c]);
+                previous = index;
+            }
+        }
+        return start;
+    }
+
+    private static boolean isMarker(int code) {
+        return code > 2 && code < LevelEditor.CellType.values().length;
+    }
+}
@@ -0,0 +1,366 @@
+package com.bomberman.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Vérifie en arrière-plan qu'une carte de l'éditeur est jouable :
+ *   - tous les points d'apparition sont reliés (en passant par le sol ou les murs destructibles),
+ *   - chaque point d'apparition a une case où se mettre à l'abri de sa propre première bombe,
+ *   - la proportion de murs destructibles reste raisonnable.
+ *
+ * Le travail est incrémental : l'éditeur signale chaque case modifiée ({@link #cellChanged}), puis
+ * demande une vérification ({@link #requestValidation}) à la fin de chaque tracé. Les modifications
+ * sont appliquées par lots sur le thread du validateur : si l'utilisateur dessine plus vite que la
+ * vérification, les tracés en attente sont regroupés et une seule vérification est faite pour tous.
+ * Les composantes connexes sont tenues par union-find : une case qui s'ouvre est simplement reliée à
+ * ses voisines ; seule une case qui se ferme oblige à reconstruire (une fois par lot, pas par case).
+ * Compteurs de murs et points d'apparition sont tenus à jour case par case.
+ */
+public class LevelValidator {
+    /** Proportion de murs destructibles (parmi les cases non indestructibles) en dehors de laquelle on avertit. */
+    public static final double MIN_DENSITY = 0.10;
+    public static final double MAX_DENSITY = 0.75;
+    /** Nombre de pas dans lesquels une case à l'abri doit être atteinte depuis un point d'apparition. */
+    public static final int ESCAPE_STEPS = 4;
+    // Portée de la première bombe d'un joueur
+    private static final int BOMB_RANGE = 1;
+
+    private static final ExecutorService POOL = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bomberman-validator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final byte WALL = (byte) LevelEditor.CellType.WALL.ordinal();
+    private static final byte BREAKABLE = (byte) LevelEditor.CellType.BREAKABLE.ordinal();
+    private static final byte PLAYER_SPAWN = (byte) LevelEditor.CellType.PLAYER_SPAWN.ordinal();
+    private static final byte AI_SPAWN = (byte) LevelEditor.CellType.AI_SPAWN.ordinal();
+
+    /** Résultat d'une vérification. */
+    public static final class Report {
+        private final int width, height;
+        private final int[] spawns;
+        private final int[] disconnectedSpawns;
+        private final int[] trappedSpawns;
+        private final int minEscapeRoom;
+        private final double density;
+        private final List<String> warnings;
+
+        private Report(int width, int height, int[] spawns, int[] disconnectedSpawns, int[] trappedSpawns,
+                       int minEscapeRoom, double density, List<String> warnings) {
+            this.width = width;
+            this.height = height;
+            this.spawns = spawns;
+            this.disconnectedSpawns = disconnectedSpawns;
+            this.trappedSpawns = trappedSpawns;
+            this.minEscapeRoom = minEscapeRoom;
+            this.density = density;
+            this.warnings = warnings;
+        }
+
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        /** @return cases de départ vérifiées (marqueurs, ou coins par défaut), indices y * largeur + x */
+        public int[] getSpawns() { return spawns; }
+        /** @return points d'apparition qu'on ne peut pas rejoindre depuis le premier */
+        public int[] getDisconnectedSpawns() { return disconnectedSpawns; }
+        /** @return points d'apparition sans case à l'abri de leur première bombe */
+        public int[] getTrappedSpawns() { return trappedSpawns; }
+        /** @return plus petit nombre de cases libres atteignables en {@link #ESCAPE_STEPS} pas depuis un point d'apparition */
+        public int getMinEscapeRoom() { return minEscapeRoom; }
+        /** @return proportion de murs destructibles parmi les cases non indestructibles */
+        public double getDensity() { return density; }
+        public List<String> getWarnings() { return warnings; }
+        public boolean isPlayable() { return warnings.isEmpty(); }
+    }
+
+    private final int width, height;
+    private final byte[] codes;
+    // Union-find sur les cases franchissables (tout sauf mur indestructible) ; -1 pour une case bloquée
+    private final int[] parent;
+    private final int[] size;
+    private boolean needsRebuild;
+    private int breakableCount, wallCount;
+    private final TreeSet<Integer> markedSpawns = new TreeSet<>();
+    // Parcours des cases autour d'un point d'apparition (tampons réutilisés)
+    private final int[] stamp;
+    private int generation;
+    private final int[] queue;
+
+    // Modifications signalées, pas encore appliquées (protégées par pendingLock)
+    private final Object pendingLock = new Object();
+    private int[] pendingIndices = new int[256];
+    private byte[] pendingCodes = new byte[256];
+    private int pendingCount;
+    private boolean scheduled;
+    private volatile Consumer<Report> listener;
+
+    /**
+     * @param codes codes de case de la carte ({@link LevelEditor.CellType}), copiés
+     */
+    public LevelValidator(int width, int height, byte[] codes) {
+        this.width = width;
+        this.height = height;
+        this.codes = codes.clone();
+        this.parent = new int[codes.length];
+        this.size = new int[codes.length];
+        this.stamp = new int[codes.length];
+        this.queue = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) count(this.codes[i], i, 1);
+        rebuild();
+    }
+
+    /** Copie les codes de toutes les cases d'une carte de l'éditeur. */
+    public static LevelValidator of(LevelEditor editor) {
+        byte[] codes = new byte[editor.getWidth() * editor.getHeight()];
+        for (int i = 0; i < codes.length; i++) codes[i] = editor.get(i);
+        return new LevelValidator(editor.getWidth(), editor.getHeight(), codes);
+    }
+
+    /** Appelé sur le thread du validateur après chaque vérification. */
+    public void setListener(Consumer<Report> listener) {
+        this.listener = listener;
+    }
+
+    /** Signale qu'une case a pris ce code (n'importe quel thread, ne fait que mémoriser la modification). */
+    public void cellChanged(int index, byte code) {
+        synchronized (pendingLock) {
+            if (pendingCount == pendingIndices.length) {
+                pendingIndices = Arrays.copyOf(pendingIndices, pendingCount * 2);
+                pendingCodes = Arrays.copyOf(pendingCodes, pendingCount * 2);
+            }
+            pendingIndices[pendingCount] = index;
+            pendingCodes[pendingCount] = code;
+            pendingCount++;
+        }
+    }
+
+    /** Lance une vérification en arrière-plan, sauf si une est déjà prévue (elle verra ces modifications). */
+    public void requestValidation() {
+        synchronized (pendingLock) {
+            if (scheduled) return;
+            scheduled = true;
+        }
+        POOL.execute(this::runPending);
+    }
+
+    private void runPending() {
+        int[] indices;
+        byte[] newCodes;
+        int count;
+        synchronized (pendingLock) {
+            scheduled = false;
+            indices = pendingIndices;
+            newCodes = pendingCodes;
+            count = pendingCount;
+            pendingIndices = new int[Math.max(256, count)];
+            pendingCodes = new byte[Math.max(256, count)];
+            pendingCount = 0;
+        }
+        try {
+            for (int i = 0; i < count; i++) apply(indices[i], newCodes[i]);
+            Report report = validate();
+            Consumer<Report> l = listener;
+            if (l != null) l.accept(report);
+        } catch (RuntimeException e) {
+            System.err.println("Erreur lors de la vérification du niveau : " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // --- Mise à jour incrémentale (thread du validateur) ---
+
+    /** Applique le nouveau code d'une case. */
+    void apply(int index, byte code) {
+        byte old = codes[index];
+        if (old == code) return;
+        codes[index] = code;
+        count(old, index, -1);
+        count(code, index, 1);
+        boolean wasOpen = old != WALL, isOpen = code != WALL;
+        if (wasOpen && !isOpen) {
+            // Une case fermée peut couper une composante en deux : union-find ne sait pas défaire
+            needsRebuild = true;
+        } else if (!wasOpen && isOpen && !needsRebuild) {
+            parent[index] = index;
+            size[index] = 1;
+            linkNeighbours(index);
+        }
+    }
+
+    private void count(byte code, int index, int delta) {
+        if (code == BREAKABLE) breakableCount += delta;
+        else if (code == WALL) wallCount += delta;
+        else if (code == PLAYER_SPAWN || code == AI_SPAWN) {
+            if (delta > 0) markedSpawns.add(index);
+            else markedSpawns.remove(index);
+        }
+    }
+
+    private void rebuild() {
+        for (int i = 0; i < codes.length; i++) {
+            parent[i] = codes[i] == WALL ? -1 : i;
+            size[i] = 1;
+        }
+        for (int i = 0; i < codes.length; i++) {
+            if (parent[i] < 0) continue;
+            int x = i % width;
+            if (x + 1 < width && parent[i + 1] >= 0) union(i, i + 1);
+            if (i + width < codes.length && parent[i + width] >= 0) union(i, i + width);
+        }
+        needsRebuild = false;
+    }
+
+    private void linkNeighbours(int index) {
+        int x = index % width, y = index / width;
+        if (x > 0 && parent[index - 1] >= 0) union(index, index - 1);
+        if (x + 1 < width && parent[index + 1] >= 0) union(index, index + 1);
+        if (y > 0 && parent[index - width] >= 0) union(index, index - width);
+        if (y + 1 < height && parent[index + width] >= 0) union(index, index + width);
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra == rb) return;
+        if (size[ra] < size[rb]) { int t = ra; ra = rb; rb = t; }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+    }
+
+    // --- Vérification ---
+
+    /** Vérifie la carte dans son état courant (thread du validateur). */
+    Report validate() {
+        if (needsRebuild) rebuild();
+        int[] spawns = spawnCells();
+        List<String> warnings = new ArrayList<>();
+
+        // Connexité : chaque point d'apparition dans la composante du premier (le point lui-même compte comme du sol)
+        int[] disconnected = new int[spawns.length];
+        int disconnectedCount = 0;
+        int reference = -1;
+        for (int spawn : spawns) {
+            int root = componentOf(spawn);
+            if (reference == -1) reference = root;
+            else if (root != reference) disconnected[disconnectedCount++] = spawn;
+        }
+        if (disconnectedCount > 0) {
+            warnings.add(disconnectedCount + " point(s) d'apparition isolé(s) des autres");
+        }
+
+        // Abri : une case libre hors du souffle d'une bombe posée sur le point d'apparition
+        int[] trapped = new int[spawns.length];
+        int trappedCount = 0;
+        int minRoom = Integer.MAX_VALUE;
+        for (int spawn : spawns) {
+            int room = escapeRoom(spawn);
+            if (room < 0) {
+                trapped[trappedCount++] = spawn;
+                room = -room;
+            }
+            minRoom = Math.min(minRoom, room);
+        }
+        if (trappedCount > 0) {
+            warnings.add(trappedCount + " point(s) d'apparition sans abri pour la première bombe");
+        }
+        if (spawns.length < 2) {
+            warnings.add("Il faut au moins deux points d'apparition");
+        }
+
+        int open = codes.length - wallCount;
+        double density = open == 0 ? 0 : (double) breakableCount / open;
+        if (density < MIN_DENSITY) {
+            warnings.add(String.format("Peu de murs destructibles (%d %%)", Math.round(density * 100)));
+        } else if (density > MAX_DENSITY) {
+            warnings.add(String.format("Trop de murs destructibles (%d %%)", Math.round(density * 100)));
+        }
+
+        return new Report(width, height, spawns, Arrays.copyOf(disconnected, disconnectedCount),
+                Arrays.copyOf(trapped, trappedCount), spawns.length == 0 ? 0 : minRoom, density,
+                Collections.unmodifiableList(warnings));
+    }
+
+    // Marqueurs d'apparition, ou à défaut les quatre coins utilisés par la partie
+    private int[] spawnCells() {
+        if (!markedSpawns.isEmpty()) {
+            int[] cells = new int[markedSpawns.size()];
+            int i = 0;
+            for (int cell : markedSpawns) cells[i++] = cell;
+            return cells;
+        }
+        if (width < 3 || height < 3) return new int[0];
+        return new int[] {
+                width + 1,
+                (height - 2) * width + width - 2,
+                (height - 2) * width + 1,
+                width + width - 2
+        };
+    }
+
+    // Composante d'une case de départ ; un point d'apparition sur un mur (coin par défaut) est vidé par la partie
+    private int componentOf(int spawn) {
+        if (parent[spawn] >= 0) return find(spawn);
+        int x = spawn % width, y = spawn / width;
+        int root = -2 - spawn; // composante à lui seul si aucun voisin franchissable
+        if (x > 0 && parent[spawn - 1] >= 0) root = find(spawn - 1);
+        else if (x + 1 < width && parent[spawn + 1] >= 0) root = find(spawn + 1);
+        else if (y > 0 && parent[spawn - width] >= 0) root = find(spawn - width);
+        else if (y + 1 < height && parent[spawn + width] >= 0) root = find(spawn + width);
+        return root;
+    }
+
+    /**
+     * Parcours en largeur des cases libres (ni mur ni mur destructible) sur {@link #ESCAPE_STEPS} pas.
+     * @return nombre de cases atteintes, en négatif si aucune n'est hors du souffle de la bombe
+     */
+    private int escapeRoom(int spawn) {
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        int sx = spawn % width, sy = spawn / width;
+        int head = 0, tail = 0;
+        queue[tail++] = spawn;
+        stamp[spawn] = generation;
+        int depthEnd = tail, depth = 0;
+        boolean safe = false;
+        while (head < tail) {
+            if (head == depthEnd) {
+                if (++depth > ESCAPE_STEPS) break;
+                depthEnd = tail;
+            }
+            int cell = queue[head++];
+            int x = cell % width, y = cell / width;
+            boolean inBlast = (x == sx && Math.abs(y - sy) <= BOMB_RANGE) || (y == sy && Math.abs(x - sx) <= BOMB_RANGE);
+            if (!inBlast) safe = true;
+            if (depth == ESCAPE_STEPS) continue;
+            if (x > 0) tail = visit(cell - 1, tail);
+            if (x + 1 < width) tail = visit(cell + 1, tail);
+            if (y > 0) tail = visit(cell - width, tail);
+            if (y + 1 < height) tail = visit(cell + width, tail);
+        }
+        return safe ? head : -head;
+    }
+
+    private int visit(int cell, int tail) {
+        if (stamp[cell] == generation || codes[cell] == WALL || codes[cell] == BREAKABLE) return tail;
+        stamp[cell] = generation;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+}
@@ -3,9 +3,10 @@ package com.bomberman.model;
 import javafx.scene.image.Image;
 
 public class LifeBonus extends Bonus {
+    public static final String SPRITE = "/images/items/life_bonus.png";
 
     public LifeBonus(int x, int y) {
-        super(x, y, "/images/items/life_bonus.png");
+        super(x, y, SPRITE);
     }
 
     @Override
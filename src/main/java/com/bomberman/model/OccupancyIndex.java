@@ -0,0 +1,142 @@
+package com.bomberman.model;
+
+/**
+ * Index d'occupation de la grille : pour chaque case (identifiant y * width + x),
+ * les joueurs présents, la bombe posée et le bonus au sol.
+ * Tenu à jour au fil des déplacements, poses de bombes, explosions et ramassages,
+ * ce qui rend les recherches « qui est sur cette case ? » en O(1) au lieu de parcourir les listes.
+ */
+public class OccupancyIndex {
+    /** Nombre maximal de joueurs indexés (un bit par joueur dans un int). */
+    public static final int MAX_PLAYERS = Integer.SIZE;
+
+    private final int width;
+    private final int height;
+    private final int[] playerMasks; // bit i = joueur d'indice i (dans la liste des joueurs de la partie)
+    private final Bomb[] bombs;
+    private final Bonus[] bonuses;
+    // Cases à redessiner (null si personne n'affiche la partie)
+    private final DirtyCells dirtyCells;
+
+    public OccupancyIndex(int width, int height) {
+        this(width, height, null);
+    }
+
+    /**
+     * @param dirtyCells suivi des cases à redessiner, marquées à chaque arrivée/départ de joueur, bombe ou bonus
+     */
+    public OccupancyIndex(int width, int height, DirtyCells dirtyCells) {
+        this.width = width;
+        this.height = height;
+        this.dirtyCells = dirtyCells;
+        this.playerMasks = new int[width * height];
+        this.bombs = new Bomb[width * height];
+        this.bonuses = new Bonus[width * height];
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** @return identifiant de la case (x, y), ou -1 si hors de la grille */
+    public int cellId(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return -1;
+        return y * width + x;
+    }
+
+    // --- Joueurs ---
+
+    public void addPlayer(int slot, int x, int y) {
+        int cell = cellId(x, y);
+        if (cell >= 0) {
+            playerMasks[cell] |= 1 << slot;
+            markDirty(cell);
+        }
+    }
+
+    public void removePlayer(int slot, int x, int y) {
+        int cell = cellId(x, y);
+        if (cell >= 0) {
+            playerMasks[cell] &= ~(1 << slot);
+            markDirty(cell);
+        }
+    }
+
+    public void movePlayer(int slot, int oldX, int oldY, int newX, int newY) {
+        removePlayer(slot, oldX, oldY);
+        addPlayer(slot, newX, newY);
+    }
+
+    /** @return masque des indices de joueurs présents sur la case (0 si aucun) */
+    public int playersAt(int x, int y) {
+        int cell = cellId(x, y);
+        return cell >= 0 ? playerMasks[cell] : 0;
+    }
+
+    // --- Bombes ---
+
+    /**
+     * Enregistre une bombe sur sa case.
+     * @return false si une autre bombe occupe déjà la case (rien n'est modifié)
+     */
+    public boolean addBomb(Bomb bomb) {
+        int cell = cellId(bomb.getX(), bomb.getY());
+        if (cell < 0 || (bombs[cell] != null && bombs[cell] != bomb)) return false;
+        bombs[cell] = bomb;
+        markDirty(cell);
+        return true;
+    }
+
+    public void removeBomb(Bomb bomb) {
+        int cell = cellId(bomb.getX(), bomb.getY());
+        if (cell >= 0 && bombs[cell] == bomb) {
+            bombs[cell] = null;
+            markDirty(cell);
+        }
+    }
+
+    /** @return la bombe posée sur la case, ou null */
+    public Bomb bombAt(int x, int y) {
+        int cell = cellId(x, y);
+        return cell >= 0 ? bombs[cell] : null;
+    }
+
+    // --- Bonus ---
+
+    public void addBonus(Bonus bonus) {
+        int cell = cellId(bonus.getX(), bonus.getY());
+        if (cell >= 0) {
+            bonuses[cell] = bonus;
+            markDirty(cell);
+        }
+    }
+
+    public void removeBonus(Bonus bonus) {
+        int cell = cellId(bonus.getX(), bonus.getY());
+        if (cell >= 0 && bonuses[cell] == bonus) {
+            bonuses[cell] = null;
+            markDirty(cell);
+        }
+    }
+
+    /** @return le bonus au sol sur la case, ou null */
+    public Bonus bonusAt(int x, int y) {
+        int cell = cellId(x, y);
+        return cell >= 0 ? bonuses[cell] : null;
+    }
+
+    /** Vide l'index (toutes les cases occupées sont signalées à redessiner). */
+    public void clear() {
+        for (int cell = 0; cell < playerMasks.length; cell++) {
+            if (playerMasks[cell] != 0 || bombs[cell] != null || bonuses[cell] != null) {
+                playerMasks[cell] = 0;
+                bombs[cell] = null;
+                bonuses[cell] = null;
+                markDirty(cell);
+            }
+        }
+    }
+
+    private void markDirty(int cell) {
+        if (dirtyCells != null) dirtyCells.mark(cell);
+    }
+}
@@ -0,0 +1,227 @@
+package com.bomberman.model;
+
+import java.util.Arrays;
+
+/**
+ * Moteur de recherche de chemin réutilisable (un par IA), sans allocation pendant les recherches :
+ *   - A* avec un tas binaire d'entiers (identifiants de case) indexé pour la mise à jour des coûts,
+ *   - parcours en largeur sur des états (x, y, tick) codés dans un seul int,
+ *   - tableaux « visité » marqués par numéro de génération, jamais remis à zéro entre deux recherches.
+ * Les tableaux ne sont réalloués que si la taille de la grille change.
+ */
+public class PathFinder {
+    /**
+     * Test appliqué à une case (passable, sûre, ...).
+     */
+    public interface CellTest {
+        boolean test(int x, int y);
+    }
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private int width = -1;
+    private int height = -1;
+    private int cellCount = 0;
+
+    // --- A* ---
+    private int[] gCost = new int[0];
+    private int[] fCost = new int[0];
+    private int[] parent = new int[0];
+    private int[] openStamp = new int[0];   // == generation : case déjà découverte dans cette recherche
+    private int[] closedStamp = new int[0]; // == generation : case déjà développée dans cette recherche
+    private int[] heapPos = new int[0];     // position de la case dans le tas (-1 si absente)
+    private int[] heap = new int[0];
+    private int heapSize;
+
+    // --- Parcours en largeur (x, y, tick) ---
+    private int[] stateStamp = new int[0];
+    private int[] queue = new int[0];
+
+    private int generation = 0;
+
+    /**
+     * Premier pas du plus court chemin de (startX, startY) vers (goalX, goalY) passant uniquement par
+     * des cases acceptées par passable (la case d'arrivée comprise).
+     * @return identifiant (y * width + x) de la première case du chemin, la case de départ si départ == arrivée,
+     *         ou -1 s'il n'existe aucun chemin
+     */
+    public int findFirstStep(Grid grid, int startX, int startY, int goalX, int goalY, CellTest passable) {
+        prepare(grid);
+        int gen = nextGeneration();
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+
+        heapSize = 0;
+        gCost[start] = 0;
+        fCost[start] = manhattan(startX, startY, goalX, goalY);
+        parent[start] = -1;
+        openStamp[start] = gen;
+        heapPush(start);
+
+        while (heapSize > 0) {
+            int cell = heapPop();
+            if (cell == goal) {
+                int step = cell;
+                while (parent[step] != -1 && parent[step] != start) step = parent[step];
+                return step;
+            }
+            closedStamp[cell] = gen;
+            int cx = cell % width, cy = cell / width;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d], ny = cy + DY[d];
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                int next = ny * width + nx;
+                if (closedStamp[next] == gen || !passable.test(nx, ny)) continue;
+                int g = gCost[cell] + 1;
+                if (openStamp[next] != gen) {
+                    openStamp[next] = gen;
+                    gCost[next] = g;
+                    fCost[next] = g + manhattan(nx, ny, goalX, goalY);
+                    parent[next] = cell;
+                    heapPush(next);
+                } else if (g < gCost[next]) {
+                    gCost[next] = g;
+                    fCost[next] = g + manhattan(nx, ny, goalX, goalY);
+                    parent[next] = cell;
+                    siftUp(heapPos[next]);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parcours en largeur sur les états (x, y, tick) : existe-t-il une case acceptée par goal
+     * atteignable en moins de maxTicks pas, en ne traversant que des cases acceptées par walkable
+     * et sans repasser par la case de départ ?
+     */
+    public boolean canReach(Grid grid, int startX, int startY, int maxTicks, CellTest walkable, CellTest goal) {
+        prepare(grid);
+        int ticks = maxTicks + 1;
+        ensureStateCapacity(ticks);
+        int gen = nextGeneration();
+        int start = startY * width + startX;
+
+        int head = 0, tail = 0;
+        queue[tail++] = start; // état (cellule, tick 0)
+        stateStamp[start] = gen;
+        while (head < tail) {
+            int state = queue[head++];
+            int tick = state / cellCount;
+            int cell = state - tick * cellCount;
+            int x = cell % width, y = cell / width;
+            if (tick < maxTicks && goal.test(x, y)) return true;
+            if (tick >= maxTicks) continue;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                int next = ny * width + nx;
+                if (next == start) continue;
+                int nextState = (tick + 1) * cellCount + next;
+                if (stateStamp[nextState] == gen || !walkable.test(nx, ny)) continue;
+                stateStamp[nextState] = gen;
+                queue[tail++] = nextState;
+            }
+        }
+        return false;
+    }
+
+    // --- Préparation des tableaux ---
+
+    private void prepare(Grid grid) {
+        if (grid.getWidth() == width && grid.getHeight() == height) return;
+        width = grid.getWidth();
+        height = grid.getHeight();
+        cellCount = width * height;
+        gCost = new int[cellCount];
+        fCost = new int[cellCount];
+        parent = new int[cellCount];
+        openStamp = new int[cellCount];
+        closedStamp = new int[cellCount];
+        heapPos = new int[cellCount];
+        heap = new int[cellCount];
+        stateStamp = new int[0];
+        queue = new int[0];
+        generation = 0;
+    }
+
+    private void ensureStateCapacity(int ticks) {
+        int states = cellCount * ticks;
+        if (stateStamp.length < states) {
+            stateStamp = new int[states];
+            queue = new int[states];
+            // Nouveau tableau : les anciennes générations n'y figurent pas, inutile de repartir de 0
+        }
+    }
+
+    private int nextGeneration() {
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Débordement (très rare) : on remet les marques à zéro
+            Arrays.fill(openStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            Arrays.fill(stateStamp, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+
+    private static int manhattan(int x1, int y1, int x2, int y2) {
+        return Math.abs(x1 - x2) + Math.abs(y1 - y2);
+    }
+
+    // --- Tas binaire min sur fCost ---
+
+    private boolean less(int a, int b) {
+        if (fCost[a] != fCost[b]) return fCost[a] < fCost[b];
+        return gCost[a] > gCost[b]; // à f égal, on préfère la case la plus avancée
+    }
+
+    private void heapPush(int cell) {
+        heap[heapSize] = cell;
+        heapPos[cell] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int heapPop() {
+        int top = heap[0];
+        heapPos[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (!less(cell, heap[p])) break;
+            heap[i] = heap[p];
+            heapPos[heap[i]] = i;
+            i = p;
+        }
+        heap[i] = cell;
+        heapPos[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < heapSize && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], cell)) break;
+            heap[i] = heap[child];
+            heapPos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        heapPos[cell] = i;
+    }
+}
@@ -18,6 +18,10 @@ public class Player {
     private List<ActiveBonus> activeBonuses = new ArrayList<>();
     private boolean isHuman;
 
+    // Index d'occupation de la partie (null si le joueur n'est pas dans une Game) et indice du joueur dedans
+    private OccupancyIndex occupancy;
+    private int occupancySlot = -1;
+
     /**
      * Crée un joueur.
      * @param id identifiant du joueur (1, 2, ...)
@@ -46,6 +50,30 @@ public class Player {
      */
     public boolean isAI() { return !isHuman; }
 
+    /**
+     * Rattache le joueur à l'index d'occupation de la partie, tenu à jour à chaque déplacement.
+     */
+    void attachOccupancy(OccupancyIndex occupancy, int slot) {
+        this.occupancy = occupancy;
+        this.occupancySlot = slot;
+        occupancy.addPlayer(slot, x, y);
+    }
+
+    /**
+     * Replace le joueur dans un état sauvegardé (sans toucher à l'index d'occupation, reconstruit par la partie).
+     * @param activeBonuses bonus actifs, copiés
+     */
+    void restoreState(int x, int y, boolean alive, int lives, int bombRange, int maxBombs, List<ActiveBonus> activeBonuses) {
+        this.x = x;
+        this.y = y;
+        this.alive = alive;
+        this.lives = lives;
+        this.bombRange = bombRange;
+        this.maxBombs = maxBombs;
+        this.activeBonuses.clear();
+        for (ActiveBonus ab : activeBonuses) this.activeBonuses.add(ab.copy());
+    }
+
     public void kill() {
         this.alive = false;
     }
@@ -63,7 +91,8 @@ public class Player {
         if (!alive) return;
         int newX = x + dx;
         int newY = y + dy;
-        if (grid.isInBounds(newX, newY) && grid.getCell(newX, newY) == Grid.CellType.EMPTY) {
+        if (grid.isInBounds(newX, newY) && grid.getOrdinalUnchecked(newX, newY) == Grid.EMPTY_ORDINAL) {
+            if (occupancy != null) occupancy.movePlayer(occupancySlot, x, y, newX, newY);
             this.x = newX;
             this.y = newY;
         }
@@ -3,7 +3,7 @@ package com.bomberman.model;
 import java.util.*;
 
 public class PlayerAI extends Player {
-    private final Random random = new Random();
+    private final GameRandom random;
     private final AIDifficulty difficulty;
 
     // Pour savoir si l'IA doit fuir sa bombe (true = on vient de poser une bombe et on doit fuir)
@@ -11,55 +11,197 @@ public class PlayerAI extends Player {
     private int lastBombX = -1, lastBombY = -1, lastBombTimer = -1;
 
     public PlayerAI(int id, int startX, int startY, AIDifficulty difficulty) {
+        this(id, startX, startY, difficulty, new GameRandom(GameRandom.newSeed()));
+    }
+
+    /**
+     * @param random générateur propre à cette IA (dérivé de la graine de la partie pour la rejouer à l'identique)
+     */
+    public PlayerAI(int id, int startX, int startY, AIDifficulty difficulty, GameRandom random) {
         super(id, startX, startY, false);
         this.difficulty = difficulty;
+        this.random = random;
     }
 
     public AIDifficulty getDifficulty() { return difficulty; }
 
-    // Ignore la bombe que l'IA vient juste de poser si demandé
-    private int dangerLevelAt(int x, int y, List<Bomb> bombs, Grid grid, boolean ignoreOwnLastBomb) {
-        int minTick = Integer.MAX_VALUE;
-        for (Bomb bomb : bombs) {
-            int bx = bomb.getX(), by = bomb.getY(), range = bomb.getRange();
-            int timer = bomb.getTimer();
-            if (ignoreOwnLastBomb && bx == lastBombX && by == lastBombY && timer == lastBombTimer) continue;
-            if (x == bx && y == by) minTick = Math.min(minTick, timer);
-            if (y == by && Math.abs(x - bx) <= range) {
-                boolean blocked = false;
-                for (int ix = Math.min(x, bx) + 1; ix < Math.max(x, bx); ix++) {
-                    if (grid.getCell(ix, y) == Grid.CellType.INDESTRUCTIBLE) { blocked = true; break; }
-                }
-                if (!blocked) minTick = Math.min(minTick, timer);
-            }
-            if (x == bx && Math.abs(y - by) <= range) {
-                boolean blocked = false;
-                for (int iy = Math.min(y, by) + 1; iy < Math.max(y, by); iy++) {
-                    if (grid.getCell(x, iy) == Grid.CellType.INDESTRUCTIBLE) { blocked = true; break; }
-                }
-                if (!blocked) minTick = Math.min(minTick, timer);
-            }
+    /**
+     * Mémoire de l'IA d'un tick à l'autre (générateur et fuite de sa dernière bombe), pour les instantanés de partie.
+     * Le reste de l'état de l'IA est recalculé à chaque décision.
+     */
+    static final class Memory {
+        final long randomState;
+        final boolean mustFleeOwnBomb, mustFleeOwnBombNormal;
+        final int lastBombX, lastBombY, lastBombTimer;
+
+        Memory(long randomState, boolean mustFleeOwnBomb, boolean mustFleeOwnBombNormal, int lastBombX, int lastBombY, int lastBombTimer) {
+            this.randomState = randomState;
+            this.mustFleeOwnBomb = mustFleeOwnBomb;
+            this.mustFleeOwnBombNormal = mustFleeOwnBombNormal;
+            this.lastBombX = lastBombX;
+            this.lastBombY = lastBombY;
+            this.lastBombTimer = lastBombTimer;
+        }
+
+        boolean matches(PlayerAI ai) {
+            return randomState == ai.random.getState() && mustFleeOwnBomb == ai.mustFleeOwnBomb
+                    && mustFleeOwnBombNormal == ai.mustFleeOwnBombNormal
+                    && lastBombX == ai.lastBombX && lastBombY == ai.lastBombY && lastBombTimer == ai.lastBombTimer;
+        }
+    }
+
+    Memory saveMemory() {
+        return new Memory(random.getState(), mustFleeOwnBomb, mustFleeOwnBombNormal, lastBombX, lastBombY, lastBombTimer);
+    }
+
+    /** Replace le générateur de l'IA sur une nouvelle graine (simulations de l'IA EXPERT). */
+    void reseed(long seed) {
+        random.setState(seed);
+    }
+
+    void restoreMemory(Memory memory) {
+        random.setState(memory.randomState);
+        mustFleeOwnBomb = memory.mustFleeOwnBomb;
+        mustFleeOwnBombNormal = memory.mustFleeOwnBombNormal;
+        lastBombX = memory.lastBombX;
+        lastBombY = memory.lastBombY;
+        lastBombTimer = memory.lastBombTimer;
+    }
+
+    /** Oublie la fuite en cours et la dernière bombe posée (IA qui reprend un joueur sans mémoire d'IA). */
+    void resetMemory() {
+        mustFleeOwnBomb = false;
+        mustFleeOwnBombNormal = false;
+        lastBombX = -1;
+        lastBombY = -1;
+        lastBombTimer = -1;
+    }
+
+    // Carte de danger partagée (fournie par la partie à chaque tick)
+    private DangerMap dangerMap;
+    // Bombe posée par cette IA pendant le tick en cours, pas encore enregistrée dans la carte de danger
+    private Bomb pendingBomb;
+
+    // Champs de distances vers chaque joueur, partagés par les IA de la partie (null : recherche A* propre à l'IA)
+    private FlowField[] targetFields;
+
+    void setTargetFields(FlowField[] targetFields) {
+        this.targetFields = targetFields;
+    }
+
+    // Recherche de chemin réutilisée d'un tick à l'autre, et tests de cases associés (créés une seule fois)
+    private final PathFinder pathFinder = new PathFinder();
+    private Grid searchGrid;
+    private int escapeBombX, escapeBombY, escapeBombTimer;
+    // On n'autorise la traversée que des cases vides ou destructibles ET sûres
+    private final PathFinder.CellTest safePassable = (x, y) -> {
+        int cell = searchGrid.getOrdinalUnchecked(x, y);
+        return (cell == Grid.EMPTY_ORDINAL || cell == Grid.DESTRUCTIBLE_ORDINAL)
+                && dangerLevelAt(x, y, searchGrid, false) == Integer.MAX_VALUE;
+    };
+    private final PathFinder.CellTest emptyCell = (x, y) -> searchGrid.getOrdinalUnchecked(x, y) == Grid.EMPTY_ORDINAL;
+    // Case sûre : hors de portée des bombes existantes ET de celle qu'on envisage de poser
+    private final PathFinder.CellTest safeFromEscapeBomb = (x, y) ->
+            dangerLevelAt(x, y, searchGrid, false) == Integer.MAX_VALUE
+                    && DangerMap.blastTicksFrom(escapeBombX, escapeBombY, getBombRange(), escapeBombTimer, x, y, searchGrid) == DangerMap.SAFE;
+
+    // Directions de déplacement (bas, haut, gauche, droite) et tampon des directions retenues
+    private static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+    private final int[] candidateDirs = new int[DIRECTIONS.length];
+
+    /**
+     * Nombre de ticks avant qu'une explosion atteigne (x, y), ou Integer.MAX_VALUE si la case est sûre.
+     * Lu dans la carte partagée ; seule la bombe posée par cette IA pendant ce tick y est ajoutée à la main.
+     * @param ignoreOwnLastBomb ignore la bombe que l'IA vient juste de poser
+     */
+    private int dangerLevelAt(int x, int y, Grid grid, boolean ignoreOwnLastBomb) {
+        int minTick = dangerMap.ticksUntilBlast(x, y);
+        if (pendingBomb != null && !ignoreOwnLastBomb) {
+            minTick = Math.min(minTick, DangerMap.blastTicksFrom(pendingBomb, x, y, grid));
         }
         return minTick;
     }
 
-    public void updateAI(Grid grid, List<Bomb> bombs, List<Player> allPlayers) {
-        if (!isAlive()) return;
+    /**
+     * Intention d'une IA pour un tick : poser une bombe sur sa case de départ, puis se déplacer de (dx, dy).
+     * Calculée sans rien modifier de la partie, puis appliquée par {@link Game}.
+     */
+    public static final class Intent {
+        public static final Intent NONE = new Intent(false, 0, 0);
+
+        public final boolean dropBomb;
+        public final int dx;
+        public final int dy;
+
+        public Intent(boolean dropBomb, int dx, int dy) {
+            this.dropBomb = dropBomb;
+            this.dx = dx;
+            this.dy = dy;
+        }
+
+        /**
+         * @return le code de l'intention sur 4 bits, tel qu'enregistré dans un replay :
+         * bit 3 pour la bombe, puis 0 sans déplacement ou 1 + code du pas ({@link PlayerAction#code()})
+         */
+        public int code() {
+            PlayerAction move = PlayerAction.fromMove(dx, dy);
+            return (dropBomb ? 8 : 0) | (move != null ? move.code() + 1 : 0);
+        }
+
+        /** @return l'intention correspondant au code (voir {@link #code()}) */
+        public static Intent fromCode(int code) {
+            PlayerAction move = PlayerAction.fromCode((code & 7) - 1);
+            boolean bomb = (code & 8) != 0;
+            if (move == null || move == PlayerAction.BOMB) return bomb ? new Intent(true, 0, 0) : NONE;
+            return new Intent(bomb, move.dx, move.dy);
+        }
+    }
+
+    // Décision en cours : position envisagée et bombe prévue (la partie n'est modifiée qu'à l'application)
+    private int planX, planY;
+    private boolean plannedBomb;
+
+    /**
+     * Phase de décision : calcule l'intention de l'IA à partir de l'état courant de la partie,
+     * sans le modifier (grille, bombes et joueurs sont seulement lus). Seul l'état interne de l'IA évolue,
+     * ce qui permet de faire décider plusieurs IA en parallèle.
+     */
+    public Intent decide(Grid grid, List<Bomb> bombs, List<Player> allPlayers, DangerMap dangerMap) {
+        if (!isAlive()) return Intent.NONE;
+        this.dangerMap = dangerMap;
+        this.pendingBomb = null;
+        this.planX = getX();
+        this.planY = getY();
+        this.plannedBomb = false;
         switch (difficulty) {
             case FACILE -> updateEasyAI(grid, bombs);
             case NORMAL -> updateNormalAI(grid, bombs);
-            case DIFFICILE -> updateHardAI(grid, bombs, allPlayers);
+            // EXPERT : la recherche est pilotée par Game (ExpertPlanner) ; appelée seule, l'IA joue comme DIFFICILE
+            case DIFFICILE, EXPERT -> updateHardAI(grid, bombs, allPlayers);
+        }
+        int dx = planX - getX(), dy = planY - getY();
+        if (!plannedBomb && dx == 0 && dy == 0) return Intent.NONE;
+        return new Intent(plannedBomb, dx, dy);
+    }
+
+    // Déplacement envisagé : même règle que Player.move, appliquée à la position prévue
+    private void planMove(int dx, int dy, Grid grid) {
+        int newX = planX + dx, newY = planY + dy;
+        if (grid.isInBounds(newX, newY) && grid.getOrdinalUnchecked(newX, newY) == Grid.EMPTY_ORDINAL) {
+            planX = newX;
+            planY = newY;
         }
     }
 
     // --- FACILE ---
     private void updateEasyAI(Grid grid, List<Bomb> bombs) {
-        int curX = getX(), curY = getY();
+        int curX = planX, curY = planY;
         if (random.nextDouble() < 0.3) return;
         if (random.nextDouble() < 0.2) {
             Bomb bomb = dropBomb(Bomb.DEFAULT_TIMER, bombs);
             if (bomb != null) {
-                bombs.add(bomb);
+                plannedBomb = true;
+                pendingBomb = bomb;
                 mustFleeOwnBomb = true;
                 lastBombX = curX;
                 lastBombY = curY;
@@ -70,7 +212,7 @@ public class PlayerAI extends Player {
             fleeOwnBomb(grid, bombs, curX, curY);
             return;
         }
-        int myDanger = dangerLevelAt(curX, curY, bombs, grid, false);
+        int myDanger = dangerLevelAt(curX, curY, grid, false);
         if (myDanger < Integer.MAX_VALUE && random.nextDouble() < 0.6) {
             tryMoveToSafeNeighbour(grid, bombs, curX, curY);
         } else {
@@ -82,12 +224,12 @@ public class PlayerAI extends Player {
     private boolean mustFleeOwnBombNormal = false;
 
     private void updateNormalAI(Grid grid, List<Bomb> bombs) {
-        int curX = getX(), curY = getY();
+        int curX = planX, curY = planY;
         if (mustFleeOwnBombNormal) {
             fleeOwnBombNormal(grid, bombs, curX, curY);
             return;
         }
-        int myDanger = dangerLevelAt(curX, curY, bombs, grid, false);
+        int myDanger = dangerLevelAt(curX, curY, grid, false);
         if (myDanger < Integer.MAX_VALUE) {
             tryMoveToSafeNeighbour(grid, bombs, curX, curY);
             return;
@@ -95,7 +237,8 @@ public class PlayerAI extends Player {
         if (random.nextDouble() < 0.12) {
             Bomb bomb = dropBomb(Bomb.DEFAULT_TIMER, bombs);
             if (bomb != null) {
-                bombs.add(bomb);
+                plannedBomb = true;
+                pendingBomb = bomb;
                 mustFleeOwnBombNormal = true;
                 lastBombX = curX;
                 lastBombY = curY;
@@ -109,20 +252,20 @@ public class PlayerAI extends Player {
 
     // Pour la normale, copie la même logique de fuite que la difficile
     private boolean fleeOwnBombNormal(Grid grid, List<Bomb> bombs, int curX, int curY) {
-        int[][] directions = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
-        List<int[]> escapeDirs = new ArrayList<>();
-        for (int[] dir : directions) {
+        int escapeCount = 0;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int[] dir = DIRECTIONS[d];
             int nx = curX + dir[0], ny = curY + dir[1];
             if (grid.isInBounds(nx, ny)
                     && grid.getCell(nx, ny) == Grid.CellType.EMPTY
-                    && dangerLevelAt(nx, ny, bombs, grid, true) == Integer.MAX_VALUE) {
-                escapeDirs.add(dir);
+                    && dangerLevelAt(nx, ny, grid, true) == Integer.MAX_VALUE) {
+                candidateDirs[escapeCount++] = d;
             }
         }
-        if (!escapeDirs.isEmpty()) {
-            int[] dir = escapeDirs.get(random.nextInt(escapeDirs.size()));
-            move(dir[0], dir[1], grid);
-            if (dangerLevelAt(getX(), getY(), bombs, grid, false) == Integer.MAX_VALUE) {
+        if (escapeCount > 0) {
+            int[] dir = DIRECTIONS[candidateDirs[random.nextInt(escapeCount)]];
+            planMove(dir[0], dir[1], grid);
+            if (dangerLevelAt(planX, planY, grid, false) == Integer.MAX_VALUE) {
                 mustFleeOwnBombNormal = false; // on a fui !
             }
             return true;
@@ -130,10 +273,10 @@ public class PlayerAI extends Player {
         // Sinon, tente la case la moins risquée
         int bestDanger = Integer.MIN_VALUE;
         int[] bestDir = null;
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int nx = curX + dir[0], ny = curY + dir[1];
             if (grid.isInBounds(nx, ny) && grid.getCell(nx, ny) == Grid.CellType.EMPTY) {
-                int danger = dangerLevelAt(nx, ny, bombs, grid, true);
+                int danger = dangerLevelAt(nx, ny, grid, true);
                 if (danger > bestDanger) {
                     bestDanger = danger;
                     bestDir = dir;
@@ -141,9 +284,9 @@ public class PlayerAI extends Player {
             }
         }
         if (bestDir != null) {
-            move(bestDir[0], bestDir[1], grid);
+            planMove(bestDir[0], bestDir[1], grid);
         }
-        if (dangerLevelAt(getX(), getY(), bombs, grid, false) == Integer.MAX_VALUE) {
+        if (dangerLevelAt(planX, planY, grid, false) == Integer.MAX_VALUE) {
             mustFleeOwnBombNormal = false;
         }
         return false;
@@ -151,7 +294,7 @@ public class PlayerAI extends Player {
 
     // --- DIFFICILE ---
     private void updateHardAI(Grid grid, List<Bomb> bombs, List<Player> allPlayers) {
-        int curX = getX(), curY = getY();
+        int curX = planX, curY = planY;
 
         // 1. Fuite prioritaire de sa bombe
         if (mustFleeOwnBomb) {
@@ -159,7 +302,7 @@ public class PlayerAI extends Player {
             return;
         }
 
-        int myDanger = dangerLevelAt(curX, curY, bombs, grid, false);
+        int myDanger = dangerLevelAt(curX, curY, grid, false);
         if (myDanger < Integer.MAX_VALUE) {
             tryMoveToSafeNeighbour(grid, bombs, curX, curY);
             return;
@@ -167,12 +310,14 @@ public class PlayerAI extends Player {
 
         // CIBLE LE JOUEUR OU IA LA PLUS PROCHE (vivant)
         Player target = null;
+        int targetIndex = -1;
         int targetDist = Integer.MAX_VALUE;
-        for (Player p : allPlayers) {
+        for (int i = 0; i < allPlayers.size(); i++) {
+            Player p = allPlayers.get(i);
             if (p != this && p.isAlive()) {
                 int dist = Math.abs(p.getX() - curX) + Math.abs(p.getY() - curY);
                 if (dist < targetDist) {
-                    targetDist = dist; target = p;
+                    targetDist = dist; target = p; targetIndex = i;
                 }
             }
         }
@@ -187,7 +332,8 @@ public class PlayerAI extends Player {
                 if (canEscape || random.nextDouble() < 0.08) {
                     Bomb bomb = dropBomb(Bomb.DEFAULT_TIMER, bombs);
                     if (bomb != null) {
-                        bombs.add(bomb);
+                        plannedBomb = true;
+                        pendingBomb = bomb;
                         mustFleeOwnBomb = true;
                         lastBombX = curX;
                         lastBombY = curY;
@@ -203,9 +349,9 @@ public class PlayerAI extends Player {
 
         // Sinon, se rapproche de la cible (A*) MAIS NE RENTRE PAS DANS LES ZONES DANGEREUSES
         if (target != null) {
-            int[] nextMove = findSafePathToTarget(grid, bombs, curX, curY, target.getX(), target.getY());
+            int[] nextMove = findSafePathToTarget(grid, bombs, curX, curY, targetIndex, target.getX(), target.getY());
             if (nextMove != null) {
-                move(nextMove[0], nextMove[1], grid);
+                planMove(nextMove[0], nextMove[1], grid);
                 // Si il bloque sur un mur destructible, pose une bombe mais vérifie la fuite (robuste)
                 int nx = curX + nextMove[0], ny = curY + nextMove[1];
                 if (grid.isInBounds(nx, ny) && grid.getCell(nx, ny) == Grid.CellType.DESTRUCTIBLE) {
@@ -217,7 +363,8 @@ public class PlayerAI extends Player {
                         if (canEscape || random.nextDouble() < 0.08) {
                             Bomb bomb = dropBomb(Bomb.DEFAULT_TIMER, bombs);
                             if (bomb != null) {
-                                bombs.add(bomb);
+                                plannedBomb = true;
+                                pendingBomb = bomb;
                                 mustFleeOwnBomb = true;
                                 lastBombX = curX;
                                 lastBombY = curY;
@@ -244,7 +391,8 @@ public class PlayerAI extends Player {
                     if (canEscape || random.nextDouble() < 0.08) {
                         Bomb bomb = dropBomb(Bomb.DEFAULT_TIMER, bombs);
                         if (bomb != null) {
-                            bombs.add(bomb);
+                            plannedBomb = true;
+                            pendingBomb = bomb;
                             mustFleeOwnBomb = true;
                             lastBombX = curX;
                             lastBombY = curY;
@@ -266,68 +414,44 @@ public class PlayerAI extends Player {
     /**
      * Version sécurisée de la poursuite : renvoie le premier pas d'un chemin vers la cible
      * qui traverse seulement des cases sûres (hors danger). Si aucun chemin sûr n'existe, retourne null.
+     * Lit le champ de distances partagé vers la cible, recalculé seulement si nécessaire (aucune bombe
+     * de cette IA n'est encore prévue à ce stade, il suit donc la même règle que safePassable).
+     * Sans champ fourni par la partie, lance sa propre recherche A*.
      */
-    private int[] findSafePathToTarget(Grid grid, List<Bomb> bombs, int startX, int startY, int goalX, int goalY) {
-        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
-        int w = grid.getWidth(), h = grid.getHeight();
-        boolean[][] visited = new boolean[w][h];
-        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingInt(n -> n.fCost));
-        queue.add(new Node(startX, startY, null, 0, Math.abs(startX - goalX) + Math.abs(startY - goalY)));
-        while (!queue.isEmpty()) {
-            Node node = queue.poll();
-            if (node.x == goalX && node.y == goalY) {
-                Node prev = node;
-                while (prev.parent != null && prev.parent.parent != null)
-                    prev = prev.parent;
-                // S'assure que le chemin ne traverse QUE des cases sûres
-                Node check = node;
-                boolean allSafe = true;
-                while (check != null) {
-                    if (dangerLevelAt(check.x, check.y, bombs, grid, false) != Integer.MAX_VALUE) {
-                        allSafe = false;
-                        break;
-                    }
-                    check = check.parent;
-                }
-                if (allSafe)
-                    return new int[]{prev.x - startX, prev.y - startY};
-            }
-            visited[node.x][node.y] = true;
-            for (int[] dir : directions) {
-                int nx = node.x + dir[0], ny = node.y + dir[1];
-                if (grid.isInBounds(nx, ny) && !visited[nx][ny]) {
-                    Grid.CellType cell = grid.getCell(nx, ny);
-                    // On n'autorise la traversée que des cases vides ou destructibles ET sûres
-                    if ((cell == Grid.CellType.EMPTY || cell == Grid.CellType.DESTRUCTIBLE) &&
-                            dangerLevelAt(nx, ny, bombs, grid, false) == Integer.MAX_VALUE) {
-                        int gCost = node.gCost + 1;
-                        int hCost = Math.abs(nx - goalX) + Math.abs(ny - goalY);
-                        queue.add(new Node(nx, ny, node, gCost, hCost));
-                    }
-                }
-            }
+    private int[] findSafePathToTarget(Grid grid, List<Bomb> bombs, int startX, int startY, int targetIndex, int goalX, int goalY) {
+        if (dangerLevelAt(startX, startY, grid, false) != Integer.MAX_VALUE) return null;
+        int step;
+        FlowField field = targetFields != null && pendingBomb == null && targetIndex < targetFields.length
+                ? targetFields[targetIndex] : null;
+        if (field != null) {
+            field.update(grid, dangerMap, goalX, goalY);
+            step = field.firstStep(startX, startY);
+        } else {
+            searchGrid = grid;
+            step = pathFinder.findFirstStep(grid, startX, startY, goalX, goalY, safePassable);
         }
-        return null;
+        if (step < 0) return null;
+        return new int[]{step % grid.getWidth() - startX, step / grid.getWidth() - startY};
     }
 
     // Fuite intelligente de SA bombe (ignore la bombe qu'on vient de poser)
     private boolean fleeOwnBomb(Grid grid, List<Bomb> bombs, int curX, int curY) {
-        int[][] directions = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
-        List<int[]> escapeDirs = new ArrayList<>();
-        for (int[] dir : directions) {
+        int escapeCount = 0;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int[] dir = DIRECTIONS[d];
             int nx = curX + dir[0], ny = curY + dir[1];
             // IGNORE SA PROPRE BOMBE dans le danger
             if (grid.isInBounds(nx, ny)
                     && grid.getCell(nx, ny) == Grid.CellType.EMPTY
-                    && dangerLevelAt(nx, ny, bombs, grid, true) == Integer.MAX_VALUE) {
-                escapeDirs.add(dir);
+                    && dangerLevelAt(nx, ny, grid, true) == Integer.MAX_VALUE) {
+                candidateDirs[escapeCount++] = d;
             }
         }
-        if (!escapeDirs.isEmpty()) {
-            int[] dir = escapeDirs.get(random.nextInt(escapeDirs.size()));
-            move(dir[0], dir[1], grid);
+        if (escapeCount > 0) {
+            int[] dir = DIRECTIONS[candidateDirs[random.nextInt(escapeCount)]];
+            planMove(dir[0], dir[1], grid);
             // Vérifie si on est enfin sorti de la zone de danger de SA bombe
-            if (dangerLevelAt(getX(), getY(), bombs, grid, false) == Integer.MAX_VALUE) {
+            if (dangerLevelAt(planX, planY, grid, false) == Integer.MAX_VALUE) {
                 mustFleeOwnBomb = false; // On n'est plus dans la zone de danger
             }
             return true;
@@ -335,10 +459,10 @@ public class PlayerAI extends Player {
         // Si pas de case sûre ignorée, alors tente une case moins risquée (priorité à la fuite)
         int bestDanger = Integer.MIN_VALUE;
         int[] bestDir = null;
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int nx = curX + dir[0], ny = curY + dir[1];
             if (grid.isInBounds(nx, ny) && grid.getCell(nx, ny) == Grid.CellType.EMPTY) {
-                int danger = dangerLevelAt(nx, ny, bombs, grid, true);
+                int danger = dangerLevelAt(nx, ny, grid, true);
                 if (danger > bestDanger) {
                     bestDanger = danger;
                     bestDir = dir;
@@ -346,9 +470,9 @@ public class PlayerAI extends Player {
             }
         }
         if (bestDir != null) {
-            move(bestDir[0], bestDir[1], grid);
+            planMove(bestDir[0], bestDir[1], grid);
         }
-        if (dangerLevelAt(getX(), getY(), bombs, grid, false) == Integer.MAX_VALUE) {
+        if (dangerLevelAt(planX, planY, grid, false) == Integer.MAX_VALUE) {
             mustFleeOwnBomb = false;
         }
         return false;
@@ -356,19 +480,19 @@ public class PlayerAI extends Player {
 
     // Déplacement normal (case vraiment sûre)
     private boolean tryMoveToSafeNeighbour(Grid grid, List<Bomb> bombs, int curX, int curY) {
-        int[][] directions = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
-        List<int[]> choices = new ArrayList<>();
-        for (int[] dir : directions) {
+        int choiceCount = 0;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int[] dir = DIRECTIONS[d];
             int nx = curX + dir[0], ny = curY + dir[1];
             if (grid.isInBounds(nx, ny)
                     && grid.getCell(nx, ny) == Grid.CellType.EMPTY
-                    && dangerLevelAt(nx, ny, bombs, grid, false) == Integer.MAX_VALUE) {
-                choices.add(dir);
+                    && dangerLevelAt(nx, ny, grid, false) == Integer.MAX_VALUE) {
+                candidateDirs[choiceCount++] = d;
             }
         }
-        if (!choices.isEmpty()) {
-            int[] dir = choices.get(random.nextInt(choices.size()));
-            move(dir[0], dir[1], grid);
+        if (choiceCount > 0) {
+            int[] dir = DIRECTIONS[candidateDirs[random.nextInt(choiceCount)]];
+            planMove(dir[0], dir[1], grid);
             return true;
         }
         return false;
@@ -376,48 +500,13 @@ public class PlayerAI extends Player {
 
     // Vérifie si l'IA peut atteindre une case sûre AVANT que la bombe n'explose
     private boolean canReallyEscapeAfterBomb(Grid grid, List<Bomb> bombs, int startX, int startY, int bombTimer) {
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-        List<Bomb> bombsWithNew = new ArrayList<>(bombs);
-        bombsWithNew.add(new Bomb(startX, startY, bombTimer, getBombRange(), this));
-
-        Queue<int[]> queue = new ArrayDeque<>();
-        Set<String> visited = new HashSet<>();
-        queue.add(new int[]{startX, startY, 0});
-        visited.add(startX + "," + startY + ",0");
-
-        while (!queue.isEmpty()) {
-            int[] node = queue.poll();
-            int x = node[0], y = node[1], tick = node[2];
-            // Pour la recherche d'échappatoire, on ignore la bombe fraîchement posée
-            if (tick < bombTimer && dangerLevelAt(x, y, bombsWithNew, grid, true) == Integer.MAX_VALUE) {
-                return true;
-            }
-            if (tick >= bombTimer) continue;
-            for (int[] dir : directions) {
-                int nx = x + dir[0], ny = y + dir[1];
-                String state = nx + "," + ny + "," + (tick + 1);
-                if (grid.isInBounds(nx, ny)
-                        && grid.getCell(nx, ny) == Grid.CellType.EMPTY
-                        && !visited.contains(state)) {
-                    if (!(nx == startX && ny == startY && tick > 0)) {
-                        visited.add(state);
-                        queue.add(new int[]{nx, ny, tick + 1});
-                    }
-                }
-            }
-        }
-        return false;
+        searchGrid = grid;
+        escapeBombX = startX;
+        escapeBombY = startY;
+        escapeBombTimer = bombTimer;
+        return pathFinder.canReach(grid, startX, startY, bombTimer, emptyCell, safeFromEscapeBomb);
     }
 
     // Version ancienne : ne vérifiait pas la sécurité des cases du chemin !
     // private int[] findPathToTargetOrDestructible(...)
-
-    private static class Node {
-        int x, y, gCost, hCost, fCost;
-        Node parent;
-        Node(int x, int y, Node parent, int gCost, int hCost) {
-            this.x = x; this.y = y; this.parent = parent;
-            this.gCost = gCost; this.hCost = hCost; this.fCost = gCost + hCost;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.bomberman.model;
+
+/**
+ * Action d'un joueur humain, telle qu'enregistrée dans un replay.
+ * Le code tient sur 3 bits (voir {@link Replay}).
+ */
+public enum PlayerAction {
+    UP(0, -1),
+    DOWN(0, 1),
+    LEFT(-1, 0),
+    RIGHT(1, 0),
+    BOMB(0, 0);
+
+    private static final PlayerAction[] VALUES = values();
+
+    public final int dx;
+    public final int dy;
+
+    PlayerAction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /** @return le code de l'action (0 à 7) */
+    public int code() { return ordinal(); }
+
+    /** @return l'action correspondant au code, ou null si le code est inconnu */
+    public static PlayerAction fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+
+    /** @return l'action de déplacement correspondant à (dx, dy), ou null si ce n'est pas un pas d'une case */
+    public static PlayerAction fromMove(int dx, int dy) {
+        for (PlayerAction action : VALUES) {
+            if (action != BOMB && action.dx == dx && action.dy == dy) return action;
+        }
+        return null;
+    }
+}
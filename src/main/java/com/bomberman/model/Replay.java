@@ -0,0 +1,223 @@
+package com.bomberman.model;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Enregistrement d'une partie : tout ce qu'il faut pour la rejouer à l'identique
+ * (graine, niveau, paramètres), le journal des actions des joueurs humains et les coups des IA EXPERT.
+ * Les autres IA, les bombes et les bonus ne sont pas enregistrés : ils sont recalculés à partir de la graine.
+ * La recherche des IA EXPERT dépend du temps de calcul de la machine : ses coups sont enregistrés
+ * à chaque tick, 4 bits par IA (voir {@link PlayerAI.Intent#code()}), deux par octet, rangés par tick puis par IA.
+ *
+ * Journal des actions : pour chaque action, deux entiers variables (varint, 7 bits par octet) :
+ *   - l'écart en ticks avec l'action précédente,
+ *   - (indice du joueur << 3) | code de l'action.
+ * Une action tient donc le plus souvent sur 2 octets.
+ *
+ * Format du fichier (.bmr) :
+ *   "BMRP", version (1 octet), graine (long), ticks par seconde, largeur, hauteur, humains, IA,
+ *   difficulté (ordinal + 1, 0 si aucune), limites de recherche des IA EXPERT (budget en ms, simulations ; depuis la version 2), niveau (1 octet de présence, nom, 3 images, lignes, colonnes, cases),
+ *   tick de fin, nombre d'actions, taille du journal puis le journal,
+ *   taille puis coups des IA EXPERT (depuis la version 3 ; avant, ils sont recherchés avec les limites enregistrées).
+ */
+public class Replay {
+    public static final String FILE_EXTENSION = ".bmr";
+    private static final byte[] MAGIC = {'B', 'M', 'R', 'P'};
+    private static final int VERSION = 3;
+
+    private final long seed;
+    private final int ticksPerSecond;
+    private final int width;
+    private final int height;
+    private final int playerCount;
+    private final int iaCount;
+    private final AIDifficulty aiDifficulty;
+    private final int expertBudgetMillis;
+    private final int expertMaxRollouts;
+    private final Level level;
+    private final int endTick;
+    private final int eventCount;
+    private final byte[] events;
+    private final byte[] expertIntents;
+
+    /**
+     * @param expertIntents coups des IA EXPERT (voir le format), ou null pour les rechercher avec les limites données
+     */
+    public Replay(long seed, int ticksPerSecond, int width, int height, int playerCount, int iaCount,
+                  AIDifficulty aiDifficulty, int expertBudgetMillis, int expertMaxRollouts,
+                  Level level, int endTick, int eventCount, byte[] events, byte[] expertIntents) {
+        this.seed = seed;
+        this.ticksPerSecond = ticksPerSecond;
+        this.width = width;
+        this.height = height;
+        this.playerCount = playerCount;
+        this.iaCount = iaCount;
+        this.aiDifficulty = aiDifficulty;
+        this.expertBudgetMillis = expertBudgetMillis;
+        this.expertMaxRollouts = expertMaxRollouts;
+        this.level = level;
+        this.endTick = endTick;
+        this.eventCount = eventCount;
+        this.events = events;
+        this.expertIntents = expertIntents;
+    }
+
+    public long getSeed() { return seed; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getPlayerCount() { return playerCount; }
+    public int getIaCount() { return iaCount; }
+    public AIDifficulty getAIDifficulty() { return aiDifficulty; }
+    public int getExpertBudgetMillis() { return expertBudgetMillis; }
+    public int getExpertMaxRollouts() { return expertMaxRollouts; }
+    public Level getLevel() { return level; }
+    /** @return dernier tick de la partie enregistrée */
+    public int getEndTick() { return endTick; }
+    public int getEventCount() { return eventCount; }
+    /** @return journal des actions encodé (ne pas modifier) */
+    byte[] getEventData() { return events; }
+
+    /**
+     * @return une partie neuve dans l'état initial de l'enregistrement, qui rejoue les coups enregistrés des IA EXPERT
+     * (ou, pour un ancien replay, les recherche avec les limites d'origine)
+     */
+    public Game createGame() {
+        Game game = new Game(width, height, playerCount, iaCount, level, aiDifficulty, seed);
+        if (expertIntents != null) {
+            game.playRecordedExpertIntents(expertIntents);
+        } else {
+            game.setExpertSearchLimits(expertBudgetMillis, expertMaxRollouts);
+        }
+        return game;
+    }
+
+    // --- Lecture / écriture ---
+
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(os);
+        }
+    }
+
+    public static Replay load(Path file) throws IOException {
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(is);
+        }
+    }
+
+    public void write(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        writeVarint(out, ticksPerSecond);
+        writeVarint(out, width);
+        writeVarint(out, height);
+        writeVarint(out, playerCount);
+        writeVarint(out, iaCount);
+        writeVarint(out, aiDifficulty == null ? 0 : aiDifficulty.ordinal() + 1);
+        writeVarint(out, expertBudgetMillis);
+        writeVarint(out, expertMaxRollouts);
+        out.writeBoolean(level != null);
+        if (level != null) {
+            out.writeUTF(nullToEmpty(level.getName()));
+            out.writeUTF(nullToEmpty(level.getGroundImagePath()));
+            out.writeUTF(nullToEmpty(level.getWallIndestructibleImagePath()));
+            out.writeUTF(nullToEmpty(level.getWallDestructibleImagePath()));
+            int[][] layout = level.getLayout();
+            int rows = layout == null ? 0 : layout.length;
+            int cols = rows == 0 ? 0 : layout[0].length;
+            writeVarint(out, rows);
+            writeVarint(out, cols);
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    out.writeByte(c < layout[r].length ? layout[r][c] : 0);
+                }
+            }
+        }
+        writeVarint(out, endTick);
+        writeVarint(out, eventCount);
+        writeVarint(out, events.length);
+        out.write(events);
+        byte[] intents = expertIntents == null ? new byte[0] : expertIntents;
+        writeVarint(out, intents.length);
+        out.write(intents);
+        out.flush();
+    }
+
+    public static Replay read(InputStream is) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!java.util.Arrays.equals(magic, MAGIC)) throw new IOException("Fichier de replay invalide");
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) throw new IOException("Version de replay non prise en charge : " + version);
+        long seed = in.readLong();
+        int ticksPerSecond = readVarint(in);
+        int width = readVarint(in);
+        int height = readVarint(in);
+        int playerCount = readVarint(in);
+        int iaCount = readVarint(in);
+        int difficulty = readVarint(in);
+        AIDifficulty aiDifficulty = difficulty == 0 ? null : AIDifficulty.values()[difficulty - 1];
+        // Version 1 : limites non enregistrées ; rejouée en nombre de simulations
+        int expertBudgetMillis = version >= 2 ? readVarint(in) : 0;
+        int expertMaxRollouts = version >= 2 ? readVarint(in) : ExpertPlanner.DEFAULT_MAX_ROLLOUTS;
+        Level level = null;
+        if (in.readBoolean()) {
+            String name = in.readUTF();
+            String ground = in.readUTF();
+            String ind = in.readUTF();
+            String des = in.readUTF();
+            int rows = readVarint(in);
+            int cols = readVarint(in);
+            int[][] layout = new int[rows][cols];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    layout[r][c] = in.readUnsignedByte();
+                }
+            }
+            level = new Level(name, ground, ind, des, rows == 0 ? null : layout);
+        }
+        int endTick = readVarint(in);
+        int eventCount = readVarint(in);
+        byte[] events = new byte[readVarint(in)];
+        in.readFully(events);
+        byte[] expertIntents = null;
+        if (version >= 3) {
+            expertIntents = new byte[readVarint(in)];
+            in.readFully(expertIntents);
+        }
+        return new Replay(seed, ticksPerSecond, width, height, playerCount, iaCount, aiDifficulty,
+                expertBudgetMillis, expertMaxRollouts, level, endTick, eventCount, events, expertIntents);
+    }
+
+    // --- Entiers variables (7 bits par octet, bit de poids fort = suite) ---
+
+    static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Entier variable trop long");
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -0,0 +1,164 @@
+package com.bomberman.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rejoue un {@link Replay} : recrée la partie à partir de la graine et réapplique les actions enregistrées
+ * après les mêmes ticks. Fonctionne sans interface ({@link #runToEnd()}, {@link #seek(int)})
+ * ou au rythme d'un affichage via {@link #getEngine()} et {@link #setSpeed(int)} (×1, ×4, ×16...).
+ *
+ * Un point de reprise (instantané de la partie et position dans le journal) est gardé tous les
+ * {@link #CHECKPOINT_INTERVAL} ticks déjà joués : un déplacement repart du point le plus proche
+ * au lieu de tout rejouer depuis le début. L'instantané est pris avant les actions du tick, dans l'état
+ * d'où la partie d'origine a lancé la recherche des IA EXPERT ; les actions sont réappliquées à la reprise.
+ */
+public final class ReplayPlayer implements GameEngine.TickListener {
+    /** Écart en ticks entre deux points de reprise (10 s au rythme par défaut). */
+    public static final int CHECKPOINT_INTERVAL = 50;
+
+    private final Replay replay;
+    private final byte[] events;
+    private final Game game;
+    private final GameEngine engine;
+    private int speed = 1;
+
+    // Points de reprise : checkpoints.get(i) est pris au tick i * CHECKPOINT_INTERVAL
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    // Lecture du journal : position dans les octets, nombre d'actions lues, prochaine action décodée
+    private int position;
+    private int eventsRead;
+    private int nextTick;
+    private int nextPlayer;
+    private PlayerAction nextAction;
+
+    /** Instantané de la partie et état de lecture du journal au même tick. */
+    private static final class Checkpoint {
+        final GameSnapshot snapshot;
+        final int position, eventsRead, nextTick, nextPlayer;
+        final PlayerAction nextAction;
+
+        Checkpoint(GameSnapshot snapshot, int position, int eventsRead, int nextTick, int nextPlayer, PlayerAction nextAction) {
+            this.snapshot = snapshot;
+            this.position = position;
+            this.eventsRead = eventsRead;
+            this.nextTick = nextTick;
+            this.nextPlayer = nextPlayer;
+            this.nextAction = nextAction;
+        }
+    }
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.events = replay.getEventData();
+        this.game = replay.createGame();
+        this.engine = new GameEngine(game, replay.getTicksPerSecond());
+        engine.addTickListener(this); // en premier : les actions sont appliquées avant l'affichage
+        readNextEvent();
+        saveCheckpoint();
+        applyDueEvents(); // actions faites avant le premier tick
+    }
+
+    public Replay getReplay() { return replay; }
+    public Game getGame() { return game; }
+    public GameEngine getEngine() { return engine; }
+    public int getSpeed() { return speed; }
+
+    /** @return true si la fin de l'enregistrement (ou de la partie) est atteinte */
+    public boolean isFinished() {
+        return game.isGameOver() || game.getCurrentTick() >= replay.getEndTick();
+    }
+
+    /** Abonné prévenu après chaque tick rejoué. */
+    public void addTickListener(GameEngine.TickListener listener) {
+        engine.addTickListener(listener);
+    }
+
+    /** Vitesse de lecture : multiplicateur du rythme de ticks d'origine. */
+    public void setSpeed(int speed) {
+        this.speed = Math.max(1, speed);
+        engine.setTicksPerSecond(replay.getTicksPerSecond() * this.speed);
+        engine.resetClock();
+    }
+
+    /**
+     * Rejoue sans attendre jusqu'à la fin de l'enregistrement.
+     * @return nombre de ticks exécutés
+     */
+    public long runToEnd() {
+        return engine.runHeadless(Math.max(0, replay.getEndTick() - game.getCurrentTick()));
+    }
+
+    /**
+     * Amène la partie au tick donné, en avant comme en arrière : repart du point de reprise
+     * le plus proche avant la cible (s'il est plus près que la position actuelle) puis rejoue sans attendre.
+     * Les abonnés ne sont prévenus que des ticks rejoués après ce point.
+     */
+    public void seek(int tick) {
+        int target = Math.max(0, Math.min(tick, replay.getEndTick()));
+        int current = game.getCurrentTick();
+        int index = Math.min(target / CHECKPOINT_INTERVAL, checkpoints.size() - 1);
+        Checkpoint checkpoint = checkpoints.get(index);
+        if (target < current || checkpoint.snapshot.getTick() > current) {
+            restoreCheckpoint(checkpoint);
+        }
+        engine.runHeadless(target - game.getCurrentTick());
+        engine.resetClock();
+    }
+
+    @Override
+    public void onTick(Game game, long tick) {
+        if (game.getCurrentTick() == checkpoints.size() * CHECKPOINT_INTERVAL) {
+            saveCheckpoint();
+        }
+        applyDueEvents();
+    }
+
+    private void saveCheckpoint() {
+        checkpoints.add(new Checkpoint(game.snapshot(), position, eventsRead, nextTick, nextPlayer, nextAction));
+    }
+
+    private void restoreCheckpoint(Checkpoint checkpoint) {
+        game.restore(checkpoint.snapshot);
+        position = checkpoint.position;
+        eventsRead = checkpoint.eventsRead;
+        nextTick = checkpoint.nextTick;
+        nextPlayer = checkpoint.nextPlayer;
+        nextAction = checkpoint.nextAction;
+        applyDueEvents();
+    }
+
+    /** Applique les actions enregistrées au tick courant de la partie, dans l'ordre d'origine. */
+    private void applyDueEvents() {
+        int current = game.getCurrentTick();
+        while (nextAction != null && nextTick <= current) {
+            if (nextPlayer < game.getPlayers().size()) {
+                game.applyAction(game.getPlayers().get(nextPlayer), nextAction);
+            }
+            readNextEvent();
+        }
+    }
+
+    private void readNextEvent() {
+        if (eventsRead >= replay.getEventCount() || position >= events.length) {
+            nextAction = null;
+            return;
+        }
+        nextTick += readVarint();
+        int packed = readVarint();
+        nextPlayer = packed >>> 3;
+        nextAction = PlayerAction.fromCode(packed & 0x7);
+        eventsRead++;
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; shift < 35 && position < events.length; shift += 7) {
+            int b = events[position++] & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) break;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bomberman.model;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Enregistre les actions des joueurs humains et les coups des IA EXPERT d'une partie
+ * (branché sur {@link Game#setInputListener}).
+ * Chaque action est datée du tick courant de la partie : elle sera rejouée juste après ce tick.
+ */
+public class ReplayRecorder implements Game.InputListener {
+    private final Game game;
+    private final Level level;
+    private final int playerCount;
+    private final int iaCount;
+    private final int ticksPerSecond;
+    private final ByteArrayOutputStream events = new ByteArrayOutputStream(256);
+    private int eventCount = 0;
+    private int lastTick = 0;
+    // Coups des IA EXPERT, deux par octet (voir Replay), et nombre d'octets utilisés
+    private byte[] expertIntents = new byte[0];
+    private int expertIntentBytes = 0;
+
+    /**
+     * @param level niveau utilisé pour créer la partie (null si grille aléatoire)
+     */
+    public ReplayRecorder(Game game, Level level, int playerCount, int iaCount, int ticksPerSecond) {
+        this.game = game;
+        this.level = level;
+        this.playerCount = playerCount;
+        this.iaCount = iaCount;
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    @Override
+    public void onInput(int playerIndex, PlayerAction action) {
+        int tick = game.getCurrentTick();
+        try {
+            Replay.writeVarint(events, tick - lastTick);
+            Replay.writeVarint(events, (playerIndex << 3) | action.code());
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e); // impossible en mémoire
+        }
+        lastTick = tick;
+        eventCount++;
+    }
+
+    @Override
+    public void onExpertIntent(int aiIndex, PlayerAI.Intent intent) {
+        int position = game.getCurrentTick() * game.getAICount() + aiIndex;
+        int index = position / 2;
+        if (index >= expertIntents.length) {
+            expertIntents = Arrays.copyOf(expertIntents, Math.max(64, Math.max(index + 1, expertIntents.length * 2)));
+        }
+        int shift = (position & 1) * 4;
+        expertIntents[index] = (byte) ((expertIntents[index] & ~(0xF << shift)) | (intent.code() << shift));
+        expertIntentBytes = Math.max(expertIntentBytes, index + 1);
+    }
+
+    public int getEventCount() { return eventCount; }
+
+    /** @return le replay de la partie jusqu'au tick courant */
+    public Replay toReplay() {
+        return new Replay(game.getSeed(), ticksPerSecond, game.getGrid().getWidth(), game.getGrid().getHeight(),
+                playerCount, iaCount, game.getAIDifficulty(), game.getExpertBudgetMillis(), game.getExpertMaxRollouts(),
+                level, game.getCurrentTick(), eventCount, events.toByteArray(),
+                Arrays.copyOf(expertIntents, expertIntentBytes));
+    }
+}
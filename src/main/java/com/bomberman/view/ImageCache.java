@@ -0,0 +1,92 @@
+package com.bomberman.view;
+
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache d'images partagé par toute l'application.
+ * Chaque image est décodée une seule fois (clé = chemin, et taille demandée le cas échéant),
+ * puis réutilisée par les contrôleurs et les bonus : plus de décodage PNG en pleine partie.
+ *
+ * Les chemins commençant par "/" (ou relatifs) sont cherchés dans le classpath ;
+ * à défaut, pour les versions redimensionnées, on essaie le fichier sur disque (images choisies dans l'éditeur).
+ * Une image introuvable est aussi mémorisée (on ne retente pas à chaque appel).
+ */
+public final class ImageCache {
+    private static final Map<String, Optional<Image>> CACHE = new ConcurrentHashMap<>();
+
+    private ImageCache() {}
+
+    /**
+     * @param path chemin de la ressource (par exemple "/images/items/bombe.png")
+     * @return l'image en taille réelle, ou null si la ressource est introuvable
+     */
+    public static Image get(String path) {
+        if (path == null) return null;
+        String resourcePath = normalize(path);
+        return CACHE.computeIfAbsent(resourcePath, ImageCache::loadResource).orElse(null);
+    }
+
+    /**
+     * @return l'image redimensionnée (ratio conservé, lissée), cherchée dans le classpath puis sur disque,
+     *         ou null si introuvable
+     */
+    public static Image get(String path, double width, double height) {
+        if (path == null) return null;
+        String key = path + "@" + width + "x" + height;
+        return CACHE.computeIfAbsent(key, k -> loadScaled(path, width, height)).orElse(null);
+    }
+
+    /**
+     * Décode à l'avance les images données (à appeler avant une partie, hors de la boucle de jeu).
+     */
+    public static void preload(String... paths) {
+        for (String path : paths) {
+            get(path);
+        }
+    }
+
+    /** Vide le cache (par exemple après modification d'une image sur disque). */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private static String normalize(String path) {
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private static Optional<Image> loadResource(String resourcePath) {
+        try (InputStream is = ImageCache.class.getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                System.err.println("Ressource introuvable : " + resourcePath);
+                return Optional.empty();
+            }
+            return Optional.of(new Image(is));
+        } catch (Exception e) {
+            System.err.println("Erreur lors du chargement de l'image : " + resourcePath + " - " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Image> loadScaled(String path, double width, double height) {
+        try {
+            java.net.URL url = path.startsWith("/") ? ImageCache.class.getResource(path) : null;
+            if (url != null) {
+                return Optional.of(new Image(url.toExternalForm(), width, height, true, true, true));
+            }
+            File file = new File(path);
+            if (file.isFile()) {
+                return Optional.of(new Image(file.toURI().toString(), width, height, true, true, true));
+            }
+            return Optional.empty();
+        } catch (Exception e) {
+            System.err.println("Erreur lors du chargement de l'image : " + path + " - " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.bomberman.view;
+
+import com.bomberman.model.Level;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache des aperçus de niveaux de l'écran de configuration.
+ *
+ * Un aperçu est l'image du plateau 15x13 dessiné avec le vrai layout du niveau et ses images.
+ * Il est composé pixel par pixel dans une {@link WritableImage} (sans Canvas ni snapshot), ce qui
+ * permet de le calculer hors du thread JavaFX. Trois niveaux de cache :
+ *   - en mémoire, les derniers aperçus utilisés (LRU),
+ *   - sur disque, un PNG par aperçu, nommé d'après le condensé du contenu du niveau (layout, images, taille)
+ *     : un niveau modifié a un autre nom, l'ancien fichier n'est simplement plus utilisé,
+ *   - les pixels des images de cases, déjà mises à l'échelle.
+ */
+public final class LevelThumbnailCache {
+    /** Dimensions du plateau dessiné, les mêmes que celles de la partie. */
+    public static final int GRID_WIDTH = 15;
+    public static final int GRID_HEIGHT = 13;
+    public static final Path CACHE_DIR = Paths.get("thumbnails");
+    private static final int MEMORY_CAPACITY = 48;
+    // À changer si le rendu change : les anciens fichiers ne correspondront plus
+    private static final int RENDER_VERSION = 1;
+
+    private static final ExecutorService POOL = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "bomberman-thumbnails");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Aperçus récents (ordre d'accès), clé = condensé du contenu
+    private static final Map<String, Image> MEMORY = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MEMORY_CAPACITY;
+        }
+    };
+    // Calculs en cours, pour ne pas lancer deux fois le même
+    private static final Map<String, CompletableFuture<Image>> PENDING = new ConcurrentHashMap<>();
+    // Pixels ARGB des images de cases à la taille demandée (clé = chemin@taille)
+    private static final Map<String, int[]> TILES = new ConcurrentHashMap<>();
+
+    private LevelThumbnailCache() {}
+
+    /**
+     * @return l'aperçu s'il est déjà en mémoire, sinon null (sans rien calculer)
+     */
+    public static Image getIfPresent(Level level, int cellSize) {
+        String key = key(level, cellSize);
+        synchronized (MEMORY) {
+            return MEMORY.get(key);
+        }
+    }
+
+    /**
+     * Aperçu du niveau, calculé (ou relu sur disque) sur le thread courant si besoin.
+     */
+    public static Image get(Level level, int cellSize) {
+        String key = key(level, cellSize);
+        synchronized (MEMORY) {
+            Image image = MEMORY.get(key);
+            if (image != null) return image;
+        }
+        Image image = load(level, cellSize, key);
+        synchronized (MEMORY) {
+            MEMORY.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Aperçu du niveau calculé en arrière-plan ; immédiat s'il est déjà en mémoire.
+     */
+    public static CompletableFuture<Image> getAsync(Level level, int cellSize) {
+        String key = key(level, cellSize);
+        synchronized (MEMORY) {
+            Image image = MEMORY.get(key);
+            if (image != null) return CompletableFuture.completedFuture(image);
+        }
+        return PENDING.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(level, cellSize);
+            } finally {
+                PENDING.remove(k);
+            }
+        }, POOL));
+    }
+
+    /** Prépare en arrière-plan l'aperçu d'un niveau qui sera sans doute affiché bientôt. */
+    public static void prefetch(Level level, int cellSize) {
+        getAsync(level, cellSize);
+    }
+
+    /** Vide le cache mémoire (les fichiers sur disque sont conservés). */
+    public static void clear() {
+        synchronized (MEMORY) {
+            MEMORY.clear();
+        }
+        TILES.clear();
+    }
+
+    // --- Calcul ---
+
+    private static Image load(Level level, int cellSize, String key) {
+        File file = CACHE_DIR.resolve(key + ".png").toFile();
+        if (file.isFile()) {
+            try {
+                Image image = new Image(file.toURI().toString());
+                if (!image.isError() && image.getWidth() == GRID_WIDTH * cellSize && image.getHeight() == GRID_HEIGHT * cellSize) {
+                    return image;
+                }
+            } catch (Exception e) {
+                System.err.println("Aperçu illisible, recalculé : " + file + " - " + e.getMessage());
+            }
+        }
+        int width = GRID_WIDTH * cellSize, height = GRID_HEIGHT * cellSize;
+        int[] pixels = render(level, cellSize);
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        save(file, pixels, width, height);
+        return image;
+    }
+
+    /**
+     * Compose le plateau : cases du layout quand il les couvre, sinon bordure et damier de murs
+     * indestructibles (comme une grille sans layout, mais sans murs destructibles aléatoires).
+     */
+    private static int[] render(Level level, int cellSize) {
+        int width = GRID_WIDTH * cellSize;
+        int[] pixels = new int[width * GRID_HEIGHT * cellSize];
+        int[] ground = tile(level.getGroundImagePath(), cellSize, 0xFF3C8C3C);
+        int[] wall = tile(level.getWallIndestructibleImagePath(), cellSize, 0xFF505050);
+        int[] breakable = tile(level.getWallDestructibleImagePath(), cellSize, 0xFF9C6B3C);
+        int[][] layout = level.getLayout();
+
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                int cell;
+                if (layout != null && y < layout.length && x < layout[0].length) {
+                    cell = layout[y][x];
+                } else {
+                    cell = (x == 0 || y == 0 || x == GRID_WIDTH - 1 || y == GRID_HEIGHT - 1 || (x % 2 == 0 && y % 2 == 0)) ? 1 : 0;
+                }
+                int[] src = cell == 1 ? wall : cell == 2 ? breakable : ground;
+                for (int row = 0; row < cellSize; row++) {
+                    System.arraycopy(src, row * cellSize, pixels, (y * cellSize + row) * width + x * cellSize, cellSize);
+                }
+            }
+        }
+        return pixels;
+    }
+
+    // Pixels d'une image de case mise à l'échelle (couleur unie si l'image est introuvable)
+    private static int[] tile(String path, int cellSize, int fallbackColor) {
+        return TILES.computeIfAbsent(path + "@" + cellSize, k -> {
+            int[] pixels = new int[cellSize * cellSize];
+            try {
+                URL url = path != null ? LevelThumbnailCache.class.getResource(path) : null;
+                Image image = url != null ? new Image(url.toExternalForm(), cellSize, cellSize, false, true) : null;
+                PixelReader reader = image != null && !image.isError() ? image.getPixelReader() : null;
+                if (reader != null) {
+                    reader.getPixels(0, 0, cellSize, cellSize, PixelFormat.getIntArgbInstance(), pixels, 0, cellSize);
+                    return pixels;
+                }
+                System.err.println("Ressource introuvable : " + path);
+            } catch (Exception e) {
+                System.err.println("Erreur lors du chargement de l'image : " + path + " - " + e.getMessage());
+            }
+            Arrays.fill(pixels, fallbackColor);
+            return pixels;
+        });
+    }
+
+    private static void save(File file, int[] pixels, int width, int height) {
+        try {
+            Files.createDirectories(CACHE_DIR);
+            BufferedImage buffered = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            buffered.setRGB(0, 0, width, height, pixels, 0, width);
+            // Écrit à côté puis renomme : un aperçu à moitié écrit n'est jamais relu
+            File tmp = new File(file.getPath() + ".tmp");
+            ImageIO.write(buffered, "png", tmp);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la sauvegarde de l'aperçu : " + file + " - " + e.getMessage());
+        }
+    }
+
+    // --- Clé : condensé du contenu ---
+
+    private static String key(Level level, int cellSize) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update((RENDER_VERSION + "|" + cellSize + "|" + level.getGroundImagePath() + "|"
+                    + level.getWallIndestructibleImagePath() + "|" + level.getWallDestructibleImagePath() + "|")
+                    .getBytes(StandardCharsets.UTF_8));
+            int[][] layout = level.getLayout();
+            if (layout != null) {
+                for (int y = 0; y < Math.min(layout.length, GRID_HEIGHT); y++) {
+                    for (int x = 0; x < Math.min(layout[y].length, GRID_WIDTH); x++) {
+                        digest.update((byte) layout[y][x]);
+                    }
+                    digest.update((byte) '\n');
+                }
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
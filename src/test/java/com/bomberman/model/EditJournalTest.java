@@ -0,0 +1,170 @@
+package com.bomberman.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Historique de l'éditeur : codage des diffs, annuler / rétablir à l'octet près et remplissage.
+ */
+class EditJournalTest {
+
+    @Test
+    void diffHoldsOnlyTheChangedCells() {
+        Cells cells = new Cells(80, 60);
+        EditJournal journal = new EditJournal(cells);
+
+        EditJournal.Diff line = journal.line(10, 30, 69, 30, (byte) 1);
+        assertEquals(60, line.getCellCount());
+        // Une seule plage : écart, longueur, ancienne et nouvelle valeur
+        assertTrue(line.getSize() <= 6, "taille " + line.getSize());
+
+        // Une case remise à sa valeur pendant l'action ne compte pas ; une action sans effet n'est pas gardée
+        journal.beginStroke();
+        journal.set(0, 0, (byte) 2);
+        journal.set(1, 0, (byte) 2);
+        journal.set(0, 0, (byte) 0);
+        assertEquals(1, journal.endStroke().getCellCount());
+        journal.beginStroke();
+        journal.set(5, 5, (byte) 2);
+        journal.set(5, 5, (byte) 0);
+        assertNull(journal.endStroke());
+        assertNull(journal.line(10, 30, 69, 30, (byte) 1));
+    }
+
+    @Test
+    void undoAndRedoRestoreTheExactCells() {
+        Random random = new Random(7);
+        Cells cells = new Cells(31, 23);
+        EditJournal journal = new EditJournal(cells);
+
+        // history.get(k) : cases après k actions
+        List<byte[]> history = new ArrayList<>();
+        history.add(cells.data.clone());
+        for (int action = 0; action < 300; action++) {
+            if (randomAction(journal, cells, random) != null) history.add(cells.data.clone());
+        }
+
+        for (int k = history.size() - 2; k >= 0; k--) {
+            assertTrue(journal.undo());
+            assertArrayEquals(history.get(k), cells.data, "annulation jusqu'à l'action " + k);
+        }
+        assertFalse(journal.undo());
+        for (int k = 1; k < history.size(); k++) {
+            assertTrue(journal.redo());
+            assertArrayEquals(history.get(k), cells.data, "rétablissement de l'action " + k);
+        }
+        assertFalse(journal.redo());
+
+        // Une nouvelle action après des annulations efface ce qui restait à rétablir
+        journal.undo();
+        journal.undo();
+        journal.set(0, 0, (byte) (cells.data[0] == 1 ? 2 : 1));
+        assertFalse(journal.canRedo());
+        journal.undo();
+        assertArrayEquals(history.get(history.size() - 3), cells.data);
+    }
+
+    @Test
+    void floodFillMatchesConnectedArea() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            Cells cells = new Cells(5 + random.nextInt(40), 5 + random.nextInt(30));
+            for (int i = 0; i < cells.data.length; i++) cells.data[i] = (byte) random.nextInt(3);
+            byte[] before = cells.data.clone();
+            int x = random.nextInt(cells.width), y = random.nextInt(cells.height);
+            byte value = (byte) (3 + random.nextInt(3));
+
+            EditJournal journal = new EditJournal(cells);
+            EditJournal.Diff diff = journal.floodFill(x, y, value);
+            byte[] expected = fillReference(before, cells.width, cells.height, x, y, value);
+            assertArrayEquals(expected, cells.data, "remplissage " + round);
+            assertEquals(countDifferences(before, expected), diff.getCellCount());
+            journal.undo();
+            assertArrayEquals(before, cells.data);
+        }
+        assertNull(new EditJournal(new Cells(4, 4)).floodFill(1, 1, (byte) 0));
+    }
+
+    /** Une action au hasard : tracé libre, ligne, rectangle ou remplissage. @return son diff, ou null */
+    private static EditJournal.Diff randomAction(EditJournal journal, Cells cells, Random random) {
+        int w = cells.width, h = cells.height;
+        byte value = (byte) random.nextInt(6);
+        switch (random.nextInt(4)) {
+            case 0 -> {
+                journal.beginStroke();
+                for (int n = random.nextInt(20); n >= 0; n--) {
+                    journal.set(random.nextInt(w + 2) - 1, random.nextInt(h + 2) - 1, (byte) random.nextInt(6));
+                }
+                return journal.endStroke();
+            }
+            case 1 -> {
+                return journal.line(random.nextInt(w), random.nextInt(h), random.nextInt(w), random.nextInt(h), value);
+            }
+            case 2 -> {
+                return journal.rectangle(random.nextInt(w), random.nextInt(h), random.nextInt(w), random.nextInt(h),
+                        random.nextBoolean(), value);
+            }
+            default -> {
+                return journal.floodFill(random.nextInt(w), random.nextInt(h), value);
+            }
+        }
+    }
+
+    /** Remplissage de référence : parcours en largeur des voisines par les côtés. */
+    private static byte[] fillReference(byte[] cells, int width, int height, int x, int y, byte value) {
+        byte[] result = cells.clone();
+        byte from = cells[y * width + x];
+        boolean[] seen = new boolean[cells.length];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(y * width + x);
+        seen[y * width + x] = true;
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            result[cell] = value;
+            int cx = cell % width, cy = cell / width;
+            int[][] neighbours = {{cx - 1, cy}, {cx + 1, cy}, {cx, cy - 1}, {cx, cy + 1}};
+            for (int[] n : neighbours) {
+                if (n[0] < 0 || n[1] < 0 || n[0] >= width || n[1] >= height) continue;
+                int next = n[1] * width + n[0];
+                if (!seen[next] && cells[next] == from) {
+                    seen[next] = true;
+                    queue.add(next);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int countDifferences(byte[] a, byte[] b) {
+        int count = 0;
+        for (int i = 0; i < a.length; i++) if (a[i] != b[i]) count++;
+        return count;
+    }
+
+    /** Grille minimale modifiée par le journal. */
+    private static final class Cells implements EditJournal.Target {
+        final int width, height;
+        final byte[] data;
+
+        Cells(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.data = new byte[width * height];
+        }
+
+        @Override public int getWidth() { return width; }
+        @Override public int getHeight() { return height; }
+        @Override public byte get(int index) { return data[index]; }
+        @Override public void set(int index, byte value) { data[index] = value; }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bomberman.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Déterminisme de la simulation, sans interface : instantanés (restauration puis mêmes ticks)
+ * et replays (partie enregistrée, rejouée et parcourue par sauts jusqu'au même état).
+ */
+class GameDeterminismTest {
+    private static final int WIDTH = 15, HEIGHT = 13;
+    // Peu de simulations par tick : les tests restent rapides, les IA EXPERT passent quand même par la recherche
+    private static final int TEST_ROLLOUTS = 64;
+
+    @Test
+    void restoredSnapshotReplaysTheSameTicks() {
+        for (AIDifficulty difficulty : AIDifficulty.values()) {
+            Game game = newGame(difficulty, 11L);
+            GameEngine engine = new GameEngine(game);
+            engine.runHeadless(20);
+            GameSnapshot snapshot = game.snapshot();
+
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 60 && engine.step(); i++) expected.add(state(game));
+
+            game.restore(snapshot);
+            assertEquals(snapshot.getTick(), game.getCurrentTick());
+            for (int i = 0; i < expected.size(); i++) {
+                engine.step();
+                assertEquals(expected.get(i), state(game), difficulty + ", tick " + game.getCurrentTick());
+            }
+        }
+    }
+
+    @Test
+    void snapshotSurvivesSerialization() throws IOException {
+        Game game = newGame(AIDifficulty.DIFFICILE, 5L);
+        GameEngine engine = new GameEngine(game);
+        engine.runHeadless(25);
+        String before = state(game);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.snapshot().write(bytes);
+        engine.runHeadless(30);
+        game.restore(GameSnapshot.read(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(before, state(game));
+    }
+
+    @Test
+    void recordedMatchReplaysToTheSameState() throws IOException {
+        for (AIDifficulty difficulty : new AIDifficulty[] {AIDifficulty.NORMAL, AIDifficulty.DIFFICILE, AIDifficulty.EXPERT}) {
+            for (long seed = 1; seed <= 3; seed++) {
+                checkReplay(newGame(difficulty, seed), difficulty + ", graine " + seed, seed);
+            }
+        }
+    }
+
+    @Test
+    void timeBudgetedExpertMatchReplaysExactly() throws IOException {
+        // Comme une partie jouée : recherche limitée en temps, résultat dépendant de la machine (repli DIFFICILE compris)
+        for (long seed = 1; seed <= 2; seed++) {
+            Game game = new Game(WIDTH, HEIGHT, 1, 3, null, AIDifficulty.EXPERT, seed);
+            game.setExpertSearchLimits(5, 0);
+            checkReplay(game, "EXPERT limitée en temps, graine " + seed, seed);
+        }
+    }
+
+    /**
+     * Joue une partie avec des actions humaines aléatoires (enregistrées), puis vérifie que le replay
+     * passe par les mêmes états, de bout en bout et après des sauts en arrière et en avant.
+     */
+    private static void checkReplay(Game game, String label, long seed) throws IOException {
+        ReplayRecorder recorder = new ReplayRecorder(game, null, 1, 3, GameEngine.DEFAULT_TICKS_PER_SECOND);
+        game.setInputListener(recorder);
+        GameEngine engine = new GameEngine(game);
+        Random inputs = new Random(seed);
+        PlayerAction[] actions = PlayerAction.values();
+
+        // trace.get(t) : état au tick t, après les actions humaines faites à ce tick
+        List<String> trace = new ArrayList<>();
+        for (int t = 0; t < 160 && !game.isGameOver(); t++) {
+            for (int n = inputs.nextInt(3); n > 0; n--) {
+                game.applyAction(game.getPlayers().get(0), actions[inputs.nextInt(actions.length)]);
+            }
+            trace.add(state(game));
+            engine.step();
+        }
+        trace.add(state(game));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recorder.toReplay().write(bytes);
+        Replay replay = Replay.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.runToEnd();
+        assertEquals(trace.get(trace.size() - 1), state(player.getGame()), label + " : fin de partie");
+
+        int end = replay.getEndTick();
+        for (int target : new int[] {0, end / 2, 3, ReplayPlayer.CHECKPOINT_INTERVAL, end - 1, 7}) {
+            if (target < 0 || target >= end) continue;
+            player.seek(target);
+            assertEquals(trace.get(target), state(player.getGame()), label + " : saut au tick " + target);
+            player.getEngine().step();
+            assertEquals(trace.get(target + 1), state(player.getGame()), label + " : tick après le saut à " + target);
+        }
+    }
+
+    private static Game newGame(AIDifficulty difficulty, long seed) {
+        Game game = new Game(WIDTH, HEIGHT, 1, 3, null, difficulty, seed);
+        game.setParallelAI(false);
+        game.setExpertSearchLimits(0, TEST_ROLLOUTS);
+        return game;
+    }
+
+    /** Empreinte de l'état observable de la partie. */
+    private static String state(Game game) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(game.getCurrentTick()).append('|');
+        for (Player p : game.getPlayers()) {
+            sb.append(p.getX()).append(',').append(p.getY()).append(',').append(p.getLives())
+                    .append(p.isAlive() ? "" : "x").append(';');
+        }
+        sb.append('|').append(Arrays.hashCode(game.getGrid().snapshot()));
+        for (Bomb b : game.getBombs()) sb.append("|b").append(b.getX()).append(',').append(b.getY());
+        for (Bonus b : game.getBonuses()) sb.append("|o").append(b.getX()).append(',').append(b.getY());
+        sb.append('|').append(game.isGameOver());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bomberman.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Génération de niveaux en lot : le lot parallèle est celui qu'on obtient niveau par niveau sur un seul thread.
+ */
+class LevelGeneratorTest {
+
+    @Test
+    void parallelBatchMatchesSequentialGeneration() {
+        for (LevelGenerator.CorridorStyle style : LevelGenerator.CorridorStyle.values()) {
+            LevelGenerator.Parameters parameters = new LevelGenerator.Parameters(15, 13);
+            parameters.setCorridorStyle(style);
+            int count = 50;
+
+            // Référence séquentielle : même dérivation de graine par rang que generateBatch
+            GameRandom root = new GameRandom(42L);
+            List<Level> expected = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Level level = LevelGenerator.generate(parameters, root.forSubsystem("level-" + i).getSeed(),
+                        parameters.getNamePrefix() + " " + (i + 1));
+                if (level != null) expected.add(level);
+            }
+
+            List<Level> batch = LevelGenerator.generateBatch(parameters, 42L, count);
+            assertFalse(expected.isEmpty(), style.name());
+            assertEquals(expected.size(), batch.size(), style.name());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getName(), batch.get(i).getName(), style.name());
+                assertArrayEquals(expected.get(i).getLayout(), batch.get(i).getLayout(), expected.get(i).getName());
+            }
+            if (batch.size() > 1) {
+                assertFalse(Arrays.deepEquals(batch.get(0).getLayout(), batch.get(1).getLayout()), style.name());
+            }
+        }
+    }
+}
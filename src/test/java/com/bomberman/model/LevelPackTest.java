@@ -0,0 +1,95 @@
+package com.bomberman.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.bomberman.model.LevelSamples.assertSameLevel;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Archive de niveaux {@link LevelPack} : aller-retour et refus des archives abîmées à l'ouverture.
+ */
+class LevelPackTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void levelPackRoundTrips() throws IOException {
+        List<Level> levels = LevelSamples.samples();
+        levels.addAll(LevelGenerator.generateBatch(new LevelGenerator.Parameters(21, 17), 3L, 20));
+
+        Path file = dir.resolve("niveaux" + LevelPack.FILE_EXTENSION);
+        LevelPack.write(file, levels);
+        try (LevelPack pack = LevelPack.open(file)) {
+            assertEquals(levels.size(), pack.size());
+            for (int i = 0; i < levels.size(); i++) {
+                assertEquals(levels.get(i).getName(), pack.getName(i));
+                assertSameLevel(levels.get(i), pack.getLevel(i));
+            }
+            // Les marqueurs servent aux apparitions des joueurs
+            Level marked = pack.getLevel(levels.size() - 21);
+            for (LevelEditor.CellType type : new LevelEditor.CellType[] {
+                    LevelEditor.CellType.PLAYER_SPAWN, LevelEditor.CellType.AI_SPAWN, LevelEditor.CellType.BONUS}) {
+                assertArrayEquals(LevelSamples.withMarkers().findMarkers(type), marked.findMarkers(type), type.name());
+            }
+            assertEquals(levels.size() - 1, pack.indexOf(levels.get(levels.size() - 1).getName()));
+        }
+    }
+
+    @Test
+    void corruptArchivesAreRefusedOnOpen() throws IOException {
+        Path valid = dir.resolve("valide" + LevelPack.FILE_EXTENSION);
+        LevelPack.write(valid, LevelSamples.samples());
+        byte[] bytes = Files.readAllBytes(valid);
+
+        // Fichier tronqué : les cases du dernier niveau dépassent
+        assertRefused(Arrays.copyOf(bytes, bytes.length - 1));
+        // Case qui n'est ni sol ni mur, marqueur inconnu ou hors du niveau
+        assertRefused(patched(bytes, b -> b.put((int) b.getLong(32 + 8), (byte) 7)));
+        assertRefused(patched(bytes, b -> b.put(b.capacity() - 1, (byte) 9)));
+        assertRefused(patched(bytes, b -> b.put(b.capacity() - 2, (byte) 0x7F)));
+        // Table des chaînes, cases et chaînes hors du fichier
+        assertRefused(patched(bytes, b -> b.putLong(16, -1L)));
+        assertRefused(patched(bytes, b -> b.putLong(32 + 8, b.capacity())));
+        assertRefused(patched(bytes, b -> b.putLong(32 + 8, Integer.MAX_VALUE + 1L)));
+        assertRefused(patched(bytes, b -> b.putInt(32, Integer.MAX_VALUE)));
+        assertRefused(patched(bytes, b -> b.putInt(32 + 4, -1)));
+        assertRefused(patched(bytes, b -> b.putInt(32 + 16, Integer.MAX_VALUE - 1)));
+        assertRefused(patched(bytes, b -> b.putInt(32 + 20, -40)));
+        assertRefused(patched(bytes, b -> b.putLong(32 + (b.getInt(8) - 1) * 40 + 32, b.capacity())));
+    }
+
+    @Test
+    void catalogSkipsCorruptArchive() throws IOException {
+        Path levels = Files.createDirectory(dir.resolve("niveaux"));
+        List<Level> samples = LevelSamples.samples();
+        LevelPack.write(levels.resolve("valide" + LevelPack.FILE_EXTENSION), samples);
+        byte[] bytes = Files.readAllBytes(levels.resolve("valide" + LevelPack.FILE_EXTENSION));
+        Files.write(levels.resolve("abime" + LevelPack.FILE_EXTENSION), Arrays.copyOf(bytes, bytes.length - 1));
+
+        LevelCatalog catalog = new LevelCatalog(List.of(levels), dir.resolve("levels.index"));
+        assertEquals(samples.size(), catalog.scan().size());
+    }
+
+    private void assertRefused(byte[] bytes) throws IOException {
+        Path file = Files.write(dir.resolve("abime" + LevelPack.FILE_EXTENSION), bytes);
+        assertThrows(IOException.class, () -> LevelPack.open(file).close());
+    }
+
+    private static byte[] patched(byte[] bytes, Consumer<ByteBuffer> patch) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        patch.accept(buffer);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,49 @@
+package com.bomberman.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Niveaux d'exemple et comparaison de niveaux, partagés par les tests des formats de niveaux.
+ */
+final class LevelSamples {
+    private static final Path PREDEFINED = Paths.get("src/main/resources/levels/predefined");
+
+    private LevelSamples() {}
+
+    /** Niveaux prédéfinis et un niveau avec marqueurs. */
+    static List<Level> samples() throws IOException {
+        List<Level> levels = new ArrayList<>(Level.loadLevelsFromDirectory(PREDEFINED));
+        assertFalse(levels.isEmpty());
+        levels.add(withMarkers());
+        return levels;
+    }
+
+    /** Niveau portant un marqueur de chaque type (apparitions joueur et IA, bonus). */
+    static Level withMarkers() {
+        LevelEditor editor = new LevelEditor(17, 11);
+        editor.setCell(0, 0, LevelEditor.CellType.WALL);
+        editor.setCell(4, 3, LevelEditor.CellType.BREAKABLE);
+        editor.setCell(1, 1, LevelEditor.CellType.PLAYER_SPAWN);
+        editor.setCell(15, 9, LevelEditor.CellType.AI_SPAWN);
+        editor.setCell(8, 5, LevelEditor.CellType.BONUS);
+        return editor.toLevel("Marqueurs", "/images/elementsMap/herbe.png",
+                "/images/elementsMap/murIndestructible.png", "/images/elementsMap/murDestructible.png");
+    }
+
+    /** Même nom, mêmes images et même layout, marqueurs compris. */
+    static void assertSameLevel(Level expected, Level actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getGroundImagePath(), actual.getGroundImagePath());
+        assertEquals(expected.getWallIndestructibleImagePath(), actual.getWallIndestructibleImagePath());
+        assertEquals(expected.getWallDestructibleImagePath(), actual.getWallDestructibleImagePath());
+        assertArrayEquals(expected.getLayout(), actual.getLayout(), expected.getName());
+    }
+}
@@ -0,0 +1,47 @@
+package com.bomberman.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.bomberman.model.LevelSamples.assertSameLevel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Formats de fichier d'un niveau : binaire (avec et sans Deflate, marqueurs compris) et texte.
+ */
+class LevelTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void binaryFormatRoundTrips() throws IOException {
+        for (Level level : LevelSamples.samples()) {
+            for (boolean deflate : new boolean[] {false, true}) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                level.writeBinary(bytes, deflate);
+                assertSameLevel(level, Level.readBinary(new ByteArrayInputStream(bytes.toByteArray())));
+            }
+        }
+    }
+
+    @Test
+    void binaryAndTextFilesAreDetectedOnLoad() throws IOException {
+        Level level = LevelSamples.withMarkers();
+        Path binary = dir.resolve("binaire.level");
+        Path text = dir.resolve("texte.level");
+        level.saveBinary(binary, true);
+        level.saveToFile(text);
+
+        assertSameLevel(level, Level.fromFile(binary));
+        assertSameLevel(level, Level.fromFile(text));
+        Level.Header header = Level.readHeader(binary);
+        assertEquals(level.getName(), header.getName());
+        assertEquals(level.getWidth(), header.getWidth());
+        assertEquals(level.getHeight(), header.getHeight());
+    }
+}
@@ -0,0 +1,89 @@
+package com.bomberman.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérification incrémentale des cartes de l'éditeur : après n'importe quelle suite de modifications,
+ * le résultat est celui d'un validateur créé directement sur la carte finale.
+ */
+class LevelValidatorTest {
+    private static final byte[] CODES = {
+            (byte) LevelEditor.CellType.EMPTY.ordinal(),
+            (byte) LevelEditor.CellType.WALL.ordinal(),
+            (byte) LevelEditor.CellType.BREAKABLE.ordinal(),
+            (byte) LevelEditor.CellType.PLAYER_SPAWN.ordinal(),
+            (byte) LevelEditor.CellType.AI_SPAWN.ordinal(),
+            (byte) LevelEditor.CellType.BONUS.ordinal()
+    };
+
+    @Test
+    void incrementalReportMatchesFreshValidator() {
+        Random random = new Random(3);
+        for (int round = 0; round < 40; round++) {
+            int width = 5 + random.nextInt(20), height = 5 + random.nextInt(15);
+            byte[] codes = new byte[width * height];
+            for (int i = 0; i < codes.length; i++) codes[i] = randomCode(random);
+            LevelValidator validator = new LevelValidator(width, height, codes);
+
+            for (int batch = 0; batch < 30; batch++) {
+                // Lots de tailles variées : tantôt seulement des ouvertures (union-find à jour), tantôt des fermetures
+                boolean openOnly = random.nextBoolean();
+                for (int n = random.nextInt(12); n >= 0; n--) {
+                    int index = random.nextInt(codes.length);
+                    byte code = openOnly && random.nextInt(4) != 0 ? CODES[0] : randomCode(random);
+                    if (openOnly && code == CODES[1]) continue;
+                    codes[index] = code;
+                    validator.apply(index, code);
+                }
+                assertSameReport(new LevelValidator(width, height, codes).validate(), validator.validate(),
+                        "tour " + round + ", lot " + batch);
+            }
+        }
+    }
+
+    @Test
+    void reportsIsolatedAndTrappedSpawns() {
+        LevelEditor editor = new LevelEditor(9, 7);
+        for (int y = 0; y < 7; y++) editor.setCell(4, y, LevelEditor.CellType.WALL);
+        for (int i = 0; i < 12; i++) editor.setCell(1 + i % 3, 1 + i / 3 % 5, LevelEditor.CellType.BREAKABLE);
+        editor.setCell(6, 3, LevelEditor.CellType.PLAYER_SPAWN);
+        editor.setCell(7, 1, LevelEditor.CellType.AI_SPAWN);
+        editor.setCell(2, 3, LevelEditor.CellType.AI_SPAWN);
+
+        LevelValidator.Report report = LevelValidator.of(editor).validate();
+        assertFalse(report.isPlayable());
+        assertArrayEquals(new int[] {3 * 9 + 2}, report.getDisconnectedSpawns());
+        assertArrayEquals(new int[] {3 * 9 + 2}, report.getTrappedSpawns());
+
+        // Ouvrir le mur du milieu relie les deux moitiés
+        LevelValidator validator = LevelValidator.of(editor);
+        validator.apply(3 * 9 + 4, CODES[0]);
+        validator.apply(3 * 9 + 3, CODES[0]);
+        assertEquals(0, validator.validate().getDisconnectedSpawns().length);
+        assertTrue(validator.validate().getTrappedSpawns().length <= 1);
+    }
+
+    private static byte randomCode(Random random) {
+        int roll = random.nextInt(20);
+        if (roll < 8) return CODES[0];
+        if (roll < 12) return CODES[1];
+        if (roll < 17) return CODES[2];
+        return CODES[3 + random.nextInt(3)];
+    }
+
+    private static void assertSameReport(LevelValidator.Report expected, LevelValidator.Report actual, String label) {
+        assertArrayEquals(expected.getSpawns(), actual.getSpawns(), label);
+        assertArrayEquals(expected.getDisconnectedSpawns(), actual.getDisconnectedSpawns(), label);
+        assertArrayEquals(expected.getTrappedSpawns(), actual.getTrappedSpawns(), label);
+        assertEquals(expected.getMinEscapeRoom(), actual.getMinEscapeRoom(), label);
+        assertEquals(expected.getDensity(), actual.getDensity(), label);
+        assertEquals(expected.getWarnings(), actual.getWarnings(), label);
+    }
+}